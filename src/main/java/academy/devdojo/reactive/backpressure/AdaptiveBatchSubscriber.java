@@ -0,0 +1,108 @@
+package academy.devdojo.reactive.backpressure;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * {@link BaseSubscriber} that sizes its {@code request(n)} batches from how long each element takes
+ * to arrive and be consumed, measured between demand refills, AIMD style: while a whole batch is
+ * processed within {@code targetBatchTime} the batch grows by {@code maxBatch / 64}, otherwise it is
+ * halved. Demand is topped back up to the batch size once the in-flight count (requested but not yet
+ * received) drops to half a batch.
+ * <p>
+ * Only processing time sizes the batch. A {@code Subscription} does not expose the depth of the queue
+ * behind it in general, so the in-flight count, the one depth this subscriber controls, only decides
+ * when demand is topped up.
+ */
+public class AdaptiveBatchSubscriber<T> extends BaseSubscriber<T> {
+
+    public static final int DEFAULT_MIN_BATCH = 1;
+    public static final int DEFAULT_MAX_BATCH = 1024;
+    public static final Duration DEFAULT_TARGET_BATCH_TIME = Duration.ofMillis(1);
+
+    private final Consumer<? super T> consumer;
+    private final int minBatch;
+    private final int maxBatch;
+    private final int increment;
+    private final long targetBatchNanos;
+
+    private volatile int batch;
+    private long inFlight;
+    private long windowStart;
+    private long sinceAdjust;
+    private volatile long received;
+    private volatile long requestCalls;
+
+    public AdaptiveBatchSubscriber(Consumer<? super T> consumer) {
+        this(consumer, DEFAULT_MIN_BATCH, DEFAULT_MAX_BATCH, DEFAULT_TARGET_BATCH_TIME);
+    }
+
+    public AdaptiveBatchSubscriber(Consumer<? super T> consumer, int minBatch, int maxBatch,
+                                   Duration targetBatchTime) {
+        if (minBatch < 1 || maxBatch < minBatch) {
+            throw new IllegalArgumentException("Expected 1 <= minBatch <= maxBatch, got "
+                    + minBatch + " and " + maxBatch);
+        }
+        this.consumer = consumer;
+        this.minBatch = minBatch;
+        this.maxBatch = maxBatch;
+        this.increment = Math.max(1, maxBatch / 64);
+        this.targetBatchNanos = targetBatchTime.toNanos();
+        this.batch = minBatch;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+        inFlight = batch;
+        requestCalls++;
+        windowStart = System.nanoTime();
+        request(batch);
+    }
+
+    @Override
+    protected void hookOnNext(T value) {
+        consumer.accept(value);
+        sinceAdjust++;
+        inFlight--;
+        received++;
+
+        if (inFlight <= batch >> 1) {
+            adjust();
+            // depois de reduzir pela metade o que ja esta em voo pode bastar
+            long n = batch - inFlight;
+            if (n > 0) {
+                inFlight += n;
+                requestCalls++;
+                request(n);
+            }
+        }
+    }
+
+    // um nanoTime por reposicao de demanda, nao por elemento
+    private void adjust() {
+        long now = System.nanoTime();
+        long projectedBatchNanos = (now - windowStart) / sinceAdjust * batch;
+        if (projectedBatchNanos <= targetBatchNanos) {
+            batch = Math.min(maxBatch, batch + increment);
+        } else {
+            batch = Math.max(minBatch, batch >> 1);
+        }
+        windowStart = now;
+        sinceAdjust = 0;
+    }
+
+    public int currentBatch() {
+        return batch;
+    }
+
+    public long received() {
+        return received;
+    }
+
+    public long requestCalls() {
+        return requestCalls;
+    }
+}
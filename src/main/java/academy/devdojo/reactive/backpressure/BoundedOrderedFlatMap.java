@@ -0,0 +1,400 @@
+package academy.devdojo.reactive.backpressure;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ordered flatMap, like {@code flatMapSequential}, whose reorder buffer is capped:
+ * {@code flux.transform(new BoundedOrderedFlatMap<>(this::findByName, 4, 256))}.
+ * <p>
+ * {@code flatMapSequential} keeps requesting from every inner publisher while a slow one holds the head,
+ * so early finishers pile up without limit. Here inners behind the head are only asked for more while
+ * the elements buffered or requested stay within {@code maxBuffered} (and the buffered weight within
+ * {@code maxBufferedWeight}); past that they and the upstream are left without demand until the head
+ * moves. The head inner is always allowed one {@code prefetch} batch, so the buffer peaks at
+ * {@code maxBuffered + prefetch} elements.
+ * <p>
+ * The occupancy gauges sum all subscriptions of this instance. The weigher must return the same weight
+ * for an element every time it is called.
+ */
+public final class BoundedOrderedFlatMap<T, R> implements Function<Flux<T>, Publisher<R>> {
+
+    public static final int DEFAULT_PREFETCH = 32;
+
+    private final Function<? super T, ? extends Publisher<? extends R>> mapper;
+    private final int concurrency;
+    private final int prefetch;
+    private final long maxBuffered;
+    private final ToLongFunction<? super R> weigher;
+    private final long maxBufferedWeight;
+    private final boolean weighted;
+    private final AtomicLong buffered = new AtomicLong();
+    private final AtomicLong bufferedWeight = new AtomicLong();
+    private final AtomicLong peakBuffered = new AtomicLong();
+
+    public BoundedOrderedFlatMap(Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                 int concurrency, long maxBuffered) {
+        this(mapper, concurrency, (int) Math.min(DEFAULT_PREFETCH, maxBuffered), maxBuffered, r -> 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param weigher           estimated size of an element, e.g. its bytes
+     * @param maxBufferedWeight inners behind the head get no more demand once the buffered weight reaches it
+     */
+    public BoundedOrderedFlatMap(Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                 int concurrency, int prefetch, long maxBuffered,
+                                 ToLongFunction<? super R> weigher, long maxBufferedWeight) {
+        if (concurrency < 1 || prefetch < 1 || maxBuffered < prefetch || maxBufferedWeight < 1) {
+            throw new IllegalArgumentException("Expected concurrency, prefetch and maxBufferedWeight >= 1 and"
+                    + " maxBuffered >= prefetch, got " + concurrency + ", " + prefetch + ", " + maxBufferedWeight
+                    + " and " + maxBuffered);
+        }
+        this.mapper = mapper;
+        this.concurrency = concurrency;
+        this.prefetch = prefetch;
+        this.maxBuffered = maxBuffered;
+        this.weigher = weigher;
+        this.maxBufferedWeight = maxBufferedWeight;
+        this.weighted = maxBufferedWeight != Long.MAX_VALUE;
+    }
+
+    @Override
+    public Publisher<R> apply(Flux<T> flux) {
+        return Flux.from(actual -> flux.subscribe(new OrderedSubscriber(Operators.toCoreSubscriber(actual))));
+    }
+
+    public long bufferedElements() {
+        return buffered.get();
+    }
+
+    /**
+     * Same as {@link #bufferedElements()} when no weight cap was given.
+     */
+    public long bufferedWeight() {
+        return weighted ? bufferedWeight.get() : buffered.get();
+    }
+
+    public long peakBufferedElements() {
+        return peakBuffered.get();
+    }
+
+    private final class OrderedSubscriber implements CoreSubscriber<T>, Subscription {
+        private final CoreSubscriber<? super R> actual;
+        private final Queue<Inner> inners = new ConcurrentLinkedQueue<>();
+        // inners sem demanda pendente, na ordem em que ficaram assim; o dreno pede a eles se couber
+        private final Queue<Inner> hungry = new ConcurrentLinkedQueue<>();
+        private final AtomicLong outstanding = new AtomicLong();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final AtomicLong localBuffered = new AtomicLong();
+        private final AtomicLong localWeight = new AtomicLong();
+        private Subscription upstream;
+        // pedidos ao upstream adiados enquanto o buffer esta cheio; so o dreno mexe
+        private long upstreamCredit;
+        private volatile boolean upstreamDone;
+        private volatile boolean cancelled;
+
+        OrderedSubscriber(CoreSubscriber<? super R> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                actual.onSubscribe(this);
+                s.request(concurrency);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (upstreamDone) {
+                Operators.onNextDropped(t, currentContext());
+                return;
+            }
+            Publisher<? extends R> publisher;
+            try {
+                publisher = Objects.requireNonNull(mapper.apply(t), "The mapper returned a null Publisher");
+            } catch (Throwable e) {
+                upstream.cancel();
+                onError(Operators.onOperatorError(e, currentContext()));
+                return;
+            }
+            Inner inner = new Inner(this);
+            inners.offer(inner);
+            publisher.subscribe(inner);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (!error.compareAndSet(null, t)) {
+                Operators.onErrorDropped(t, currentContext());
+            }
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                drain();
+            }
+        }
+
+        void innerNext(Inner inner, R value) {
+            if (cancelled) {
+                outstanding.decrementAndGet();
+                inner.outstanding.decrementAndGet();
+                Operators.onDiscard(value, currentContext());
+                return;
+            }
+            // conta o valor antes de soltar a demanda: um dreno concorrente nao pode ver o inner com fome
+            // e o buffer sem ele, senao pede alem de maxBuffered
+            localBuffered.incrementAndGet();
+            long total = buffered.incrementAndGet();
+            if (total > peakBuffered.get()) {
+                peakBuffered.accumulateAndGet(total, Math::max);
+            }
+            // sem limite de peso o weigher nem e chamado
+            if (weighted) {
+                long weight = weigher.applyAsLong(value);
+                localWeight.addAndGet(weight);
+                bufferedWeight.addAndGet(weight);
+            }
+            // um cancel daqui em diante e pego pelo drain abaixo, que descarta o valor
+            inner.queue.offer(value);
+            outstanding.decrementAndGet();
+            if (inner.outstanding.decrementAndGet() == 0) {
+                hungry.offer(inner);
+            }
+            drain();
+        }
+
+        void innerError(Inner inner, Throwable e) {
+            if (!error.compareAndSet(null, e)) {
+                Operators.onErrorDropped(e, currentContext());
+            }
+            innerComplete(inner);
+        }
+
+        void innerComplete(Inner inner) {
+            inner.done = true;
+            outstanding.addAndGet(-inner.outstanding.getAndSet(0));
+            drain();
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                // depois de terminado o dreno segue so para descartar o que os inners ainda entregarem
+                if (cancelled) {
+                    clear();
+                } else {
+                    drainInners();
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void drainInners() {
+            // fail-fast, como o flatMapSequential
+            Throwable e = error.get();
+            if (e != null) {
+                cancelled = true;
+                upstream.cancel();
+                clear();
+                actual.onError(e);
+                return;
+            }
+
+            long r = requested.get();
+            long emitted = 0;
+            Inner head;
+            while ((head = inners.peek()) != null) {
+                boolean done = head.done;
+                R value = emitted != r ? head.queue.poll() : null;
+                if (value != null) {
+                    release(value);
+                    actual.onNext(value);
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    emitted++;
+                    continue;
+                }
+                if (done && head.queue.isEmpty()) {
+                    inners.poll();
+                    upstreamCredit++;
+                    continue;
+                }
+                break;
+            }
+            if (emitted != 0 && r != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+
+            if (upstreamDone && inners.isEmpty() && error.get() == null) {
+                cancelled = true;
+                actual.onComplete();
+                return;
+            }
+            replenish();
+        }
+
+        private void replenish() {
+            long reserved = localBuffered.get() + outstanding.get();
+            Inner head = inners.peek();
+            // o head sempre pode pedir quando esvazia, senao o buffer cheio travaria tudo
+            if (head != null && head.subscription != null && !head.done
+                    && head.outstanding.get() == 0 && head.queue.isEmpty()) {
+                reserved += prefetch;
+                head.request(prefetch);
+            }
+            for (Inner inner = hungry.peek(); inner != null; inner = hungry.peek()) {
+                if (inner.done || inner.outstanding.get() != 0) {
+                    hungry.poll();
+                    continue;
+                }
+                if (!hasRoom(reserved + prefetch)) {
+                    break;
+                }
+                hungry.poll();
+                reserved += prefetch;
+                inner.request(prefetch);
+            }
+            if (upstreamCredit > 0 && !upstreamDone && hasRoom(reserved + 1)) {
+                long n = upstreamCredit;
+                upstreamCredit = 0;
+                upstream.request(n);
+            }
+        }
+
+        private boolean hasRoom(long reserved) {
+            return reserved <= maxBuffered && localWeight.get() < maxBufferedWeight;
+        }
+
+        private void release(R value) {
+            localBuffered.decrementAndGet();
+            buffered.decrementAndGet();
+            if (weighted) {
+                long weight = weigher.applyAsLong(value);
+                localWeight.addAndGet(-weight);
+                bufferedWeight.addAndGet(-weight);
+            }
+        }
+
+        // os inners ficam na fila: um valor que chegue depois do cancel ainda e achado no proximo clear
+        private void clear() {
+            hungry.clear();
+            for (Inner inner : inners) {
+                inner.cancel();
+                for (R value = inner.queue.poll(); value != null; value = inner.queue.poll()) {
+                    release(value);
+                    Operators.onDiscard(value, currentContext());
+                }
+            }
+        }
+    }
+
+    private final class Inner implements CoreSubscriber<R> {
+        private final OrderedSubscriber parent;
+        final Queue<R> queue = Queues.<R>unbounded(prefetch).get();
+        final AtomicLong outstanding = new AtomicLong();
+        volatile Subscription subscription;
+        volatile boolean done;
+
+        Inner(OrderedSubscriber parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public Context currentContext() {
+            return parent.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(subscription, s)) {
+                subscription = s;
+                if (parent.cancelled) {
+                    s.cancel();
+                } else {
+                    parent.hungry.offer(this);
+                    parent.drain();
+                }
+            }
+        }
+
+        @Override
+        public void onNext(R value) {
+            parent.innerNext(this, value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            parent.innerError(this, t);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.innerComplete(this);
+        }
+
+        void request(long n) {
+            outstanding.addAndGet(n);
+            parent.outstanding.addAndGet(n);
+            subscription.request(n);
+        }
+
+        void cancel() {
+            Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+}
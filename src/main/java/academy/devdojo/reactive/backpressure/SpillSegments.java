@@ -0,0 +1,160 @@
+package academy.devdojo.reactive.backpressure;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Append-only FIFO of serialized elements in memory-mapped segment files of {@code segmentBytes} each.
+ * Every record is its length followed by its bytes. A segment is deleted as soon as its last record is
+ * read, unless it is also the one being written, which is then rewound and reused.
+ * <p>
+ * One writer and one reader, serialized by the monitor: both go through the segment's single buffer.
+ */
+final class SpillSegments<T> {
+
+    private static final int HEADER = Integer.BYTES;
+
+    private final SpillSerializer<T> serializer;
+    private final Path directory;
+    private final int segmentBytes;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long records;
+    private boolean closed;
+
+    SpillSegments(SpillSerializer<T> serializer, Path directory, int segmentBytes) {
+        this.serializer = serializer;
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * @return {@code false} when already closed
+     */
+    synchronized boolean append(T value) throws IOException {
+        if (closed) {
+            return false;
+        }
+        Segment tail = segments.peekLast();
+        if (tail == null || !tail.append(value)) {
+            tail = newSegment();
+            segments.addLast(tail);
+            if (!tail.append(value)) {
+                throw new IllegalArgumentException("Element does not fit in a " + segmentBytes
+                        + " byte segment: " + value);
+            }
+        }
+        records++;
+        return true;
+    }
+
+    /**
+     * @return the oldest record, {@code null} when there is none
+     */
+    synchronized T poll() throws IOException {
+        Segment head = segments.peekFirst();
+        if (closed || head == null || head.isEmpty()) {
+            return null;
+        }
+        T value = head.read();
+        records--;
+        if (head.isEmpty()) {
+            if (segments.size() > 1) {
+                segments.pollFirst();
+                deleteSegment(head);
+            } else {
+                head.rewind();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Deletes every segment; later appends are refused.
+     *
+     * @return the records that were still unread
+     */
+    synchronized long close() {
+        closed = true;
+        for (Segment segment = segments.pollFirst(); segment != null; segment = segments.pollFirst()) {
+            try {
+                deleteSegment(segment);
+            } catch (IOException ignored) {
+                segment.path.toFile().deleteOnExit();
+            }
+        }
+        long unread = records;
+        records = 0;
+        return unread;
+    }
+
+    // as unicas chamadas bloqueantes; o BlockHound libera as duas (SpillingBuffer.Integration)
+    private Segment newSegment() throws IOException {
+        Path path = Files.createTempFile(directory, "spill-", ".segment");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // o mapeamento continua valido depois de fechar o canal
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    private void deleteSegment(Segment segment) throws IOException {
+        Files.deleteIfExists(segment.path);
+    }
+
+    private final class Segment {
+        final Path path;
+        final MappedByteBuffer buffer;
+        int writePosition;
+        int readPosition;
+
+        Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        boolean append(T value) {
+            int start = writePosition + HEADER;
+            if (start >= segmentBytes) {
+                return false;
+            }
+            buffer.limit(segmentBytes).position(start);
+            try {
+                serializer.write(value, buffer);
+            } catch (BufferOverflowException e) {
+                return false;
+            }
+            buffer.putInt(writePosition, buffer.position() - start);
+            writePosition = buffer.position();
+            return true;
+        }
+
+        T read() {
+            // o limite ainda e o do ultimo append ou read
+            buffer.limit(writePosition);
+            int length = buffer.getInt(readPosition);
+            int start = readPosition + HEADER;
+            buffer.limit(start + length).position(start);
+            T value = serializer.read(buffer);
+            readPosition = start + length;
+            return value;
+        }
+
+        boolean isEmpty() {
+            return readPosition == writePosition;
+        }
+
+        void rewind() {
+            readPosition = 0;
+            writePosition = 0;
+        }
+    }
+}
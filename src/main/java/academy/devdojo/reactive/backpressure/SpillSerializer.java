@@ -0,0 +1,59 @@
+package academy.devdojo.reactive.backpressure;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Turns the elements a {@link SpillingBuffer} spills into bytes and back. Implementations must be
+ * thread-safe, as one serializer serves every subscription of the buffer.
+ */
+public interface SpillSerializer<T> {
+
+    /**
+     * Writes {@code value} at the position of {@code target}, which has room up to its limit; running
+     * out of room must throw {@link java.nio.BufferOverflowException}, as the relative {@code put}
+     * methods do.
+     */
+    void write(T value, ByteBuffer target);
+
+    /**
+     * Reads one value from {@code source}, positioned at its first byte and limited to its last. The
+     * buffer is reused afterwards, so the value must not keep a reference to it.
+     */
+    T read(ByteBuffer source);
+
+    static SpillSerializer<String> utf8() {
+        return of(s -> s.getBytes(StandardCharsets.UTF_8), bytes -> new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    static SpillSerializer<Long> longs() {
+        return new SpillSerializer<>() {
+            @Override
+            public void write(Long value, ByteBuffer target) {
+                target.putLong(value);
+            }
+
+            @Override
+            public Long read(ByteBuffer source) {
+                return source.getLong();
+            }
+        };
+    }
+
+    static <T> SpillSerializer<T> of(Function<? super T, byte[]> toBytes, Function<byte[], ? extends T> fromBytes) {
+        return new SpillSerializer<>() {
+            @Override
+            public void write(T value, ByteBuffer target) {
+                target.put(toBytes.apply(value));
+            }
+
+            @Override
+            public T read(ByteBuffer source) {
+                byte[] bytes = new byte[source.remaining()];
+                source.get(bytes);
+                return fromBytes.apply(bytes);
+            }
+        };
+    }
+}
@@ -0,0 +1,297 @@
+package academy.devdojo.reactive.backpressure;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * {@code onBackpressureBuffer} for producers that cannot be slowed down, such as {@code Flux.interval} or a
+ * socket, when neither an unbounded heap buffer nor dropping is acceptable:
+ * {@code ticks.transform(new SpillingBuffer<>(10_000, SpillSerializer.longs()))}.
+ * <p>
+ * The upstream is requested unbounded. The first {@code memoryCapacity} elements the downstream has not
+ * requested yet wait in an in-memory queue; past that, elements are serialized into append-only,
+ * memory-mapped segment files of {@code segmentBytes} in {@code directory}, and once anything is on disk
+ * every new element goes there too, so the order is kept. As demand returns the memory queue is drained
+ * first and the segments are replayed in order, each one deleted as soon as it has been read. The heap
+ * holds at most {@code memoryCapacity} elements; the mapped pages are the OS's to evict, and the mapping of
+ * a deleted segment goes away when its buffer is garbage collected.
+ * <p>
+ * Errors from upstream are delayed until everything buffered was emitted. Failing to write a segment or to
+ * serialize an element cancels the upstream and fails the downstream immediately; an element larger than
+ * a segment fails with {@link IllegalArgumentException}. Segment files are removed when the subscription
+ * terminates or is cancelled. Creating and deleting a segment are the only blocking calls, allowed to
+ * BlockHound by {@link Integration}.
+ */
+public final class SpillingBuffer<T> implements Function<Flux<T>, Publisher<T>> {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+    // Integer.MAX_VALUE daria uma fila sem limite
+    private static final int MAX_MEMORY_CAPACITY = 1 << 30;
+
+    private final int memoryCapacity;
+    private final SpillSerializer<T> serializer;
+    private final Path directory;
+    private final int segmentBytes;
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong onDisk = new AtomicLong();
+
+    /**
+     * Spills to {@code java.io.tmpdir} in {@value #DEFAULT_SEGMENT_BYTES} byte segments.
+     */
+    public SpillingBuffer(int memoryCapacity, SpillSerializer<T> serializer) {
+        this(memoryCapacity, serializer, Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * @param memoryCapacity rounded up as Reactor's queues are: to a power of two, at least 8 unless it is 1
+     * @param segmentBytes   size of each segment file; it bounds the size of a serialized element
+     */
+    public SpillingBuffer(int memoryCapacity, SpillSerializer<T> serializer, Path directory, int segmentBytes) {
+        if (memoryCapacity < 1 || memoryCapacity > MAX_MEMORY_CAPACITY) {
+            throw new IllegalArgumentException("memoryCapacity must be between 1 and " + MAX_MEMORY_CAPACITY
+                    + " but it was " + memoryCapacity);
+        }
+        if (segmentBytes <= Integer.BYTES) {
+            throw new IllegalArgumentException("segmentBytes > " + Integer.BYTES + " required but it was "
+                    + segmentBytes);
+        }
+        this.memoryCapacity = memoryCapacity;
+        this.serializer = serializer;
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    @Override
+    public Publisher<T> apply(Flux<T> flux) {
+        return Flux.from(actual -> flux.subscribe(new SpillingSubscriber(Operators.toCoreSubscriber(actual))));
+    }
+
+    /**
+     * Elements written to disk so far, by every subscription.
+     */
+    public long spilled() {
+        return spilled.get();
+    }
+
+    /**
+     * Elements on disk not yet replayed, across subscriptions.
+     */
+    public long onDisk() {
+        return onDisk.get();
+    }
+
+    /**
+     * Registered in {@code META-INF/services}: lets the segment files be created and deleted on the
+     * non-blocking threads the buffer runs on.
+     */
+    public static final class Integration implements BlockHoundIntegration {
+
+        @Override
+        public void applyTo(BlockHound.Builder builder) {
+            builder.allowBlockingCallsInside(SpillSegments.class.getName(), "newSegment")
+                    .allowBlockingCallsInside(SpillSegments.class.getName(), "deleteSegment");
+        }
+    }
+
+    private final class SpillingSubscriber implements CoreSubscriber<T>, Subscription {
+        private final CoreSubscriber<? super T> actual;
+        private final Queue<T> memory;
+        private final SpillSegments<T> segments;
+        // elementos no disco ainda nao lidos; enquanto > 0, tudo que chega vai para o disco
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private Subscription upstream;
+        private Throwable error;
+        // falha do disco: nao da para entregar o que ficou para tras, sai na hora
+        private volatile Throwable failure;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+
+        SpillingSubscriber(CoreSubscriber<? super T> actual) {
+            this.actual = actual;
+            this.memory = Queues.<T>get(memoryCapacity).get();
+            this.segments = new SpillSegments<>(serializer, directory, segmentBytes);
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                actual.onSubscribe(this);
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done || cancelled) {
+                Operators.onDiscard(t, currentContext());
+                return;
+            }
+            if (pending.get() != 0 || !memory.offer(t)) {
+                try {
+                    if (!segments.append(t)) {
+                        // cancelado no meio do caminho
+                        Operators.onDiscard(t, currentContext());
+                        return;
+                    }
+                } catch (Throwable e) {
+                    Operators.onDiscard(t, currentContext());
+                    failure = Operators.onOperatorError(upstream, e, t, currentContext());
+                    done = true;
+                    drain();
+                    return;
+                }
+                spilled.incrementAndGet();
+                onDisk.incrementAndGet();
+                pending.incrementAndGet();
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, currentContext());
+                return;
+            }
+            error = t;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                // depois de cancelado o dreno segue so para descartar o que um onNext atrasado ainda enfileirar
+                if (cancelled) {
+                    clear();
+                } else {
+                    drainBuffered();
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void drainBuffered() {
+            long r = requested.get();
+            long emitted = 0;
+            for (;;) {
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                Throwable f = failure;
+                if (f != null) {
+                    cancelled = true;
+                    clear();
+                    actual.onError(f);
+                    return;
+                }
+                // le done antes das filas: depois dele nada mais entra
+                boolean d = done;
+                if (emitted == r) {
+                    if (d && memory.isEmpty() && pending.get() == 0) {
+                        terminate();
+                        return;
+                    }
+                    break;
+                }
+                T value = memory.poll();
+                if (value == null && pending.get() != 0) {
+                    try {
+                        value = segments.poll();
+                    } catch (Throwable e) {
+                        cancelled = true;
+                        clear();
+                        actual.onError(Operators.onOperatorError(upstream, e, currentContext()));
+                        return;
+                    }
+                    if (value != null) {
+                        pending.decrementAndGet();
+                        onDisk.decrementAndGet();
+                    }
+                }
+                if (value == null) {
+                    if (d) {
+                        terminate();
+                        return;
+                    }
+                    break;
+                }
+                actual.onNext(value);
+                emitted++;
+            }
+            if (emitted != 0 && r != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+
+        private void terminate() {
+            cancelled = true;
+            segments.close();
+            if (error != null) {
+                actual.onError(error);
+            } else {
+                actual.onComplete();
+            }
+        }
+
+        private void clear() {
+            Operators.onDiscardQueueWithClear(memory, currentContext(), null);
+            onDisk.addAndGet(-segments.close());
+            pending.set(0);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package academy.devdojo.reactive.batch;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only list of elements emitted by {@link MicroBatcher}, backed by an array taken from a pool.
+ * <p>
+ * Call {@link #release()} once the batch has been consumed, e.g. after the bulk write, so the array is
+ * reused by a later batch; the batch must not be touched after that. A batch that is never released is
+ * simply garbage collected and the pool allocates a new one.
+ */
+public final class Batch<T> extends AbstractList<T> implements RandomAccess {
+
+    private final Pool<T> pool;
+    private final Object[] elements;
+    private int size;
+    private long weight;
+    private boolean released;
+
+    private Batch(Pool<T> pool, int capacity) {
+        this.pool = pool;
+        this.elements = new Object[capacity];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return (T) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sum of the weights of the elements, 0 when the batcher has no weigher.
+     */
+    public long weight() {
+        return weight;
+    }
+
+    public void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        weight = 0;
+        pool.offer(this);
+    }
+
+    void add(T element, long elementWeight) {
+        elements[size++] = element;
+        weight += elementWeight;
+    }
+
+    boolean isFull() {
+        return size == elements.length;
+    }
+
+    static final class Pool<T> {
+        private final int capacity;
+        private final int poolSize;
+        // sem lock: o ArrayBlockingQueue estaciona a thread na disputa e o BlockHound reclama
+        private final Queue<Batch<T>> free = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pooled = new AtomicInteger();
+        private final AtomicLong allocated = new AtomicLong();
+
+        Pool(int capacity, int poolSize) {
+            this.capacity = capacity;
+            this.poolSize = poolSize;
+        }
+
+        Batch<T> acquire() {
+            Batch<T> batch = free.poll();
+            if (batch == null) {
+                allocated.incrementAndGet();
+                return new Batch<>(this, capacity);
+            }
+            pooled.decrementAndGet();
+            batch.released = false;
+            return batch;
+        }
+
+        void offer(Batch<T> batch) {
+            // pool cheio: o lote fica para o GC
+            if (pooled.incrementAndGet() > poolSize) {
+                pooled.decrementAndGet();
+                return;
+            }
+            free.offer(batch);
+        }
+
+        int pooled() {
+            return pooled.get();
+        }
+
+        long allocated() {
+            return allocated.get();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package academy.devdojo.reactive.batch;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination that takes a whole batch in one call, e.g. one file write or one bulk insert, instead of
+ * one call per element. Writes may block; {@link MicroBatcher#writeTo(BatchSink, reactor.core.scheduler.Scheduler)}
+ * runs them on the given scheduler, one batch at a time.
+ */
+@FunctionalInterface
+public interface BatchSink<T> {
+
+    /**
+     * The list is only valid during the call: it is released back to its pool right after.
+     */
+    void write(List<? extends T> batch) throws IOException;
+
+    /**
+     * Called once after the last batch of a successful stream.
+     */
+    default void flush() throws IOException {
+    }
+}
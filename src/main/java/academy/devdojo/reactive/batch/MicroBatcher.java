@@ -0,0 +1,443 @@
+package academy.devdojo.reactive.batch;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Micro-batching stage, like {@code bufferTimeout}, that closes a batch when it holds {@code maxSize}
+ * elements, when {@code maxWait} has passed since its first element, or when the weight of its elements
+ * (e.g. their bytes) reaches {@code maxWeight}, whichever comes first:
+ * {@code flux.transform(new MicroBatcher<>(256, Duration.ofMillis(10))).as(MicroBatcher.writeTo(sink, IoSchedulers.io()))}.
+ * <p>
+ * Batches are {@link Batch} lists whose arrays come from a pool shared by the subscriptions of this
+ * instance instead of a new {@code ArrayList} per window; release them after use.
+ * <p>
+ * Like {@code bufferTimeout(..., fairBackpressure = true)}, the upstream demand is only topped up to
+ * {@code maxSize} elements per requested batch not yet closed, minus what the open batch already holds.
+ * A batch closed early by time or weight leaves part of that demand unused; the leftover elements may
+ * fill a batch nobody asked for yet, which is held until the next request takes it instead of asking the
+ * upstream for more, so held batches never outnumber the batches requested. A batch that times out while
+ * there is no demand stays open and keeps filling until demand arrives.
+ */
+public final class MicroBatcher<T> implements Function<Flux<T>, Publisher<Batch<T>>> {
+
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofMillis(10);
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final ToLongFunction<? super T> weigher;
+    private final long maxWeight;
+    private final boolean weighted;
+    private final Scheduler timer;
+    private final Batch.Pool<T> pool;
+
+    public MicroBatcher(int maxSize, Duration maxWait) {
+        this(maxSize, maxWait, t -> 0, Long.MAX_VALUE, DEFAULT_POOL_SIZE, Schedulers.parallel());
+    }
+
+    public MicroBatcher(int maxSize, Duration maxWait, ToLongFunction<? super T> weigher, long maxWeight) {
+        this(maxSize, maxWait, weigher, maxWeight, DEFAULT_POOL_SIZE, Schedulers.parallel());
+    }
+
+    /**
+     * @param weigher   estimated size of an element, e.g. its bytes
+     * @param maxWeight a batch is closed once the weight of its elements reaches it
+     * @param poolSize  released batches kept for reuse; more are left to the GC
+     * @param timer     scheduler of the {@code maxWait} timeouts
+     */
+    public MicroBatcher(int maxSize, Duration maxWait, ToLongFunction<? super T> weigher, long maxWeight,
+                        int poolSize, Scheduler timer) {
+        if (maxSize < 1 || maxWeight < 1 || poolSize < 1 || maxWait.isNegative() || maxWait.isZero()) {
+            throw new IllegalArgumentException("Expected maxSize, maxWeight, poolSize and maxWait > 0, got "
+                    + maxSize + ", " + maxWeight + ", " + poolSize + " and " + maxWait);
+        }
+        this.maxSize = maxSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
+        this.weighted = maxWeight != Long.MAX_VALUE;
+        this.timer = timer;
+        this.pool = new Batch.Pool<>(maxSize, poolSize);
+    }
+
+    @Override
+    public Publisher<Batch<T>> apply(Flux<T> flux) {
+        return Flux.from(actual -> flux.subscribe(new BatchSubscriber(Operators.toCoreSubscriber(actual))));
+    }
+
+    /**
+     * Batches allocated so far; stays close to the number in use at once while they are released.
+     */
+    public long allocatedBatches() {
+        return pool.allocated();
+    }
+
+    public int pooledBatches() {
+        return pool.pooled();
+    }
+
+    /**
+     * Writes each batch with one {@link BatchSink#write} call on {@code scheduler}, releases it and, once
+     * the stream completes, flushes the sink. The {@code Mono} emits the number of elements written.
+     */
+    public static <T> Function<Flux<Batch<T>>, Mono<Long>> writeTo(BatchSink<? super T> sink, Scheduler scheduler) {
+        return batches -> batches
+                // um lote sendo escrito e o proximo ja pedido
+                .publishOn(scheduler, 2)
+                .<Integer>handle((batch, out) -> {
+                    int size = batch.size();
+                    try {
+                        sink.write(batch);
+                        out.next(size);
+                    } catch (IOException e) {
+                        out.error(e);
+                    } finally {
+                        batch.release();
+                    }
+                })
+                .doOnDiscard(Batch.class, Batch::release)
+                .reduce(0L, (total, size) -> total + size)
+                .<Long>handle((total, out) -> {
+                    try {
+                        sink.flush();
+                        out.next(total);
+                    } catch (IOException e) {
+                        out.error(e);
+                    }
+                });
+    }
+
+    private final class BatchSubscriber implements CoreSubscriber<T>, Subscription, Scannable {
+        private final CoreSubscriber<? super Batch<T>> actual;
+        private final Queue<Batch<T>> ready = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicInteger readyCount = new AtomicInteger();
+        private Subscription upstream;
+        // lote aberto e seu timeout; upstream e timer disputam, entao so com o lock
+        private Batch<T> current;
+        private long epoch;
+        private Disposable timeout;
+        private boolean overdue;
+        // lotes pedidos ainda nao fechados, lotes fechados antes de serem pedidos e elementos pedidos ao
+        // upstream que ainda nao chegaram; tambem so com o lock
+        private long pendingBatches;
+        private long surplusBatches;
+        private long outstanding;
+        private volatile Throwable error;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+
+        BatchSubscriber(CoreSubscriber<? super Batch<T>> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, currentContext());
+                return;
+            }
+            long weight = 0;
+            if (weighted) {
+                try {
+                    weight = weigher.applyAsLong(t);
+                } catch (Throwable e) {
+                    upstream.cancel();
+                    onError(Operators.onOperatorError(e, currentContext()));
+                    return;
+                }
+            }
+            Batch<T> closed = null;
+            RejectedExecutionException rejected = null;
+            synchronized (this) {
+                if (cancelled) {
+                    Operators.onDiscard(t, currentContext());
+                    return;
+                }
+                if (outstanding != Long.MAX_VALUE) {
+                    outstanding--;
+                }
+                if (current == null) {
+                    current = pool.acquire();
+                    long opened = ++epoch;
+                    try {
+                        timeout = timer.schedule(() -> onTimeout(opened), maxWaitNanos, TimeUnit.NANOSECONDS);
+                    } catch (RejectedExecutionException e) {
+                        rejected = e;
+                    }
+                }
+                current.add(t, weight);
+                if (current.isFull() || (weighted && current.weight() >= maxWeight)) {
+                    closed = take();
+                }
+            }
+            if (rejected != null) {
+                upstream.cancel();
+                onError(Operators.onRejectedExecution(rejected, currentContext()));
+                return;
+            }
+            if (closed != null) {
+                offer(closed);
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, currentContext());
+                return;
+            }
+            error = t;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            Batch<T> last;
+            synchronized (this) {
+                last = current != null ? take() : null;
+            }
+            if (last != null) {
+                offer(last);
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                Batch<T> closed = null;
+                long missing;
+                synchronized (this) {
+                    // lotes ja fechados sem demanda atendem o pedido antes de pedir mais ao upstream
+                    long taken = Math.min(n, surplusBatches);
+                    surplusBatches -= taken;
+                    pendingBatches = Operators.addCap(pendingBatches, n - taken);
+                    if (overdue && current != null) {
+                        closed = take();
+                    }
+                    missing = missing();
+                }
+                if (closed != null) {
+                    offer(closed);
+                }
+                if (missing > 0) {
+                    upstream.request(missing);
+                }
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                drain();
+            }
+        }
+
+        private void onTimeout(long opened) {
+            Batch<T> closed;
+            synchronized (this) {
+                if (opened != epoch || current == null || cancelled) {
+                    return;
+                }
+                timeout = null;
+                // sem demanda o lote continua enchendo; o proximo request o fecha
+                if (requested.get() == 0) {
+                    overdue = true;
+                    return;
+                }
+                closed = take();
+            }
+            offer(closed);
+            drain();
+        }
+
+        // chamado com o lock; o que falta pedir ao upstream para encher os lotes pedidos
+        private long missing() {
+            if (outstanding == Long.MAX_VALUE) {
+                return 0;
+            }
+            long needed = Operators.multiplyCap(pendingBatches, maxSize);
+            if (needed == Long.MAX_VALUE) {
+                outstanding = Long.MAX_VALUE;
+                return Long.MAX_VALUE;
+            }
+            if (current != null) {
+                needed -= current.size();
+            }
+            if (needed <= outstanding) {
+                return 0;
+            }
+            long missing = needed - outstanding;
+            outstanding = needed;
+            return missing;
+        }
+
+        // chamado com o lock
+        private Batch<T> take() {
+            Batch<T> batch = current;
+            current = null;
+            overdue = false;
+            if (pendingBatches == 0) {
+                surplusBatches++;
+            } else if (pendingBatches != Long.MAX_VALUE) {
+                pendingBatches--;
+            }
+            if (timeout != null) {
+                timeout.dispose();
+                timeout = null;
+            }
+            return batch;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                // depois de cancelado o dreno segue so para descartar os lotes fechados fora do lock
+                if (cancelled) {
+                    clear();
+                } else {
+                    drainReady();
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void drainReady() {
+            Throwable e = error;
+            if (e != null) {
+                cancelled = true;
+                clear();
+                actual.onError(e);
+                return;
+            }
+
+            long r = requested.get();
+            long emitted = 0;
+            while (emitted != r) {
+                Batch<T> batch = ready.poll();
+                if (batch == null) {
+                    break;
+                }
+                readyCount.decrementAndGet();
+                actual.onNext(batch);
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                emitted++;
+            }
+            if (emitted != 0 && r != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+
+            // done antes de error: o onError grava o erro antes de marcar done
+            if (done && ready.isEmpty() && error == null) {
+                cancelled = true;
+                actual.onComplete();
+            }
+        }
+
+        private void clear() {
+            Batch<T> open;
+            synchronized (this) {
+                open = current != null ? take() : null;
+            }
+            if (open != null) {
+                discard(open);
+            }
+            for (Batch<T> batch = ready.poll(); batch != null; batch = ready.poll()) {
+                readyCount.decrementAndGet();
+                discard(batch);
+            }
+        }
+
+        private void offer(Batch<T> batch) {
+            readyCount.incrementAndGet();
+            ready.offer(batch);
+        }
+
+        private void discard(Batch<T> batch) {
+            Operators.onDiscardMultiple(batch, currentContext());
+            batch.release();
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return upstream;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            // lotes fechados esperando demanda
+            if (key == Attr.BUFFERED) {
+                return readyCount.get();
+            }
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+                return requested.get();
+            }
+            if (key == Attr.CANCELLED) {
+                return cancelled;
+            }
+            if (key == Attr.TERMINATED) {
+                return done;
+            }
+            if (key == Attr.RUN_STYLE) {
+                return Attr.RunStyle.ASYNC;
+            }
+            return null;
+        }
+    }
+}
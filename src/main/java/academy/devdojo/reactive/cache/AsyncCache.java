@@ -0,0 +1,356 @@
+package academy.devdojo.reactive.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keyed cache in front of a {@code Mono}-returning lookup: {@code names.flatMap(cache::get)}.
+ * <p>
+ * Unlike {@code Mono.defer}, which calls the lookup on every subscribe, and {@code Mono.just}, which
+ * holds one value captured eagerly, it keeps up to {@code maximumSize} values for {@code ttl} after they
+ * were loaded, and concurrent {@code get}s of a key that is still loading share the one lookup instead of
+ * each starting their own. A hit on a value older than {@code refreshAfter} returns it and reloads it in
+ * the background, so hot keys are refreshed before they expire. Errors and empty results are not cached,
+ * and a lookup still pending {@code ttl} after it started no longer holds its key: the next {@code get}
+ * starts a fresh one, so a lookup that never terminates cannot poison the key.
+ * <p>
+ * The keys are spread over lock-striped segments, each bounded by its share of {@code maximumSize} and
+ * evicting W-TinyLFU style: new keys enter a small LRU window; a key leaving the window only enters the
+ * main space (a segmented LRU) if the frequency sketch says it is more popular than the key it would
+ * evict there. Segments use {@code synchronized} rather than {@code ReentrantLock}: a contended lock
+ * would park a non-blocking thread, which BlockHound reports.
+ */
+public final class AsyncCache<K, V> {
+
+    public static final int MAX_SEGMENTS = 16;
+
+    private final Function<? super K, ? extends Mono<? extends V>> loader;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    public AsyncCache(Function<? super K, ? extends Mono<? extends V>> loader, long maximumSize, Duration ttl) {
+        this(loader, maximumSize, ttl, ttl);
+    }
+
+    /**
+     * @param refreshAfter age after which a hit triggers a background reload; {@code >= ttl} disables it
+     */
+    @SuppressWarnings("unchecked")
+    public AsyncCache(Function<? super K, ? extends Mono<? extends V>> loader, long maximumSize, Duration ttl,
+                      Duration refreshAfter) {
+        if (maximumSize < 1 || ttl.isNegative() || ttl.isZero() || refreshAfter.isNegative()) {
+            throw new IllegalArgumentException("Expected maximumSize >= 1, ttl > 0 and refreshAfter >= 0, got "
+                    + maximumSize + ", " + ttl + " and " + refreshAfter);
+        }
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        // caches pequenos ficam num segmento so, para o limite valer exatamente
+        int count = (int) Math.min(MAX_SEGMENTS, Math.max(1, Long.highestOneBit(maximumSize / 64)));
+        this.segments = new AsyncCache.Segment[count];
+        long perSegment = (maximumSize + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment((int) Math.min(Integer.MAX_VALUE, perSegment));
+        }
+        this.segmentMask = count - 1;
+    }
+
+    public Mono<V> get(K key) {
+        int hash = spread(key.hashCode());
+        Segment segment = segments[hash & segmentMask];
+        Node<K, V> refresh = null;
+        Mono<V> result;
+        synchronized (segment) {
+            segment.sketch.increment(hash);
+            Node<K, V> node = segment.map.get(key);
+            long now = System.nanoTime();
+            // pendente, loadedAt e o inicio do lookup
+            if (node != null && node.pending != null && now - node.loadedAt < ttlNanos) {
+                coalesced.increment();
+                segment.onAccess(node);
+                return node.pending;
+            }
+            if (node != null && node.pending == null && now - node.loadedAt < ttlNanos) {
+                hits.increment();
+                segment.onAccess(node);
+                result = Mono.just(node.value);
+                if (!node.refreshing && now - node.loadedAt >= refreshAfterNanos) {
+                    node.refreshing = true;
+                    refresh = node;
+                }
+            } else {
+                if (node != null) {
+                    segment.remove(node);
+                }
+                misses.increment();
+                node = new Node<>(key, hash);
+                node.loadedAt = now;
+                node.pending = load(segment, node);
+                segment.add(node);
+                return node.pending;
+            }
+        }
+        if (refresh != null) {
+            refresh(segment, refresh);
+        }
+        return result;
+    }
+
+    public void invalidate(K key) {
+        int hash = spread(key.hashCode());
+        Segment segment = segments[hash & segmentMask];
+        synchronized (segment) {
+            Node<K, V> node = segment.map.get(key);
+            if (node != null) {
+                segment.remove(node);
+            }
+        }
+    }
+
+    /**
+     * Keys held, including the ones still loading.
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets that joined a lookup already in flight for their key.
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long refreshes() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Hits and coalesced gets over all gets.
+     */
+    public double hitRatio() {
+        long served = hits.sum() + coalesced.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    // um lookup por chave, compartilhado pelo cache(); quem cancela nao cancela o lookup dos outros
+    private Mono<V> load(Segment segment, Node<K, V> node) {
+        return Mono.<V>defer(() -> loader.apply(node.key))
+                .doOnEach(signal -> {
+                    if (signal.isOnNext()) {
+                        loaded(segment, node, signal.get());
+                    } else if (signal.isOnError() || signal.isOnComplete()) {
+                        failed(segment, node);
+                    }
+                })
+                .cache();
+    }
+
+    private void refresh(Segment segment, Node<K, V> node) {
+        refreshes.increment();
+        Mono.<V>defer(() -> loader.apply(node.key))
+                .subscribe(value -> loaded(segment, node, value),
+                        e -> refreshFailed(segment, node),
+                        () -> refreshFailed(segment, node));
+    }
+
+    private void loaded(Segment segment, Node<K, V> node, V value) {
+        synchronized (segment) {
+            node.value = value;
+            node.loadedAt = System.nanoTime();
+            node.pending = null;
+            node.refreshing = false;
+        }
+    }
+
+    // vazio ou erro: a chave sai do cache e o proximo get tenta de novo
+    private void failed(Segment segment, Node<K, V> node) {
+        synchronized (segment) {
+            if (node.pending != null && !node.removed) {
+                segment.remove(node);
+            }
+        }
+    }
+
+    // o valor antigo continua valendo ate o ttl
+    private void refreshFailed(Segment segment, Node<K, V> node) {
+        synchronized (segment) {
+            node.refreshing = false;
+        }
+    }
+
+    private static int spread(int h) {
+        return (h ^ (h >>> 16)) * 0x45d9f3b;
+    }
+
+    private final class Segment {
+        final Map<K, Node<K, V>> map = new HashMap<>();
+        final FrequencySketch sketch;
+        final AccessQueue<K, V> window = new AccessQueue<>();
+        final AccessQueue<K, V> probation = new AccessQueue<>();
+        final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+        final int windowMax;
+        final int mainMax;
+        final int protectedMax;
+
+        Segment(int capacity) {
+            this.sketch = new FrequencySketch(capacity);
+            this.windowMax = Math.max(1, capacity / 100);
+            this.mainMax = capacity - windowMax;
+            this.protectedMax = mainMax * 4 / 5;
+        }
+
+        void add(Node<K, V> node) {
+            map.put(node.key, node);
+            window.addLast(node, Node.WINDOW);
+            while (window.size > windowMax) {
+                admit(window.first());
+            }
+        }
+
+        void onAccess(Node<K, V> node) {
+            switch (node.queue) {
+                case Node.WINDOW -> window.moveToLast(node);
+                case Node.PROTECTED -> protectedQueue.moveToLast(node);
+                default -> {
+                    probation.unlink(node);
+                    protectedQueue.addLast(node, Node.PROTECTED);
+                    while (protectedQueue.size > protectedMax) {
+                        Node<K, V> demoted = protectedQueue.first();
+                        protectedQueue.unlink(demoted);
+                        probation.addLast(demoted, Node.PROBATION);
+                    }
+                }
+            }
+        }
+
+        // o candidato que sai da janela so entra se for mais frequente que a vitima do espaco principal
+        private void admit(Node<K, V> candidate) {
+            window.unlink(candidate);
+            if (probation.size + protectedQueue.size < mainMax) {
+                probation.addLast(candidate, Node.PROBATION);
+                return;
+            }
+            Node<K, V> victim = probation.size > 0 ? probation.first() : protectedQueue.first();
+            if (victim != null && sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                evict(victim);
+                probation.addLast(candidate, Node.PROBATION);
+            } else {
+                candidate.queue = Node.NONE;
+                map.remove(candidate.key, candidate);
+                candidate.removed = true;
+                evictions.increment();
+            }
+        }
+
+        private void evict(Node<K, V> node) {
+            remove(node);
+            evictions.increment();
+        }
+
+        void remove(Node<K, V> node) {
+            switch (node.queue) {
+                case Node.WINDOW -> window.unlink(node);
+                case Node.PROBATION -> probation.unlink(node);
+                case Node.PROTECTED -> protectedQueue.unlink(node);
+                default -> {
+                }
+            }
+            node.queue = Node.NONE;
+            map.remove(node.key, node);
+            node.removed = true;
+        }
+    }
+
+    private static final class Node<K, V> {
+        static final int NONE = 0;
+        static final int WINDOW = 1;
+        static final int PROBATION = 2;
+        static final int PROTECTED = 3;
+
+        final K key;
+        final int hash;
+        V value;
+        Mono<V> pending;
+        long loadedAt;
+        boolean refreshing;
+        boolean removed;
+        int queue = NONE;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, int hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+    }
+
+    // lista duplamente ligada intrusiva em ordem de acesso: o primeiro e o menos recente
+    private static final class AccessQueue<K, V> {
+        private final Node<K, V> head = new Node<>(null, 0);
+        int size;
+
+        AccessQueue() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        Node<K, V> first() {
+            return head.next == head ? null : head.next;
+        }
+
+        void addLast(Node<K, V> node, int queue) {
+            node.queue = queue;
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            size++;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            int queue = node.queue;
+            unlink(node);
+            addLast(node, queue);
+        }
+
+        void unlink(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package academy.devdojo.reactive.cache;
+
+/**
+ * Count-min sketch of access frequencies, as in TinyLFU: four rows of 4-bit counters (kept in bytes here
+ * for clarity), an estimate is the minimum of the four. Once {@code 10 * width} increments have been
+ * added every counter is halved, so old popularity fades.
+ * <p>
+ * Not thread-safe; {@link AsyncCache} only touches it under its segment lock.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0xb7f1a2d3, 0xe5c2bd35, 0x9e3779b9};
+
+    private final byte[] table;
+    private final int width;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        this.width = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1);
+        this.table = new byte[DEPTH * width];
+        this.sampleSize = 10 * width;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = index(hash, i);
+            if (table[index] < MAX_COUNT) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(int hash) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, table[index(hash, i)]);
+        }
+        return frequency;
+    }
+
+    private int index(int hash, int row) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 17;
+        return row * width + (h & (width - 1));
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>= 1;
+        }
+        additions >>= 1;
+    }
+}
@@ -0,0 +1,277 @@
+package academy.devdojo.reactive.combine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Conflating {@code combineLatest}: each source's newest value sits in a lock-free slot, overwritten by
+ * the next one, and the combiner only runs when the downstream has requested a value and some source has
+ * changed since the last emission. Meant for fast feeds (prices, statuses) read by a slower consumer.
+ * <p>
+ * {@code Flux.combineLatest} queues every update and computes a combination per update, even those the
+ * consumer will only see long after they became stale; {@code onBackpressureLatest()} after it drops the
+ * stale ones but only once they were computed. Here an update costs a small holder and a slot write, and
+ * what the downstream gets is always built from the newest values. {@link #latest(Publisher)} is the
+ * one-source case.
+ * <p>
+ * Sources are requested unbounded. It completes once every source has completed and the newest values
+ * were emitted, or as soon as a source completes without having produced anything; it fails on the
+ * first error. Overwritten values are not passed to the discard hook.
+ */
+public final class Conflate {
+
+    private Conflate() {
+    }
+
+    /**
+     * Newest value of {@code source} whenever the downstream requests, each value at most once.
+     */
+    public static <T> Flux<T> latest(Publisher<? extends T> source) {
+        return create(values -> {
+            @SuppressWarnings("unchecked")
+            T value = (T) values[0];
+            return value;
+        }, source);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> Flux<R> combineLatest(Publisher<? extends A> a, Publisher<? extends B> b,
+                                                  BiFunction<? super A, ? super B, ? extends R> combiner) {
+        return create(values -> combiner.apply((A) values[0], (B) values[1]), a, b);
+    }
+
+    /**
+     * @param combiner gets a new array with the newest value of each source, in order
+     */
+    public static <R> Flux<R> combineLatest(Function<Object[], ? extends R> combiner, Publisher<?>... sources) {
+        if (sources.length == 0) {
+            return Flux.empty();
+        }
+        return create(combiner, sources.clone());
+    }
+
+    private static <R> Flux<R> create(Function<Object[], ? extends R> combiner, Publisher<?>... sources) {
+        return Flux.from(actual -> {
+            CoreSubscriber<? super R> subscriber = Operators.toCoreSubscriber(actual);
+            ConflateCoordinator<R> coordinator = new ConflateCoordinator<>(subscriber, combiner, sources.length);
+            subscriber.onSubscribe(coordinator);
+            coordinator.subscribe(sources);
+        });
+    }
+
+    private static final class ConflateCoordinator<R> implements Subscription {
+        private final CoreSubscriber<? super R> actual;
+        private final Function<Object[], ? extends R> combiner;
+        private final Inner[] inners;
+        private final AtomicReferenceArray<Update> slots;
+        // algum slot mudou desde a ultima emissao; pode ficar sujo a toa, quem decide e o emitted
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        // atualizacoes da ultima emissao, so o drain mexe
+        private final Update[] emitted;
+        private final AtomicInteger filled = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private volatile boolean emptySource;
+        private volatile boolean cancelled;
+
+        ConflateCoordinator(CoreSubscriber<? super R> actual, Function<Object[], ? extends R> combiner, int n) {
+            this.actual = actual;
+            this.combiner = combiner;
+            this.inners = new Inner[n];
+            for (int i = 0; i < n; i++) {
+                inners[i] = new Inner(this, i);
+            }
+            this.slots = new AtomicReferenceArray<>(n);
+            this.emitted = new Update[n];
+        }
+
+        void subscribe(Publisher<?>[] sources) {
+            for (int i = 0; i < sources.length && !cancelled; i++) {
+                sources[i].subscribe(inners[i]);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelAll();
+            }
+        }
+
+        void innerNext(int index, Object value) {
+            if (slots.getAndSet(index, new Update(value)) == null) {
+                filled.incrementAndGet();
+            }
+            dirty.lazySet(true);
+            drain();
+        }
+
+        void innerError(Throwable e) {
+            if (error.compareAndSet(null, e)) {
+                drain();
+            } else {
+                Operators.onErrorDropped(e, actual.currentContext());
+            }
+        }
+
+        void innerComplete(int index) {
+            if (slots.get(index) == null) {
+                emptySource = true;
+            }
+            completed.incrementAndGet();
+            drain();
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                if (cancelled) {
+                    return;
+                }
+                Throwable e = error.get();
+                if (e != null) {
+                    cancel();
+                    actual.onError(e);
+                    return;
+                }
+                if (emptySource) {
+                    cancel();
+                    actual.onComplete();
+                    return;
+                }
+                // le antes dos slots: se todos terminaram, nada mais muda os slots depois
+                boolean allDone = completed.get() == inners.length;
+                // o writer troca o slot antes de sujar: o drain pode emitir o valor novo e ver o dirty de
+                // novo depois, entao so emite se alguma atualizacao nao foi emitida ainda
+                if (filled.get() == inners.length && requested.get() != 0 && dirty.compareAndSet(true, false)
+                        && changed()) {
+                    Object[] values = new Object[inners.length];
+                    for (int i = 0; i < values.length; i++) {
+                        Update update = slots.get(i);
+                        emitted[i] = update;
+                        values[i] = update.value;
+                    }
+                    R value;
+                    try {
+                        value = Objects.requireNonNull(combiner.apply(values), "The combiner returned a null value");
+                    } catch (Throwable ex) {
+                        cancel();
+                        actual.onError(Operators.onOperatorError(ex, actual.currentContext()));
+                        return;
+                    }
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    actual.onNext(value);
+                    continue;
+                }
+                if (allDone && !changed()) {
+                    cancelled = true;
+                    actual.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private boolean changed() {
+            for (int i = 0; i < emitted.length; i++) {
+                if (slots.get(i) != emitted[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void cancelAll() {
+            for (Inner inner : inners) {
+                inner.cancel();
+            }
+        }
+    }
+
+    // uma por onNext: o mesmo valor chegando de novo ainda conta como atualizacao
+    private static final class Update {
+        final Object value;
+
+        Update(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Inner implements CoreSubscriber<Object> {
+        private static final AtomicReferenceFieldUpdater<Inner, Subscription> SUBSCRIPTION =
+                AtomicReferenceFieldUpdater.newUpdater(Inner.class, Subscription.class, "subscription");
+
+        private final ConflateCoordinator<?> parent;
+        private final int index;
+        private volatile Subscription subscription;
+
+        Inner(ConflateCoordinator<?> parent, int index) {
+            this.parent = parent;
+            this.index = index;
+        }
+
+        @Override
+        public Context currentContext() {
+            return parent.actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.setOnce(SUBSCRIPTION, this, s)) {
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(Object value) {
+            parent.innerNext(index, value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            parent.innerError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.innerComplete(index);
+        }
+
+        void cancel() {
+            Operators.terminate(SUBSCRIPTION, this);
+        }
+    }
+}
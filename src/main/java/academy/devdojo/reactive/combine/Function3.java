@@ -0,0 +1,10 @@
+package academy.devdojo.reactive.combine;
+
+/**
+ * Three-argument function for {@link FusedZip}.
+ */
+@FunctionalInterface
+public interface Function3<A, B, C, R> {
+
+    R apply(A a, B b, C c);
+}
@@ -0,0 +1,10 @@
+package academy.devdojo.reactive.combine;
+
+/**
+ * Four-argument function for {@link FusedZip}.
+ */
+@FunctionalInterface
+public interface Function4<A, B, C, D, R> {
+
+    R apply(A a, B b, C c, D d);
+}
@@ -0,0 +1,305 @@
+package academy.devdojo.reactive.combine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiFunction;
+
+/**
+ * Zip that builds the target object directly from the heads of its sources:
+ * {@code FusedZip.zip(titles, studios, episodes, Anime::new)}.
+ * <p>
+ * {@code Flux.zip(a, b, c).flatMap(t -> Flux.just(new Anime(t.getT1(), t.getT2(), t.getT3())))} pays per
+ * row a tuple, an inner {@code Flux} and a flatMap subscription; {@code Flux.zip} with an {@code Object[]}
+ * combinator, the only typed-free form past two sources, still pays an array per row. Here the combiner
+ * is called with the polled heads as arguments, so a row costs only the object it builds.
+ * <p>
+ * Every source is asked for {@code prefetch} elements up front and then, each time {@code 3/4} of that
+ * has been zipped, all sources are asked for that many more together: rows consume one element of each
+ * source, so the batches stay aligned. The zip completes as soon as a source completes with nothing
+ * left queued, cancelling the others, and fails on the first error.
+ */
+public final class FusedZip {
+
+    public static final int DEFAULT_PREFETCH = Queues.SMALL_BUFFER_SIZE;
+
+    private FusedZip() {
+    }
+
+    public static <A, B, R> Flux<R> zip(Publisher<? extends A> a, Publisher<? extends B> b,
+                                        BiFunction<? super A, ? super B, ? extends R> combiner) {
+        return zip(DEFAULT_PREFETCH, a, b, combiner);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> Flux<R> zip(int prefetch, Publisher<? extends A> a, Publisher<? extends B> b,
+                                        BiFunction<? super A, ? super B, ? extends R> combiner) {
+        return create(prefetch, heads -> combiner.apply((A) heads[0].poll(), (B) heads[1].poll()), a, b);
+    }
+
+    public static <A, B, C, R> Flux<R> zip(Publisher<? extends A> a, Publisher<? extends B> b,
+                                           Publisher<? extends C> c,
+                                           Function3<? super A, ? super B, ? super C, ? extends R> combiner) {
+        return zip(DEFAULT_PREFETCH, a, b, c, combiner);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A, B, C, R> Flux<R> zip(int prefetch, Publisher<? extends A> a, Publisher<? extends B> b,
+                                           Publisher<? extends C> c,
+                                           Function3<? super A, ? super B, ? super C, ? extends R> combiner) {
+        return create(prefetch, heads -> combiner.apply((A) heads[0].poll(), (B) heads[1].poll(),
+                (C) heads[2].poll()), a, b, c);
+    }
+
+    public static <A, B, C, D, R> Flux<R> zip(Publisher<? extends A> a, Publisher<? extends B> b,
+                                              Publisher<? extends C> c, Publisher<? extends D> d,
+                                              Function4<? super A, ? super B, ? super C, ? super D, ? extends R> combiner) {
+        return zip(DEFAULT_PREFETCH, a, b, c, d, combiner);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A, B, C, D, R> Flux<R> zip(int prefetch, Publisher<? extends A> a, Publisher<? extends B> b,
+                                              Publisher<? extends C> c, Publisher<? extends D> d,
+                                              Function4<? super A, ? super B, ? super C, ? super D, ? extends R> combiner) {
+        return create(prefetch, heads -> combiner.apply((A) heads[0].poll(), (B) heads[1].poll(),
+                (C) heads[2].poll(), (D) heads[3].poll()), a, b, c, d);
+    }
+
+    private static <R> Flux<R> create(int prefetch, Row<R> row, Publisher<?>... sources) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("prefetch >= 1 required but it was " + prefetch);
+        }
+        return Flux.from(actual -> {
+            CoreSubscriber<? super R> subscriber = Operators.toCoreSubscriber(actual);
+            ZipCoordinator<R> coordinator = new ZipCoordinator<>(subscriber, row, sources.length, prefetch);
+            subscriber.onSubscribe(coordinator);
+            coordinator.subscribe(sources);
+        });
+    }
+
+    // recebe as filas ja com uma cabeca cada e consome exatamente uma de cada
+    @FunctionalInterface
+    private interface Row<R> {
+        R combine(Queue<?>[] heads);
+    }
+
+    private static final class ZipCoordinator<R> implements Subscription {
+        private final CoreSubscriber<? super R> actual;
+        private final Row<R> row;
+        private final Inner[] inners;
+        private final Queue<?>[] queues;
+        private final int limit;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        // linhas montadas desde o ultimo pedido aos sources; so o dreno mexe
+        private int consumed;
+        private volatile boolean cancelled;
+
+        ZipCoordinator(CoreSubscriber<? super R> actual, Row<R> row, int n, int prefetch) {
+            this.actual = actual;
+            this.row = row;
+            this.inners = new Inner[n];
+            this.queues = new Queue<?>[n];
+            for (int i = 0; i < n; i++) {
+                inners[i] = new Inner(this, prefetch);
+                queues[i] = inners[i].queue;
+            }
+            this.limit = prefetch == Integer.MAX_VALUE ? Integer.MAX_VALUE : prefetch - (prefetch >> 2);
+        }
+
+        void subscribe(Publisher<?>[] sources) {
+            for (int i = 0; i < sources.length && !cancelled; i++) {
+                sources[i].subscribe(inners[i]);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelAll();
+                if (wip.getAndIncrement() == 0) {
+                    clear();
+                }
+            }
+        }
+
+        void innerError(Throwable e) {
+            if (error.compareAndSet(null, e)) {
+                drain();
+            } else {
+                Operators.onErrorDropped(e, actual.currentContext());
+            }
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                long emitted = 0;
+                for (;;) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    Throwable e = error.get();
+                    if (e != null) {
+                        terminate();
+                        actual.onError(e);
+                        return;
+                    }
+                    boolean ready = true;
+                    for (Inner inner : inners) {
+                        boolean done = inner.done;
+                        if (inner.queue.isEmpty()) {
+                            if (done) {
+                                terminate();
+                                actual.onComplete();
+                                return;
+                            }
+                            ready = false;
+                        }
+                    }
+                    if (!ready || emitted == r) {
+                        break;
+                    }
+                    R value;
+                    try {
+                        value = row.combine(queues);
+                        if (value == null) {
+                            throw new NullPointerException("The combiner returned a null value");
+                        }
+                    } catch (Throwable ex) {
+                        terminate();
+                        actual.onError(Operators.onOperatorError(ex, actual.currentContext()));
+                        return;
+                    }
+                    actual.onNext(value);
+                    emitted++;
+                    if (++consumed == limit) {
+                        consumed = 0;
+                        for (Inner inner : inners) {
+                            inner.request(limit);
+                        }
+                    }
+                }
+                if (emitted != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void terminate() {
+            cancelled = true;
+            cancelAll();
+            clear();
+        }
+
+        private void cancelAll() {
+            for (Inner inner : inners) {
+                inner.cancel();
+            }
+        }
+
+        private void clear() {
+            Context context = actual.currentContext();
+            for (Inner inner : inners) {
+                Operators.onDiscardQueueWithClear(inner.queue, context, null);
+            }
+        }
+    }
+
+    private static final class Inner implements CoreSubscriber<Object> {
+        private static final AtomicReferenceFieldUpdater<Inner, Subscription> SUBSCRIPTION =
+                AtomicReferenceFieldUpdater.newUpdater(Inner.class, Subscription.class, "subscription");
+
+        private final ZipCoordinator<?> parent;
+        private final int prefetch;
+        final Queue<Object> queue;
+        volatile Subscription subscription;
+        volatile boolean done;
+
+        Inner(ZipCoordinator<?> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.queue = Queues.get(prefetch).get();
+        }
+
+        @Override
+        public Context currentContext() {
+            return parent.actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.setOnce(SUBSCRIPTION, this, s)) {
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(Object value) {
+            if (done || !queue.offer(value)) {
+                Operators.onDiscard(value, currentContext());
+                if (!done) {
+                    // mandou mais do que foi pedido
+                    parent.innerError(Operators.onOperatorError(subscription,
+                            Exceptions.failWithOverflow(), value, currentContext()));
+                }
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, currentContext());
+                return;
+            }
+            done = true;
+            parent.innerError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        void request(long n) {
+            subscription.request(n);
+        }
+
+        void cancel() {
+            Operators.terminate(SUBSCRIPTION, this);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package academy.devdojo.reactive.diagnostics;
+
+import academy.devdojo.reactive.metrics.LatencyHistogram;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+import reactor.blockhound.BlockingOperationError;
+import reactor.blockhound.integration.BlockHoundIntegration;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Reporting mode for BlockHound: while a profiler is started, a blocking call on a non-blocking thread is
+ * recorded instead of failing with {@link BlockingOperationError}, so a running pipeline can be measured
+ * without being broken. Calls are grouped by blocking method and call site (the first frame outside the
+ * JDK and BlockHound) and counted per thread pool; {@link #report()} ranks them by time blocked.
+ * <p>
+ * BlockHound only signals the start of a blocking call, so the time blocked is measured up to the end of
+ * the scheduled task that made it, or up to the next blocking call of the same task: an upper bound, tight
+ * when the task does little besides blocking. Calls that do not end inside a task scheduled while the
+ * profiler runs are counted but not timed.
+ * <p>
+ * The callback is registered through {@link Integration}, found by BlockHound's {@code ServiceLoader}
+ * whichever code calls {@code BlockHound.install()}; with no profiler started it throws as BlockHound
+ * does by default. Only one profiler runs at a time.
+ */
+public final class BlockingProfiler implements AutoCloseable {
+
+    private static final String HOOK_KEY = BlockingProfiler.class.getName();
+    private static final Pattern THREAD_NUMBER = Pattern.compile("-\\d+$");
+    private static final AtomicReference<BlockingProfiler> ACTIVE = new AtomicReference<>();
+    private static final ThreadLocal<OpenCall> OPEN_CALL = new ThreadLocal<>();
+    // dentro de uma tarefa agendada com o hook: so ai o fim da tarefa fecha a chamada
+    private static final ThreadLocal<Boolean> IN_TASK = ThreadLocal.withInitial(() -> false);
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LatencyHistogram blocked = new LatencyHistogram();
+
+    private BlockingProfiler() {
+    }
+
+    /**
+     * Installs BlockHound if needed and switches it to reporting into the returned profiler until it is
+     * closed.
+     *
+     * @throws IllegalStateException if another profiler is running
+     */
+    public static BlockingProfiler start() {
+        BlockingProfiler profiler = new BlockingProfiler();
+        if (!ACTIVE.compareAndSet(null, profiler)) {
+            throw new IllegalStateException("A BlockingProfiler is already running");
+        }
+        Schedulers.onScheduleHook(HOOK_KEY, task -> () -> {
+            boolean outermost = !IN_TASK.get();
+            if (outermost) {
+                // sobra de uma tarefa sem o hook: nao tem fim medido
+                OPEN_CALL.remove();
+                IN_TASK.set(true);
+            }
+            try {
+                task.run();
+            } finally {
+                closeOpenCall();
+                if (outermost) {
+                    IN_TASK.remove();
+                }
+            }
+        });
+        BlockHound.install();
+        return profiler;
+    }
+
+    /**
+     * Call sites ranked by total time blocked, then by calls.
+     */
+    public List<CallSite> report() {
+        return sites.values().stream()
+                .map(Site::snapshot)
+                .sorted(Comparator.comparingLong(CallSite::blockedNanos)
+                        .thenComparingLong(CallSite::calls)
+                        .reversed())
+                .toList();
+    }
+
+    /**
+     * Time blocked of every timed call.
+     */
+    public LatencyHistogram.Snapshot histogram() {
+        return blocked.snapshot();
+    }
+
+    public long calls() {
+        return sites.values().stream().mapToLong(site -> site.calls.sum()).sum();
+    }
+
+    /**
+     * Stops recording; BlockHound fails on blocking calls again.
+     */
+    @Override
+    public void close() {
+        if (ACTIVE.compareAndSet(this, null)) {
+            Schedulers.resetOnScheduleHook(HOOK_KEY);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Blocking calls, by time blocked:");
+        for (CallSite site : report()) {
+            text.append(System.lineSeparator()).append("  ").append(site);
+        }
+        return text.toString();
+    }
+
+    private void record(BlockingMethod method, Thread thread) {
+        long now = System.nanoTime();
+        closeOpenCall(now);
+        String location = callSite();
+        String key = method + " at " + location;
+        Site site = sites.computeIfAbsent(key, k -> new Site(method.toString(), location));
+        site.calls.increment();
+        site.pools.computeIfAbsent(pool(thread), p -> new LongAdder()).increment();
+        if (IN_TASK.get()) {
+            OPEN_CALL.set(new OpenCall(this, site, now));
+        }
+    }
+
+    private static void onBlockingMethod(BlockingMethod method) {
+        BlockingProfiler profiler = ACTIVE.get();
+        if (profiler == null) {
+            throw new BlockingOperationError(method);
+        }
+        profiler.record(method, Thread.currentThread());
+    }
+
+    private static void closeOpenCall() {
+        if (OPEN_CALL.get() != null) {
+            closeOpenCall(System.nanoTime());
+        }
+    }
+
+    private static void closeOpenCall(long now) {
+        OpenCall call = OPEN_CALL.get();
+        if (call == null) {
+            return;
+        }
+        OPEN_CALL.remove();
+        long nanos = now - call.startedAt;
+        call.site.timedCalls.increment();
+        call.site.blockedNanos.add(nanos);
+        call.site.latency.record(nanos);
+        call.profiler.blocked.record(nanos);
+    }
+
+    // primeiro frame fora do JDK, do BlockHound e deste profiler
+    private static String callSite() {
+        Optional<StackWalker.StackFrame> frame = WALKER.walk(frames -> frames
+                .filter(f -> !isInternal(f.getClassName()))
+                .findFirst());
+        return frame.map(f -> f.getClassName() + "." + f.getMethodName() + "(" + f.getFileName() + ":"
+                + f.getLineNumber() + ")").orElse("unknown");
+    }
+
+    private static boolean isInternal(String className) {
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")
+                || className.startsWith("reactor.blockhound.") || className.equals(BlockingProfiler.class.getName());
+    }
+
+    // parallel-3 -> parallel
+    static String pool(Thread thread) {
+        return THREAD_NUMBER.matcher(thread.getName()).replaceFirst("");
+    }
+
+    /**
+     * @param blockedNanos total time blocked of the timed calls
+     * @param latency      time blocked per timed call
+     */
+    public record CallSite(String blockingMethod, String location, Map<String, Long> pools, long calls,
+                           long timedCalls, long blockedNanos, LatencyHistogram.Snapshot latency) {
+
+        @Override
+        public String toString() {
+            return String.format("%s at %s: %d calls on %s, %d ms blocked (p50 %.2f ms, p99 %.2f ms, max %.2f ms)",
+                    blockingMethod, location, calls, pools, TimeUnit.NANOSECONDS.toMillis(blockedNanos),
+                    latency.percentile(50) / 1e6, latency.percentile(99) / 1e6, latency.max() / 1e6);
+        }
+    }
+
+    /**
+     * Registered in {@code META-INF/services}, so any {@code BlockHound.install()} routes blocking calls
+     * through {@link BlockingProfiler}.
+     */
+    public static final class Integration implements BlockHoundIntegration {
+
+        @Override
+        public void applyTo(BlockHound.Builder builder) {
+            builder.blockingMethodCallback(BlockingProfiler::onBlockingMethod);
+        }
+    }
+
+    private static final class Site {
+        final String blockingMethod;
+        final String location;
+        final Map<String, LongAdder> pools = new ConcurrentHashMap<>();
+        final LongAdder calls = new LongAdder();
+        final LongAdder timedCalls = new LongAdder();
+        final LongAdder blockedNanos = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        Site(String blockingMethod, String location) {
+            this.blockingMethod = blockingMethod;
+            this.location = location;
+        }
+
+        CallSite snapshot() {
+            Map<String, Long> poolCounts = new TreeMap<>();
+            pools.forEach((pool, count) -> poolCounts.put(pool, count.sum()));
+            return new CallSite(blockingMethod, location, poolCounts, calls.sum(), timedCalls.sum(),
+                    blockedNanos.sum(), latency.snapshot());
+        }
+    }
+
+    private record OpenCall(BlockingProfiler profiler, Site site, long startedAt) {
+    }
+}
@@ -0,0 +1,134 @@
+package academy.devdojo.reactive.diagnostics;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+/**
+ * Walks an assembled Flux or Mono through {@link Scannable#parents()} and reports, for every stage from
+ * the source down, the fusion mode it grants to a downstream that asks for {@link Fuseable#ANY} and
+ * its prefetch.
+ * <p>
+ * The mode is probed by subscribing to each stage and cancelling right after {@code onSubscribe}
+ * without requesting anything, so only use it on cold pipelines. A stage that does not call
+ * {@code onSubscribe} synchronously (e.g. {@code delaySubscription}) is reported as {@code UNKNOWN}.
+ */
+public final class FusionInspector {
+
+    public enum FusionMode {
+        SYNC, ASYNC, NONE, UNKNOWN;
+
+        static FusionMode of(int mode) {
+            return switch (mode) {
+                case Fuseable.SYNC -> SYNC;
+                case Fuseable.ASYNC -> ASYNC;
+                default -> NONE;
+            };
+        }
+
+        public boolean fused() {
+            return this == SYNC || this == ASYNC;
+        }
+    }
+
+    /**
+     * @param macroFused the stage is a {@link Callable} source that operators can read at assembly time
+     * @param prefetch   -1 when the stage does not prefetch
+     */
+    public record Stage(String name, FusionMode mode, int prefetch, boolean macroFused) {
+    }
+
+    private FusionInspector() {
+    }
+
+    public static List<Stage> inspect(Publisher<?> publisher) {
+        List<Publisher<?>> chain = new ArrayList<>();
+        chain.add(publisher);
+        Scannable.from(publisher).parents()
+                .filter(Publisher.class::isInstance)
+                .forEach(p -> chain.add((Publisher<?>) p));
+        Collections.reverse(chain);
+
+        List<Stage> stages = new ArrayList<>(chain.size());
+        for (Publisher<?> stage : chain) {
+            Scannable scannable = Scannable.from(stage);
+            Integer prefetch = scannable.scan(Scannable.Attr.PREFETCH);
+            stages.add(new Stage(scannable.stepName(), probe(stage),
+                    prefetch == null ? -1 : prefetch, stage instanceof Callable));
+        }
+        return stages;
+    }
+
+    /**
+     * First stage that is not fused, or {@code null} when the whole pipeline is fused.
+     */
+    public static Stage firstUnfused(Publisher<?> publisher) {
+        return inspect(publisher).stream()
+                .filter(stage -> !stage.mode().fused())
+                .findFirst()
+                .orElse(null);
+    }
+
+    public static String report(Publisher<?> publisher) {
+        return inspect(publisher).stream()
+                .map(stage -> String.format("%-32s %-7s prefetch=%-6s%s", stage.name(), stage.mode(),
+                        stage.prefetch() < 0 ? "-" : stage.prefetch(), stage.macroFused() ? " macro" : ""))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * {@code publisher} with fusion hidden when it is {@link Fuseable}, as {@code hide()} would, otherwise
+     * {@code publisher} itself. Operators built with {@code Operators.lift} apply it to their source: the
+     * lifted subscriber is not a {@link Fuseable.QueueSubscription}, so a fuseable operator after it would
+     * otherwise fail with a {@link ClassCastException}.
+     */
+    public static <T> Publisher<T> hideFusion(Publisher<T> publisher) {
+        if (!(publisher instanceof Fuseable)) {
+            return publisher;
+        }
+        return publisher instanceof Mono<T> mono ? mono.hide() : Flux.from(publisher).hide();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FusionMode probe(Publisher<?> stage) {
+        Probe probe = new Probe();
+        ((Publisher<Object>) stage).subscribe(probe);
+        return probe.mode;
+    }
+
+    private static final class Probe implements CoreSubscriber<Object> {
+        FusionMode mode = FusionMode.UNKNOWN;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (s instanceof Fuseable.QueueSubscription<?> qs) {
+                mode = FusionMode.of(qs.requestFusion(Fuseable.ANY));
+            } else {
+                mode = FusionMode.NONE;
+            }
+            s.cancel();
+        }
+
+        @Override
+        public void onNext(Object o) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package academy.devdojo.reactive.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Low-overhead replacement for {@code .log()}: {@link #trace(String)} records signals as two {@code long}s
+ * into a preallocated ring buffer owned by the emitting thread, and a daemon thread drains all rings,
+ * orders each batch by timestamp and hands the events to a {@link TraceSink}.
+ * <p>
+ * The hot path does no formatting, locking or allocation. When a ring is full the event is dropped and
+ * counted in {@link #dropped()}. {@code onNext} and {@code request} are level {@code FINE} and can be
+ * sampled (one in {@code sampleEvery} per subscription); subscribe, complete and cancel are {@code INFO};
+ * errors are {@code SEVERE}.
+ * <p>
+ * Each thread that traces gets its own ring of {@code ringCapacity} events (16 bytes each). A ring is
+ * retired once its thread has died and the ring was drained, so thread churn on {@code boundedElastic} or
+ * virtual threads does not accumulate rings. {@link #close()} drops the remaining rings, and signals
+ * recorded after it are ignored.
+ */
+@Slf4j
+public final class SignalTracer implements AutoCloseable {
+
+    public static final int DEFAULT_RING_CAPACITY = 8192;
+    public static final long DEFAULT_DRAIN_INTERVAL_MILLIS = 10;
+
+    private static final SignalType[] SIGNALS = SignalType.values();
+    private static final long PAYLOAD_MASK = (1L << 40) - 1;
+
+    private final TraceSink sink;
+    private final int sampleEvery;
+    private final int ringCapacity;
+    private final boolean traceValues;
+    private final boolean traceLifecycle;
+    private final boolean traceErrors;
+
+    private final List<String> names = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> nameIds = new ConcurrentHashMap<>();
+    private final List<Ring> rings = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Ring> localRing = ThreadLocal.withInitial(this::newRing);
+    private final Thread drainer;
+    // dropped dos rings ja aposentados
+    private final AtomicLong retiredDropped = new AtomicLong();
+    private volatile boolean running = true;
+
+    public SignalTracer(TraceSink sink) {
+        this(sink, Level.FINE, 1, DEFAULT_RING_CAPACITY, DEFAULT_DRAIN_INTERVAL_MILLIS);
+    }
+
+    public SignalTracer(TraceSink sink, Level level, int sampleEvery, int ringCapacity, long drainIntervalMillis) {
+        if (sampleEvery < 1 || Integer.bitCount(ringCapacity) != 1) {
+            throw new IllegalArgumentException("sampleEvery must be >= 1 and ringCapacity a power of two");
+        }
+        this.sink = sink;
+        this.sampleEvery = sampleEvery;
+        this.ringCapacity = ringCapacity;
+        this.traceValues = level.intValue() <= Level.FINE.intValue();
+        this.traceLifecycle = level.intValue() <= Level.INFO.intValue();
+        this.traceErrors = level.intValue() <= Level.SEVERE.intValue();
+
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(drainIntervalMillis);
+        this.drainer = new Thread(() -> {
+            while (running) {
+                LockSupport.parkNanos(intervalNanos);
+                drain();
+            }
+        }, "signal-tracer-drain");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * Operator for {@code flux.transform(tracer.trace("stage"))} or {@code mono.transform(...)}.
+     */
+    public <T> Function<Publisher<T>, Publisher<T>> trace(String stage) {
+        int stageId = nameId(stage);
+        Function<? super Publisher<T>, ? extends Publisher<T>> lift =
+                Operators.lift((scannable, actual) -> new TracingSubscriber<>(actual, stageId));
+        return publisher -> lift.apply(FusionInspector.hideFusion(publisher));
+    }
+
+    /**
+     * Drains all rings into the sink now, on the calling thread, and retires the rings of dead threads.
+     */
+    public synchronized void drain() {
+        List<TraceEvent> batch = new ArrayList<>();
+        for (Ring ring : rings) {
+            // a thread morta antes do drain nao grava mais nada: depois dele o ring esta vazio
+            boolean ownerDead = !ring.ownerAlive();
+            ring.drainTo(this, batch);
+            if (ownerDead) {
+                rings.remove(ring);
+                retiredDropped.addAndGet(ring.dropped);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batch.sort(Comparator.comparingLong(TraceEvent::nanoTime));
+        try {
+            batch.forEach(sink::write);
+            sink.flush();
+        } catch (RuntimeException e) {
+            log.warn("Trace sink failed, {} events lost", batch.size(), e);
+        }
+    }
+
+    public long dropped() {
+        long dropped = retiredDropped.get();
+        for (Ring ring : rings) {
+            dropped += ring.dropped;
+        }
+        return dropped;
+    }
+
+    /**
+     * Rings currently held: one per thread that traced and is alive or was not drained since it died.
+     */
+    public int rings() {
+        return rings.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        for (Ring ring : rings) {
+            retiredDropped.addAndGet(ring.dropped);
+        }
+        rings.clear();
+        sink.close();
+    }
+
+    private int nameId(String name) {
+        return nameIds.computeIfAbsent(name, n -> {
+            synchronized (names) {
+                names.add(n);
+                return names.size() - 1;
+            }
+        });
+    }
+
+    private Ring newRing() {
+        Ring ring = new Ring(Thread.currentThread(), ringCapacity);
+        rings.add(ring);
+        return ring;
+    }
+
+    private void record(int stageId, SignalType signal, long payload) {
+        if (!running) {
+            return;
+        }
+        localRing.get().offer(System.nanoTime(),
+                ((long) stageId << 48) | ((long) signal.ordinal() << 40) | (payload & PAYLOAD_MASK));
+    }
+
+    private TraceEvent decode(String thread, long nanoTime, long word) {
+        SignalType signal = SIGNALS[(int) (word >>> 40) & 0xFF];
+        long payload = word & PAYLOAD_MASK;
+        String error = null;
+        if (signal == SignalType.ON_ERROR) {
+            error = names.get((int) payload);
+            payload = 0;
+        } else if (signal == SignalType.REQUEST && payload == PAYLOAD_MASK) {
+            payload = Long.MAX_VALUE;
+        }
+        return new TraceEvent(nanoTime, thread, names.get((int) (word >>> 48)), signal, payload, error);
+    }
+
+    // um produtor (a thread dona) e um consumidor (a thread de drain); estatico para que o valor do
+    // ThreadLocal nao segure o tracer depois de fechado
+    private static final class Ring {
+        final String thread;
+        final WeakReference<Thread> owner;
+        final long[] events;
+        final int mask;
+        final AtomicLong head = new AtomicLong();
+        final AtomicLong tail = new AtomicLong();
+        volatile long dropped;
+
+        Ring(Thread owner, int capacity) {
+            this.thread = owner.getName();
+            this.owner = new WeakReference<>(owner);
+            this.events = new long[capacity * 2];
+            this.mask = capacity - 1;
+        }
+
+        boolean ownerAlive() {
+            Thread t = owner.get();
+            return t != null && t.isAlive();
+        }
+
+        void offer(long nanoTime, long word) {
+            long t = tail.getPlain();
+            if (t - head.getAcquire() > mask) {
+                dropped++;
+                return;
+            }
+            int index = (int) (t & mask) << 1;
+            events[index] = nanoTime;
+            events[index + 1] = word;
+            tail.setRelease(t + 1);
+        }
+
+        void drainTo(SignalTracer tracer, List<TraceEvent> batch) {
+            long h = head.getPlain();
+            long t = tail.getAcquire();
+            for (; h < t; h++) {
+                int index = (int) (h & mask) << 1;
+                batch.add(tracer.decode(thread, events[index], events[index + 1]));
+            }
+            head.setRelease(h);
+        }
+    }
+
+    private final class TracingSubscriber<T> implements CoreSubscriber<T>, Subscription, Scannable {
+        private final CoreSubscriber<? super T> actual;
+        private final int stageId;
+        private Subscription upstream;
+        private long nextCount;
+        private long requestCount;
+
+        TracingSubscriber(CoreSubscriber<? super T> actual, int stageId) {
+            this.actual = actual;
+            this.stageId = stageId;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                if (traceLifecycle) {
+                    record(stageId, SignalType.ON_SUBSCRIBE, 0);
+                }
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            long sequence = nextCount++;
+            if (traceValues && sequence % sampleEvery == 0) {
+                record(stageId, SignalType.ON_NEXT, sequence);
+            }
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (traceErrors) {
+                record(stageId, SignalType.ON_ERROR, nameId(t.getClass().getName()));
+            }
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (traceLifecycle) {
+                record(stageId, SignalType.ON_COMPLETE, 0);
+            }
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (traceValues && requestCount++ % sampleEvery == 0) {
+                record(stageId, SignalType.REQUEST, Math.min(n, PAYLOAD_MASK));
+            }
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            if (traceLifecycle) {
+                record(stageId, SignalType.CANCEL, 0);
+            }
+            upstream.cancel();
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return upstream;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.RUN_STYLE) {
+                return Attr.RunStyle.SYNC;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package academy.devdojo.reactive.diagnostics;
+
+import reactor.core.publisher.SignalType;
+
+/**
+ * A signal decoded from a {@link SignalTracer} ring buffer.
+ *
+ * @param payload onNext sequence number within the subscription, or the {@code request(n)} amount
+ *                ({@link Long#MAX_VALUE} for unbounded); 0 for the other signals
+ * @param error   exception class name for {@code onError}, otherwise {@code null}
+ */
+public record TraceEvent(long nanoTime, String thread, String stage, SignalType signal, long payload, String error) {
+
+    @Override
+    public String toString() {
+        return switch (signal) {
+            case ON_NEXT -> String.format("[%s] %s onNext(#%d)", thread, stage, payload);
+            case REQUEST -> String.format("[%s] %s request(%s)", thread, stage,
+                    payload == Long.MAX_VALUE ? "unbounded" : payload);
+            case ON_ERROR -> String.format("[%s] %s onError(%s)", thread, stage, error);
+            default -> String.format("[%s] %s %s", thread, stage, signal);
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package academy.devdojo.reactive.diagnostics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.SignalType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination of drained {@link TraceEvent}s. Called only from the tracer's drain thread.
+ */
+public interface TraceSink extends AutoCloseable {
+
+    void write(TraceEvent event);
+
+    default void flush() {
+    }
+
+    @Override
+    default void close() {
+        flush();
+    }
+
+    /**
+     * Logs errors at {@code error} and every other signal at {@code info}, as {@code .log()} does, so
+     * filtering by level is left to the tracer.
+     */
+    static TraceSink slf4j(String category) {
+        Logger logger = LoggerFactory.getLogger(category);
+        return event -> {
+            if (event.signal() == SignalType.ON_ERROR) {
+                logger.error("{}", event);
+            } else {
+                logger.info("{}", event);
+            }
+        };
+    }
+
+    static TraceSink file(Path path) {
+        try {
+            BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return new TraceSink() {
+                @Override
+                public void write(TraceEvent event) {
+                    try {
+                        writer.write(Long.toString(event.nanoTime()));
+                        writer.write(' ');
+                        writer.write(event.toString());
+                        writer.newLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void flush() {
+                    try {
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void close() {
+                    try {
+                        writer.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
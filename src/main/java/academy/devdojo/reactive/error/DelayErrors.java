@@ -0,0 +1,85 @@
+package academy.devdojo.reactive.error;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Delay-error merge and concat that keep an {@link ErrorSummary} instead of every error. Like
+ * {@code Flux.mergeDelayError} and {@code Flux.concatDelayError}, a failed source does not stop the
+ * others and the failures are signalled at the end, as one {@link DelayedErrorsException}.
+ * <p>
+ * With a {@code maxErrorRate}, once at least {@code minSources} sources have finished and the share that
+ * failed goes over the rate, the merge stops right away: the remaining sources are cancelled and the
+ * {@link DelayedErrorsException} is signalled with {@link ErrorSummary#shortCircuited()} set. Every
+ * subscription gets its own summary.
+ */
+public final class DelayErrors {
+
+    private final int exemplars;
+    private final double maxErrorRate;
+    private final long minSources;
+
+    /**
+     * Never short-circuits.
+     */
+    public DelayErrors(int exemplars) {
+        this(exemplars, 1.0, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param exemplars    first errors kept as they were, besides the last one
+     * @param maxErrorRate failed over finished sources above which the merge stops, in {@code [0, 1]}
+     * @param minSources   finished sources needed before the rate is checked
+     */
+    public DelayErrors(int exemplars, double maxErrorRate, long minSources) {
+        if (exemplars < 0 || maxErrorRate < 0 || maxErrorRate > 1 || minSources < 1) {
+            throw new IllegalArgumentException("Expected exemplars >= 0, maxErrorRate in [0, 1] and "
+                    + "minSources >= 1, got " + exemplars + ", " + maxErrorRate + " and " + minSources);
+        }
+        this.exemplars = exemplars;
+        this.maxErrorRate = maxErrorRate;
+        this.minSources = minSources;
+    }
+
+    /**
+     * Subscribes to up to {@code concurrency} sources at a time, interleaving their elements.
+     */
+    public <T> Flux<T> merge(Publisher<? extends Publisher<? extends T>> sources, int concurrency) {
+        return Flux.defer(() -> {
+            ErrorSummary summary = newSummary();
+            return Flux.from(sources)
+                    .<T>flatMap(source -> guard(source, summary), concurrency)
+                    .concatWith(Mono.defer(() -> terminal(summary)));
+        });
+    }
+
+    /**
+     * Subscribes to the sources one after the other, keeping their order.
+     */
+    public <T> Flux<T> concat(Publisher<? extends Publisher<? extends T>> sources) {
+        return Flux.defer(() -> {
+            ErrorSummary summary = newSummary();
+            return Flux.from(sources)
+                    .<T>concatMap(source -> guard(source, summary))
+                    .concatWith(Mono.defer(() -> terminal(summary)));
+        });
+    }
+
+    private ErrorSummary newSummary() {
+        return new ErrorSummary(exemplars, maxErrorRate, minSources);
+    }
+
+    // o erro da fonte vira vazio; so o que passa do limite derruba o flatMap, que cancela as demais
+    private static <T> Flux<T> guard(Publisher<? extends T> source, ErrorSummary summary) {
+        return Flux.<T>from(source)
+                .doOnComplete(summary::recordSuccess)
+                .onErrorResume(e -> summary.recordError(e)
+                        ? Flux.error(new DelayedErrorsException(summary))
+                        : Flux.empty());
+    }
+
+    private static <T> Mono<T> terminal(ErrorSummary summary) {
+        return summary.errors() == 0 ? Mono.empty() : Mono.error(new DelayedErrorsException(summary));
+    }
+}
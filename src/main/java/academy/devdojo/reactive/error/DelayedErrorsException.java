@@ -0,0 +1,27 @@
+package academy.devdojo.reactive.error;
+
+/**
+ * Terminal error of a {@link DelayErrors} merge. It carries the {@link ErrorSummary} and, as suppressed
+ * exceptions, only the summary's exemplars and last error, so logging it prints a bounded trace however
+ * many sources failed.
+ */
+public class DelayedErrorsException extends RuntimeException {
+
+    private final transient ErrorSummary summary;
+
+    public DelayedErrorsException(ErrorSummary summary) {
+        super(summary.toString());
+        this.summary = summary;
+        for (Throwable exemplar : summary.exemplars()) {
+            addSuppressed(exemplar);
+        }
+        Throwable last = summary.lastError();
+        if (last != null && !summary.exemplars().contains(last)) {
+            addSuppressed(last);
+        }
+    }
+
+    public ErrorSummary summary() {
+        return summary;
+    }
+}
@@ -0,0 +1,117 @@
+package academy.devdojo.reactive.error;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded record of the failures of a delay-error merge: how many sources failed and succeeded, a count
+ * per exception type, the first {@code exemplars} errors and the last one. Its memory does not grow with
+ * the number of failures, unlike the composite that {@code Flux.mergeDelayError} builds, which keeps
+ * every throwable as a suppressed exception.
+ * <p>
+ * At most {@link #MAX_TYPES} types are counted by name; errors of any further type only add to
+ * {@link #otherTypes()}. All methods are thread-safe.
+ */
+public final class ErrorSummary {
+
+    public static final int MAX_TYPES = 32;
+
+    private final int exemplars;
+    private final double maxErrorRate;
+    private final long minSources;
+    private final Map<String, Long> countsByType = new HashMap<>();
+    private final List<Throwable> firstErrors = new ArrayList<>();
+    private long errors;
+    private long successes;
+    private long otherTypes;
+    private Throwable lastError;
+    private boolean tripped;
+
+    /**
+     * @param maxErrorRate failed over finished sources above which {@link #recordError} trips
+     * @param minSources   finished sources needed before the rate is checked
+     */
+    ErrorSummary(int exemplars, double maxErrorRate, long minSources) {
+        this.exemplars = exemplars;
+        this.maxErrorRate = maxErrorRate;
+        this.minSources = minSources;
+    }
+
+    synchronized void recordSuccess() {
+        successes++;
+    }
+
+    /**
+     * Records a failed source; returns {@code true} only for the error that takes the error rate over
+     * the threshold.
+     */
+    synchronized boolean recordError(Throwable error) {
+        errors++;
+        lastError = error;
+        if (firstErrors.size() < exemplars) {
+            firstErrors.add(error);
+        }
+        String type = error.getClass().getName();
+        Long count = countsByType.get(type);
+        if (count != null) {
+            countsByType.put(type, count + 1);
+        } else if (countsByType.size() < MAX_TYPES) {
+            countsByType.put(type, 1L);
+        } else {
+            otherTypes++;
+        }
+        if (tripped || errors + successes < minSources || errorRate() <= maxErrorRate) {
+            return false;
+        }
+        tripped = true;
+        return true;
+    }
+
+    public synchronized long errors() {
+        return errors;
+    }
+
+    public synchronized long successes() {
+        return successes;
+    }
+
+    /**
+     * Failed over finished sources; sources cancelled before finishing are not counted.
+     */
+    public synchronized double errorRate() {
+        long finished = errors + successes;
+        return finished == 0 ? 0 : (double) errors / finished;
+    }
+
+    /**
+     * Whether the merge was cut short by the error rate rather than run to the end.
+     */
+    public synchronized boolean shortCircuited() {
+        return tripped;
+    }
+
+    public synchronized Map<String, Long> countsByType() {
+        return Collections.unmodifiableMap(new HashMap<>(countsByType));
+    }
+
+    public synchronized long otherTypes() {
+        return otherTypes;
+    }
+
+    public synchronized List<Throwable> exemplars() {
+        return List.copyOf(firstErrors);
+    }
+
+    public synchronized Throwable lastError() {
+        return lastError;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return errors + " of " + (errors + successes) + " sources failed" + (tripped ? " (short-circuited)" : "")
+                + ", by type " + countsByType + (otherTypes > 0 ? " and " + otherTypes + " of other types" : "");
+    }
+}
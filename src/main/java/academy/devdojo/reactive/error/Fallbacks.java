@@ -0,0 +1,180 @@
+package academy.devdojo.reactive.error;
+
+import academy.devdojo.reactive.diagnostics.FusionInspector;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Fallback operators whose error path allocates nothing, for pipelines where failures are expected and
+ * frequent: together with a reused {@link StacklessException} an error costs a few calls instead of a
+ * stack trace, a fallback {@code Mono} and a subscriber.
+ * <p>
+ * {@code onErrorResume(e -> Mono.just(fallback))} builds and subscribes a new {@code Mono} per error;
+ * {@link #recover(Function)} computes the fallback value directly. {@link #mapOrElse} and
+ * {@link #mapToResult} keep the stream going past a failed element instead of terminating it.
+ */
+public final class Fallbacks {
+
+    private Fallbacks() {
+    }
+
+    /**
+     * Counterpart of {@code onErrorReturn(fallback)}: on error emits {@code fallback}, once requested, and
+     * completes. Works with {@code Mono.transform} and {@code Flux.transform}.
+     */
+    public static <T> Function<Publisher<T>, Publisher<T>> recover(T fallback) {
+        return recover(e -> fallback);
+    }
+
+    /**
+     * Counterpart of {@code onErrorResume(e -> Mono.just(fallback.apply(e)))}: on error emits the computed
+     * value, once requested, and completes; a {@code null} value just completes.
+     */
+    public static <T> Function<Publisher<T>, Publisher<T>> recover(Function<? super Throwable, ? extends T> fallback) {
+        Function<? super Publisher<T>, ? extends Publisher<T>> lift =
+                Operators.lift((scannable, actual) -> new RecoverSubscriber<>(actual, fallback));
+        return publisher -> lift.apply(FusionInspector.hideFusion(publisher));
+    }
+
+    /**
+     * Maps each element, replacing a failed one with {@code fallback} (or dropping it when {@code null})
+     * and carrying on with the next.
+     */
+    public static <T, R> Function<Flux<T>, Flux<R>> mapOrElse(Function<? super T, ? extends R> mapper, R fallback) {
+        return flux -> flux.handle((t, sink) -> {
+            R value;
+            try {
+                value = mapper.apply(t);
+            } catch (RuntimeException e) {
+                value = fallback;
+            }
+            if (value != null) {
+                sink.next(value);
+            }
+        });
+    }
+
+    /**
+     * Maps each element to a {@link Result}: a {@link StacklessException} becomes its preallocated
+     * failure, any other exception a new {@link Result.Failed}.
+     */
+    public static <T, R> Function<Flux<T>, Flux<Result<R>>> mapToResult(Function<? super T, ? extends R> mapper) {
+        return flux -> flux.handle((t, sink) -> {
+            Result<R> result;
+            try {
+                result = Result.ok(mapper.apply(t));
+            } catch (StacklessException e) {
+                result = e.asResult();
+            } catch (RuntimeException e) {
+                result = new Result.Failed<>(e);
+            }
+            sink.next(result);
+        });
+    }
+
+    static final class RecoverSubscriber<T> implements CoreSubscriber<T>, Subscription {
+        private static final int ACTIVE = 0;
+        private static final int HAS_FALLBACK = 1;
+        private static final int DONE = 2;
+
+        private final CoreSubscriber<? super T> actual;
+        private final Function<? super Throwable, ? extends T> fallback;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger state = new AtomicInteger();
+        private Subscription upstream;
+        private T fallbackValue;
+
+        RecoverSubscriber(CoreSubscriber<? super T> actual, Function<? super Throwable, ? extends T> fallback) {
+            this.actual = actual;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (requested.get() != Long.MAX_VALUE) {
+                requested.decrementAndGet();
+            }
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            Exceptions.throwIfJvmFatal(t);
+            T value;
+            try {
+                value = fallback.apply(t);
+            } catch (Throwable e) {
+                state.set(DONE);
+                actual.onError(Operators.onOperatorError(e, currentContext()));
+                return;
+            }
+            if (value == null) {
+                state.set(DONE);
+                actual.onComplete();
+                return;
+            }
+            // grava antes de olhar a demanda; o request faz o contrario, entao um dos dois emite
+            fallbackValue = value;
+            state.set(HAS_FALLBACK);
+            if (requested.get() > 0) {
+                emitFallback();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            state.set(DONE);
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                if (state.get() == HAS_FALLBACK) {
+                    emitFallback();
+                } else {
+                    upstream.request(n);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            state.set(DONE);
+            fallbackValue = null;
+            upstream.cancel();
+        }
+
+        private void emitFallback() {
+            if (state.compareAndSet(HAS_FALLBACK, DONE)) {
+                T value = fallbackValue;
+                fallbackValue = null;
+                actual.onNext(value);
+                actual.onComplete();
+            }
+        }
+    }
+}
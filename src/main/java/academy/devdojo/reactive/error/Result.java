@@ -0,0 +1,45 @@
+package academy.devdojo.reactive.error;
+
+/**
+ * Outcome of an element-level operation carried as a value, so an expected failure flows down the
+ * pipeline like any element instead of terminating it with {@code onError}.
+ */
+public sealed interface Result<T> permits Result.Ok, Result.Failed {
+
+    static <T> Result<T> ok(T value) {
+        return new Ok<>(value);
+    }
+
+    boolean isOk();
+
+    /**
+     * The value, or {@code fallback} for a failure.
+     */
+    T orElse(T fallback);
+
+    record Ok<T>(T value) implements Result<T> {
+
+        @Override
+        public boolean isOk() {
+            return true;
+        }
+
+        @Override
+        public T orElse(T fallback) {
+            return value;
+        }
+    }
+
+    record Failed<T>(Throwable error) implements Result<T> {
+
+        @Override
+        public boolean isOk() {
+            return false;
+        }
+
+        @Override
+        public T orElse(T fallback) {
+            return fallback;
+        }
+    }
+}
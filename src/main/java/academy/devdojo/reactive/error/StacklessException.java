@@ -0,0 +1,44 @@
+package academy.devdojo.reactive.error;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exception without a stack trace or suppressed exceptions, meant to be created once and reused for an
+ * expected failure, e.g. {@code static final StacklessException NOT_FOUND = new StacklessException("not found")}
+ * and {@code return NOT_FOUND.mono()}. Signalling it costs no {@code fillInStackTrace} and no allocation.
+ * <p>
+ * A shared instance is immutable, so it is safe to signal from any thread, but it cannot carry anything
+ * about the element that failed; use {@link Result} for that.
+ */
+public class StacklessException extends RuntimeException {
+
+    private final Result.Failed<?> result = new Result.Failed<>(this);
+    private final Mono<?> mono = Mono.error(this);
+    private final Flux<?> flux = Flux.error(this);
+
+    public StacklessException(String message) {
+        super(message, null, false, false);
+    }
+
+    /**
+     * The same {@link Result.Failed} instance on every call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> asResult() {
+        return (Result<T>) result;
+    }
+
+    /**
+     * The same {@code Mono.error(this)} instance on every call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> mono() {
+        return (Mono<T>) mono;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> flux() {
+        return (Flux<T>) flux;
+    }
+}
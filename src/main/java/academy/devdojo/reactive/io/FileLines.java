@@ -0,0 +1,187 @@
+package academy.devdojo.reactive.io;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lazy file sources: nothing is read until downstream requests it, and heap use depends on the
+ * buffer size and the longest line, not on the file size.
+ * <p>
+ * Reads are blocking, so subscribe on an I/O scheduler, e.g. {@code .subscribeOn(IoSchedulers.io())}.
+ */
+public final class FileLines {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAPPED_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private FileLines() {
+    }
+
+    public static Flux<String> lines(Path path) {
+        return lines(path, StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Emits one line per request, without the {@code \n} / {@code \r\n} terminator.
+     * The charset must encode {@code '\n'} as the single byte {@code 0x0A} (UTF-8, ISO-8859-1, ASCII).
+     */
+    public static Flux<String> lines(Path path, Charset charset, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        return Flux.generate(() -> new LineReader(open(path), charset, bufferSize),
+                LineReader::next,
+                LineReader::close);
+    }
+
+    public static Flux<ByteBuffer> mappedChunks(Path path) {
+        return mappedChunks(path, DEFAULT_MAPPED_CHUNK_SIZE);
+    }
+
+    /**
+     * Emits read-only memory-mapped windows of at most {@code chunkSize} bytes, in file order.
+     * The mapping lives off-heap and is released when the buffer is garbage collected.
+     */
+    public static Flux<ByteBuffer> mappedChunks(Path path, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        return Flux.generate(() -> new ChunkMapper(open(path), chunkSize),
+                ChunkMapper::next,
+                ChunkMapper::close);
+    }
+
+    private static FileChannel open(Path path) {
+        try {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // nada a fazer depois do termino
+        }
+    }
+
+    static final class LineReader {
+        private final FileChannel channel;
+        private final Charset charset;
+        private final ByteBuffer buffer;
+        private byte[] line = new byte[256];
+        private int lineLength;
+        private boolean eof;
+
+        LineReader(FileChannel channel, Charset charset, int bufferSize) {
+            this.channel = channel;
+            this.charset = charset;
+            this.buffer = ByteBuffer.allocate(bufferSize);
+            this.buffer.flip();
+        }
+
+        LineReader next(SynchronousSink<String> sink) {
+            try {
+                String next = readLine();
+                if (next == null) {
+                    sink.complete();
+                    return this;
+                }
+                sink.next(next);
+                // completa junto com a ultima linha, sem esperar outro request
+                if (!buffer.hasRemaining() && !eof && !fill()) {
+                    eof = true;
+                }
+                if (eof && !buffer.hasRemaining() && lineLength == 0) {
+                    sink.complete();
+                }
+            } catch (IOException e) {
+                sink.error(e);
+            }
+            return this;
+        }
+
+        private String readLine() throws IOException {
+            while (true) {
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        return takeLine();
+                    }
+                    append(b);
+                }
+                if (eof || !fill()) {
+                    eof = true;
+                    return lineLength > 0 ? takeLine() : null;
+                }
+            }
+        }
+
+        private boolean fill() throws IOException {
+            buffer.clear();
+            int read = channel.read(buffer);
+            buffer.flip();
+            return read > 0;
+        }
+
+        private void append(byte b) {
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = b;
+        }
+
+        private String takeLine() {
+            int length = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+            lineLength = 0;
+            return new String(line, 0, length, charset);
+        }
+
+        void close() {
+            closeQuietly(channel);
+        }
+    }
+
+    static final class ChunkMapper {
+        private final FileChannel channel;
+        private final int chunkSize;
+        private long position;
+
+        ChunkMapper(FileChannel channel, int chunkSize) {
+            this.channel = channel;
+            this.chunkSize = chunkSize;
+        }
+
+        ChunkMapper next(SynchronousSink<ByteBuffer> sink) {
+            try {
+                long size = channel.size();
+                if (position >= size) {
+                    sink.complete();
+                    return this;
+                }
+                long length = Math.min(chunkSize, size - position);
+                sink.next(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+                position += length;
+            } catch (IOException e) {
+                sink.error(e);
+            }
+            return this;
+        }
+
+        void close() {
+            closeQuietly(channel);
+        }
+    }
+}
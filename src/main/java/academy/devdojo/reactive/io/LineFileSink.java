@@ -0,0 +1,116 @@
+package academy.devdojo.reactive.io;
+
+import academy.devdojo.reactive.batch.BatchSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * {@link BatchSink} that appends each element as a {@code \n}-terminated line, encoding the whole batch
+ * into one reused buffer and handing it to the channel in a single write.
+ * <p>
+ * Writes are blocking; not thread-safe, but {@code MicroBatcher.writeTo} calls it one batch at a time.
+ */
+public final class LineFileSink implements BatchSink<CharSequence>, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final boolean force;
+    private ByteBuffer buffer;
+
+    private LineFileSink(FileChannel channel, Charset charset, int bufferSize, boolean force) {
+        this.channel = channel;
+        this.encoder = charset.newEncoder();
+        this.force = force;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Creates the file, or truncates it if it exists.
+     */
+    public static LineFileSink create(Path path) throws IOException {
+        return open(path, StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE, false);
+    }
+
+    /**
+     * @param force {@code flush()} also forces the data to the storage device ({@code fsync})
+     */
+    public static LineFileSink open(Path path, Charset charset, int bufferSize, boolean force) throws IOException {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new LineFileSink(channel, charset, bufferSize, force);
+    }
+
+    @Override
+    public void write(List<? extends CharSequence> batch) throws IOException {
+        buffer.clear();
+        for (int i = 0, n = batch.size(); i < n; i++) {
+            encode(batch.get(i));
+            put((byte) '\n');
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (force) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void encode(CharSequence line) throws CharacterCodingException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        encoder.reset();
+        CoderResult result = encoder.encode(chars, buffer, true);
+        while (!result.isUnderflow()) {
+            if (result.isOverflow()) {
+                grow();
+            } else {
+                result.throwException();
+            }
+            result = encoder.encode(chars, buffer, true);
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            grow();
+        }
+    }
+
+    private void put(byte b) {
+        if (!buffer.hasRemaining()) {
+            grow();
+        }
+        buffer.put(b);
+    }
+
+    // lote maior que o buffer: dobra e mantem o tamanho para os proximos
+    private void grow() {
+        ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        bigger.put(buffer);
+        buffer = bigger;
+    }
+}
@@ -0,0 +1,96 @@
+package academy.devdojo.reactive.lookup;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Replaces {@code keys.flatMap(this::findByName)} with one lookup call per group of keys:
+ * {@code keys.transform(lookup.ordered())}.
+ * <p>
+ * Upstream keys are grouped into batches of at most {@code maxBatch} keys or {@code maxWait}, whichever
+ * comes first, with backpressure honoured while a batch is filling. Each batch is passed (deduplicated)
+ * to the batch lookup, at most {@code concurrency} lookups run at once, and the values are fanned back
+ * out once per key occurrence. Keys missing from the returned map produce no values, like an empty
+ * {@code findByName}.
+ */
+public final class BatchedLookup<K, V> {
+
+    public static final int DEFAULT_MAX_BATCH = 64;
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofMillis(10);
+    public static final int DEFAULT_CONCURRENCY = 4;
+    public static final int DEFAULT_PREFETCH = 1;
+
+    private final Function<? super List<K>, ? extends Mono<? extends Map<K, ? extends Collection<V>>>> lookup;
+    private final int maxBatch;
+    private final Duration maxWait;
+    private final int concurrency;
+    private final int prefetch;
+
+    public BatchedLookup(Function<? super List<K>, ? extends Mono<? extends Map<K, ? extends Collection<V>>>> lookup) {
+        this(lookup, DEFAULT_MAX_BATCH, DEFAULT_MAX_WAIT, DEFAULT_CONCURRENCY, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * @param concurrency batch lookups allowed in flight at the same time
+     * @param prefetch    batch results requested ahead from each lookup, as in {@code flatMap}
+     */
+    public BatchedLookup(Function<? super List<K>, ? extends Mono<? extends Map<K, ? extends Collection<V>>>> lookup,
+                         int maxBatch, Duration maxWait, int concurrency, int prefetch) {
+        if (maxBatch < 1 || concurrency < 1 || prefetch < 1) {
+            throw new IllegalArgumentException("maxBatch, concurrency and prefetch must be positive, got "
+                    + maxBatch + ", " + concurrency + " and " + prefetch);
+        }
+        this.lookup = lookup;
+        this.maxBatch = maxBatch;
+        this.maxWait = maxWait;
+        this.concurrency = concurrency;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Values come out in upstream key order, like {@code flatMapSequential}: a slow batch holds back the
+     * results of the batches after it.
+     */
+    public Function<Flux<K>, Publisher<V>> ordered() {
+        return keys -> batches(keys).flatMapSequential(this::resolve, concurrency, prefetch);
+    }
+
+    /**
+     * Values of each batch come out as soon as its lookup answers, like {@code flatMap}. Inside one batch
+     * they still follow the order of its keys.
+     */
+    public Function<Flux<K>, Publisher<V>> unordered() {
+        return keys -> batches(keys).flatMap(this::resolve, concurrency, prefetch);
+    }
+
+    private Flux<List<K>> batches(Flux<K> keys) {
+        // fairBackpressure: so pede ao upstream o que cabe nos lotes que o downstream pediu
+        return keys.bufferTimeout(maxBatch, maxWait, true);
+    }
+
+    private Flux<V> resolve(List<K> batch) {
+        List<K> distinct = batch.size() == 1 ? batch : new ArrayList<>(new LinkedHashSet<>(batch));
+        return lookup.apply(distinct)
+                .flatMapIterable(found -> fanOut(batch, found));
+    }
+
+    private static <K, V> List<V> fanOut(List<K> batch, Map<K, ? extends Collection<V>> found) {
+        List<V> values = new ArrayList<>(batch.size());
+        for (K key : batch) {
+            Collection<V> forKey = found.get(key);
+            if (forKey != null) {
+                values.addAll(forKey);
+            }
+        }
+        return values;
+    }
+}
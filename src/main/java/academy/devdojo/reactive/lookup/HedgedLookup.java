@@ -0,0 +1,264 @@
+package academy.devdojo.reactive.lookup;
+
+import academy.devdojo.reactive.metrics.LatencyHistogram;
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Hedged lookup: {@code names.flatMap(new HedgedLookup<>(this::findByName))}. When the primary has not
+ * signalled within the deadline, the same key is sent to the alternate (another replica, or the same
+ * source again); the first of the two to emit a value wins and the other is cancelled.
+ * <p>
+ * The deadline is the {@code percentile} of the primary's time to its first value or completion over
+ * the last {@value #WINDOW} calls that did not fail, never below {@code minDelay}; {@code initialDelay} is
+ * used until the first window fills. Calls the hedge won count with the time until they were cancelled,
+ * a lower bound. Failed calls are left out so that fast errors during an outage do not shorten the
+ * deadline and spend the tokens on hedges.
+ * <p>
+ * Hedges spend tokens so they cannot multiply the load: each call adds {@code budgetRatio} tokens, up to
+ * {@code maxTokens}, and a hedge takes one, so at most about {@code budgetRatio} of the calls are hedged
+ * after the initial burst.
+ * <p>
+ * A call that fails before its first value drops out of the race instead of ending it. A primary error
+ * before the deadline does not wait for it: the hedge is started right away if a token is left, and
+ * without one the lookup fails at once. The lookup fails with the primary's error (the alternate's, if
+ * any, suppressed) only when the hedge fails, completes empty or is denied a token as well. An alternate
+ * that completes empty is ignored; a primary that completes empty ends the lookup empty. Errors after a
+ * call emitted its first value are propagated as is.
+ */
+public final class HedgedLookup<T, R> implements Function<T, Flux<R>> {
+
+    public static final int WINDOW = 1024;
+    public static final double DEFAULT_PERCENTILE = 95;
+    public static final Duration DEFAULT_INITIAL_DELAY = Duration.ofMillis(10);
+    public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(1);
+    public static final double DEFAULT_BUDGET_RATIO = 0.1;
+    public static final int DEFAULT_MAX_TOKENS = 10;
+
+    private static final long TOKEN = 1000;
+
+    private final Function<? super T, ? extends Publisher<? extends R>> primary;
+    private final Function<? super T, ? extends Publisher<? extends R>> alternate;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long depositPerCall;
+    private final long maxBudget;
+    private final Scheduler scheduler;
+    private final LongSupplier nanoClock;
+    // tokens em milesimos, para aceitar budgetRatio fracionario sem double
+    private final AtomicLong budget;
+    private final AtomicLong windowCount = new AtomicLong();
+    private volatile LatencyHistogram window = new LatencyHistogram();
+    private volatile long deadlineNanos;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder hedgesDenied = new LongAdder();
+
+    public HedgedLookup(Function<? super T, ? extends Publisher<? extends R>> lookup) {
+        this(lookup, lookup, DEFAULT_PERCENTILE, DEFAULT_INITIAL_DELAY, DEFAULT_MIN_DELAY, DEFAULT_BUDGET_RATIO,
+                DEFAULT_MAX_TOKENS, Schedulers.parallel());
+    }
+
+    /**
+     * @param percentile  of the primary latency used as hedge deadline, between 0 and 100
+     * @param budgetRatio tokens added per call, i.e. the long-run fraction of calls that may be hedged
+     * @param maxTokens   tokens that can pile up, i.e. the burst of hedges allowed
+     * @param scheduler   runs the deadline timers; latencies are measured with {@code System.nanoTime()}
+     */
+    public HedgedLookup(Function<? super T, ? extends Publisher<? extends R>> primary,
+                        Function<? super T, ? extends Publisher<? extends R>> alternate,
+                        double percentile, Duration initialDelay, Duration minDelay,
+                        double budgetRatio, int maxTokens, Scheduler scheduler) {
+        // o now() padrao de um Scheduler tem resolucao de milissegundo
+        this(primary, alternate, percentile, initialDelay, minDelay, budgetRatio, maxTokens, scheduler,
+                System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock measures the latencies the deadline is computed from; it must run at the pace of
+     *                  {@code scheduler}, e.g. {@code () -> vts.now(NANOSECONDS)} with a
+     *                  {@code VirtualTimeScheduler}
+     */
+    public HedgedLookup(Function<? super T, ? extends Publisher<? extends R>> primary,
+                        Function<? super T, ? extends Publisher<? extends R>> alternate,
+                        double percentile, Duration initialDelay, Duration minDelay,
+                        double budgetRatio, int maxTokens, Scheduler scheduler, LongSupplier nanoClock) {
+        if (percentile <= 0 || percentile > 100 || budgetRatio < 0 || budgetRatio > 1 || maxTokens < 0) {
+            throw new IllegalArgumentException("Expected 0 < percentile <= 100, 0 <= budgetRatio <= 1 and"
+                    + " maxTokens >= 0, got " + percentile + ", " + budgetRatio + " and " + maxTokens);
+        }
+        this.primary = primary;
+        this.alternate = alternate;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.depositPerCall = (long) (budgetRatio * TOKEN);
+        this.maxBudget = maxTokens * TOKEN;
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+        this.budget = new AtomicLong(maxBudget);
+        this.deadlineNanos = Math.max(minDelayNanos, initialDelay.toNanos());
+    }
+
+    @Override
+    public Flux<R> apply(T key) {
+        return Flux.defer(() -> {
+            calls.increment();
+            deposit();
+            Call call = new Call(key);
+            Flux<R> first = Flux.<R>from(primary.apply(key))
+                    .doOnEach(signal -> call.primarySignalled(signal.isOnError()))
+                    .doOnCancel(() -> call.primarySignalled(false))
+                    .doOnNext(value -> call.primaryEmitted = true)
+                    .onErrorResume(call::primaryFailed);
+            Flux<R> hedge = Mono.delay(Duration.ofNanos(deadlineNanos), scheduler)
+                    .flatMapMany(tick -> call.hedge());
+            return Flux.firstWithSignal(first, hedge);
+        });
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    public long hedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * Deadlines that passed without a token to hedge with.
+     */
+    public long hedgesDenied() {
+        return hedgesDenied.sum();
+    }
+
+    public Duration deadline() {
+        return Duration.ofNanos(deadlineNanos);
+    }
+
+    private void deposit() {
+        if (depositPerCall > 0 && budget.get() < maxBudget) {
+            budget.getAndUpdate(b -> Math.min(maxBudget, b + depositPerCall));
+        }
+    }
+
+    private boolean tryTakeToken() {
+        for (;;) {
+            long b = budget.get();
+            if (b < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(b, b - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private void record(long nanos) {
+        window.record(nanos);
+        // so quem fecha a janela troca o histograma e recalcula o deadline
+        if (windowCount.incrementAndGet() % WINDOW == 0) {
+            LatencyHistogram full = window;
+            window = new LatencyHistogram();
+            deadlineNanos = Math.max(minDelayNanos, full.snapshot().percentile(percentile));
+        }
+    }
+
+    // firstWithSignal escolhe quem sinaliza primeiro: uma chamada que falha antes do primeiro valor vira
+    // never, e a segunda a falhar encerra com o erro do primario
+    private final class Call {
+        private final T key;
+        private final long start = nanoClock.getAsLong();
+        private final AtomicBoolean primaryDone = new AtomicBoolean();
+        // o hedge roda uma vez so: no deadline ou na hora em que o primario falha
+        private final AtomicBoolean hedgeStarted = new AtomicBoolean();
+        private final AtomicBoolean hedgeWon = new AtomicBoolean();
+        private final AtomicInteger failed = new AtomicInteger();
+        volatile boolean primaryEmitted;
+        private volatile Throwable primaryError;
+        private volatile Throwable hedgeError;
+
+        Call(T key) {
+            this.key = key;
+        }
+
+        // um erro nao entra na janela, so marca a chamada como medida
+        void primarySignalled(boolean failed) {
+            if (!primaryDone.get() && primaryDone.compareAndSet(false, true) && !failed) {
+                record(nanoClock.getAsLong() - start);
+            }
+        }
+
+        Flux<R> primaryFailed(Throwable e) {
+            if (primaryEmitted) {
+                return Flux.error(e);
+            }
+            primaryError = e;
+            // sem hedge rodando nao adianta esperar o deadline: tenta o token agora, e sem ele falha ja
+            if (hedgeStarted.compareAndSet(false, true)) {
+                failed.incrementAndGet();
+                return alternate();
+            }
+            return failed();
+        }
+
+        Flux<R> hedge() {
+            if (!hedgeStarted.compareAndSet(false, true)) {
+                // o primario ja falhou e o hedge roda no lugar dele
+                return Flux.never();
+            }
+            return alternate();
+        }
+
+        private Flux<R> alternate() {
+            if (!tryTakeToken()) {
+                hedgesDenied.increment();
+                return failed();
+            }
+            hedges.increment();
+            return Flux.<R>from(alternate.apply(key))
+                    .doOnNext(value -> {
+                        if (!hedgeWon.get() && hedgeWon.compareAndSet(false, true)) {
+                            hedgesWon.increment();
+                        }
+                    })
+                    // antes do primeiro valor o hedge nao ganhou nada: falha ou vazio espera o primario
+                    .onErrorResume(e -> {
+                        if (hedgeWon.get()) {
+                            return Flux.error(e);
+                        }
+                        hedgeError = e;
+                        return failed();
+                    })
+                    .switchIfEmpty(Flux.defer(this::failed));
+        }
+
+        private Flux<R> failed() {
+            if (failed.incrementAndGet() < 2) {
+                return Flux.never();
+            }
+            Throwable e = primaryError;
+            Throwable alternateError = hedgeError;
+            if (alternateError != null) {
+                e = Exceptions.addSuppressed(e, alternateError);
+            }
+            return Flux.error(e);
+        }
+    }
+}
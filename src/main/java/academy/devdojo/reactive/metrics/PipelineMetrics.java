@@ -0,0 +1,312 @@
+package academy.devdojo.reactive.metrics;
+
+import academy.devdojo.reactive.diagnostics.FusionInspector;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Per-stage counters and latency histograms for Reactor pipelines, without Micrometer:
+ * {@code flux.transform(metrics.instrument("findByName"))}.
+ * <p>
+ * Counters are {@link LongAdder}s and histograms are striped, so many threads can record into the
+ * same stage without contending. Snapshots are available from {@link #snapshot()} and, when a JMX
+ * domain is given, as one {@link StageMetricsMXBean} per stage.
+ */
+@Slf4j
+public final class PipelineMetrics {
+
+    private final Map<String, StageMetrics> stages = new ConcurrentHashMap<>();
+    private final String jmxDomain;
+    private final boolean recordLatency;
+
+    public PipelineMetrics() {
+        this(null, true);
+    }
+
+    public PipelineMetrics(String jmxDomain) {
+        this(jmxDomain, true);
+    }
+
+    /**
+     * @param recordLatency {@code false} keeps only the counters, skipping the two {@code nanoTime}
+     *                      calls per element that feed the histograms
+     */
+    public PipelineMetrics(String jmxDomain, boolean recordLatency) {
+        this.jmxDomain = jmxDomain;
+        this.recordLatency = recordLatency;
+    }
+
+    public <T> Function<Publisher<T>, Publisher<T>> instrument(String stage) {
+        StageMetrics metrics = stages.computeIfAbsent(stage, this::newStage);
+        Function<? super Publisher<T>, ? extends Publisher<T>> lift =
+                Operators.lift((scannable, actual) -> new MetricsSubscriber<>(actual, metrics, recordLatency));
+        return publisher -> lift.apply(FusionInspector.hideFusion(publisher));
+    }
+
+    public StageSnapshot snapshot(String stage) {
+        StageMetrics metrics = stages.get(stage);
+        if (metrics == null) {
+            throw new IllegalArgumentException("Unknown stage " + stage);
+        }
+        return metrics.snapshot();
+    }
+
+    public List<StageSnapshot> snapshot() {
+        return stages.values().stream().map(StageMetrics::snapshot).toList();
+    }
+
+    /**
+     * Removes the MXBeans registered by this instance.
+     */
+    public void unregister() {
+        if (jmxDomain == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (StageMetrics metrics : stages.values()) {
+            try {
+                server.unregisterMBean(objectName(metrics.name));
+            } catch (JMException e) {
+                log.debug("Could not unregister stage {}", metrics.name, e);
+            }
+        }
+    }
+
+    public ObjectName objectName(String stage) throws JMException {
+        return new ObjectName(jmxDomain + ":type=PipelineStage,name=" + ObjectName.quote(stage));
+    }
+
+    private StageMetrics newStage(String name) {
+        StageMetrics metrics = new StageMetrics(name);
+        if (jmxDomain != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName(name));
+            } catch (JMException e) {
+                log.warn("Could not register stage {} in JMX", name, e);
+            }
+        }
+        return metrics;
+    }
+
+    static final class StageMetrics implements StageMetricsMXBean {
+        final String name;
+        final LongAdder subscriptions = new LongAdder();
+        final LongAdder onNext = new LongAdder();
+        final LongAdder requested = new LongAdder();
+        final LongAdder cancellations = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder completions = new LongAdder();
+        final LongAdder inFlight = new LongAdder();
+        final LongAdder unboundedActive = new LongAdder();
+        final LatencyHistogram upstreamWait = new LatencyHistogram();
+        final LatencyHistogram downstreamTime = new LatencyHistogram();
+
+        StageMetrics(String name) {
+            this.name = name;
+        }
+
+        StageSnapshot snapshot() {
+            return new StageSnapshot(name, subscriptions.sum(), onNext.sum(), requested.sum(),
+                    cancellations.sum(), errors.sum(), completions.sum(), getInFlightDemand(),
+                    upstreamWait.snapshot(), downstreamTime.snapshot());
+        }
+
+        @Override
+        public long getSubscriptions() {
+            return subscriptions.sum();
+        }
+
+        @Override
+        public long getOnNext() {
+            return onNext.sum();
+        }
+
+        @Override
+        public long getRequested() {
+            return requested.sum();
+        }
+
+        @Override
+        public long getCancellations() {
+            return cancellations.sum();
+        }
+
+        @Override
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getCompletions() {
+            return completions.sum();
+        }
+
+        @Override
+        public long getInFlightDemand() {
+            return unboundedActive.sum() > 0 ? Long.MAX_VALUE : inFlight.sum();
+        }
+
+        @Override
+        public long getUpstreamWaitP50Nanos() {
+            return upstreamWait.snapshot().percentile(50);
+        }
+
+        @Override
+        public long getUpstreamWaitP99Nanos() {
+            return upstreamWait.snapshot().percentile(99);
+        }
+
+        @Override
+        public long getUpstreamWaitMaxNanos() {
+            return upstreamWait.snapshot().max();
+        }
+
+        @Override
+        public long getDownstreamTimeP50Nanos() {
+            return downstreamTime.snapshot().percentile(50);
+        }
+
+        @Override
+        public long getDownstreamTimeP99Nanos() {
+            return downstreamTime.snapshot().percentile(99);
+        }
+    }
+
+    static final class MetricsSubscriber<T> implements CoreSubscriber<T>, Subscription, Scannable {
+        private final CoreSubscriber<? super T> actual;
+        private final StageMetrics metrics;
+        private final boolean recordLatency;
+        private final AtomicLong outstanding = new AtomicLong();
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        private Subscription upstream;
+        private volatile boolean unbounded;
+        private volatile long waitStart;
+
+        MetricsSubscriber(CoreSubscriber<? super T> actual, StageMetrics metrics, boolean recordLatency) {
+            this.actual = actual;
+            this.metrics = metrics;
+            this.recordLatency = recordLatency;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                metrics.subscriptions.increment();
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            metrics.onNext.increment();
+            if (!unbounded && !terminated.get()) {
+                outstanding.decrementAndGet();
+                metrics.inFlight.decrement();
+            }
+            if (!recordLatency) {
+                actual.onNext(t);
+                return;
+            }
+
+            long now = System.nanoTime();
+            metrics.upstreamWait.record(now - waitStart);
+            actual.onNext(t);
+
+            long after = System.nanoTime();
+            metrics.downstreamTime.record(after - now);
+            if (unbounded || outstanding.get() > 0) {
+                waitStart = after;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            metrics.errors.increment();
+            release();
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            metrics.completions.increment();
+            release();
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n == Long.MAX_VALUE) {
+                if (!unbounded) {
+                    unbounded = true;
+                    metrics.unboundedActive.increment();
+                    metrics.inFlight.add(-outstanding.getAndSet(0));
+                    waitStart = System.nanoTime();
+                }
+            } else if (!unbounded && n > 0) {
+                metrics.requested.add(n);
+                metrics.inFlight.add(n);
+                if (outstanding.getAndAdd(n) <= 0) {
+                    waitStart = System.nanoTime();
+                }
+            }
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            metrics.cancellations.increment();
+            release();
+            upstream.cancel();
+        }
+
+        private void release() {
+            if (terminated.compareAndSet(false, true)) {
+                if (unbounded) {
+                    metrics.unboundedActive.decrement();
+                } else {
+                    metrics.inFlight.add(-outstanding.getAndSet(0));
+                }
+            }
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return upstream;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+                return unbounded ? Long.MAX_VALUE : outstanding.get();
+            }
+            if (key == Attr.RUN_STYLE) {
+                return Attr.RunStyle.SYNC;
+            }
+            return null;
+        }
+    }
+}
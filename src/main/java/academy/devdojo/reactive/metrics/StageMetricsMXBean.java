@@ -0,0 +1,32 @@
+package academy.devdojo.reactive.metrics;
+
+/**
+ * JMX view of an instrumented stage, registered as
+ * {@code <domain>:type=PipelineStage,name=<stage>}.
+ */
+public interface StageMetricsMXBean {
+
+    long getSubscriptions();
+
+    long getOnNext();
+
+    long getRequested();
+
+    long getCancellations();
+
+    long getErrors();
+
+    long getCompletions();
+
+    long getInFlightDemand();
+
+    long getUpstreamWaitP50Nanos();
+
+    long getUpstreamWaitP99Nanos();
+
+    long getUpstreamWaitMaxNanos();
+
+    long getDownstreamTimeP50Nanos();
+
+    long getDownstreamTimeP99Nanos();
+}
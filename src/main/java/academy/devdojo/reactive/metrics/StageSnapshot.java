@@ -0,0 +1,33 @@
+package academy.devdojo.reactive.metrics;
+
+/**
+ * Point-in-time view of one instrumented stage.
+ *
+ * @param requested      sum of bounded {@code request(n)} calls
+ * @param inFlightDemand requested but not yet delivered, {@link Long#MAX_VALUE} while an unbounded
+ *                       subscriber is active
+ * @param upstreamWait   per element, time from when demand was outstanding (or the previous element was
+ *                       handed on) until the element arrived: how long this point waited on upstream
+ * @param downstreamTime per element, time spent in the downstream {@code onNext} call
+ */
+public record StageSnapshot(String name,
+                            long subscriptions,
+                            long onNext,
+                            long requested,
+                            long cancellations,
+                            long errors,
+                            long completions,
+                            long inFlightDemand,
+                            LatencyHistogram.Snapshot upstreamWait,
+                            LatencyHistogram.Snapshot downstreamTime) {
+
+    @Override
+    public String toString() {
+        return String.format("%s: subscriptions=%d onNext=%d requested=%d cancel=%d error=%d complete=%d inFlight=%s"
+                        + " upstreamWait p50=%dns p99=%dns max=%dns downstream p50=%dns p99=%dns",
+                name, subscriptions, onNext, requested, cancellations, errors, completions,
+                inFlightDemand == Long.MAX_VALUE ? "unbounded" : inFlightDemand,
+                upstreamWait.percentile(50), upstreamWait.percentile(99), upstreamWait.max(),
+                downstreamTime.percentile(50), downstreamTime.percentile(99));
+    }
+}
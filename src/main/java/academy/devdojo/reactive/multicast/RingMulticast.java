@@ -0,0 +1,362 @@
+package academy.devdojo.reactive.multicast;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * {@link ConnectableFlux} that multicasts its source through a fixed-size ring buffer, Disruptor style,
+ * instead of the shared queue of {@code publish()}: the source is requested unbounded and writes each
+ * element once, and every subscriber reads with its own cursor at its own pace.
+ * <p>
+ * A subscriber that falls {@code capacity} elements behind the writer is a laggard and is handled by
+ * the {@link LaggardPolicy}, so one slow consumer never stalls the others. Late subscribers start up to
+ * {@code replay} elements back, and still get them after the source has completed. Replayed elements
+ * overwritten before the subscriber reads them are skipped; only elements written after it subscribed
+ * count towards lagging.
+ * <p>
+ * Subscribers are drained on the thread that delivers the source elements (or on the one calling
+ * {@code request}), so subscribers doing heavy work should hop with {@code publishOn}.
+ */
+public final class RingMulticast<T> extends ConnectableFlux<T> {
+
+    public enum LaggardPolicy {
+        /**
+         * Skips the overwritten elements and continues from the oldest one still in the ring.
+         */
+        DROP,
+        /**
+         * Cancels the laggard with an {@link Exceptions#failWithOverflow overflow} error.
+         */
+        DISCONNECT,
+        /**
+         * The writer copies elements about to be overwritten into a private, unbounded heap queue of
+         * the laggard, so it loses nothing at the cost of memory.
+         */
+        SPILL
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final RingSubscription[] EMPTY = new RingSubscription[0];
+
+    private final Publisher<? extends T> source;
+    private final int capacity;
+    private final int mask;
+    private final int replay;
+    private final LaggardPolicy policy;
+    private final AtomicReferenceArray<Object> ring;
+    // claimed: slot sendo escrito; published: ultimo visivel para os leitores
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong published = new AtomicLong(-1);
+    @SuppressWarnings("unchecked")
+    private final AtomicReference<RingSubscription<T>[]> subscribers = new AtomicReference<>(EMPTY);
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    private final Writer writer = new Writer();
+
+    private volatile boolean done;
+    private Throwable error;
+
+    /**
+     * @param capacity rounded up to a power of two
+     * @param replay   elements already written that a new subscriber receives, at most {@code capacity}
+     */
+    public RingMulticast(Publisher<? extends T> source, int capacity, int replay, LaggardPolicy policy) {
+        if (capacity < 1 || replay < 0 || replay > capacity) {
+            throw new IllegalArgumentException("Expected capacity >= 1 and 0 <= replay <= capacity, got "
+                    + capacity + " and " + replay);
+        }
+        this.source = source;
+        this.capacity = 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+        this.mask = this.capacity - 1;
+        this.replay = replay;
+        this.policy = policy;
+        this.ring = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    @Override
+    public void connect(Consumer<? super Disposable> cancelSupport) {
+        if (connected.compareAndSet(false, true)) {
+            source.subscribe(writer);
+        }
+        cancelSupport.accept(writer);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        // registra antes de ler published: o writer ja ve o assinante quando o inicio e calculado, e
+        // o wip comeca em 1 para nada ser entregue antes do onSubscribe
+        RingSubscription<T> subscription = new RingSubscription<>(this, actual);
+        add(subscription);
+        long current = published.get();
+        subscription.registered = current;
+        subscription.next = Math.max(0, current - replay + 1);
+        actual.onSubscribe(subscription);
+        subscription.drainLoop();
+    }
+
+    /**
+     * Elements skipped by laggards, over all subscribers.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public int subscriberCount() {
+        return subscribers.get().length;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private void add(RingSubscription<T> subscription) {
+        for (;;) {
+            RingSubscription<T>[] current = subscribers.get();
+            @SuppressWarnings("unchecked")
+            RingSubscription<T>[] next = new RingSubscription[current.length + 1];
+            System.arraycopy(current, 0, next, 0, current.length);
+            next[current.length] = subscription;
+            if (subscribers.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void remove(RingSubscription<T> subscription) {
+        for (;;) {
+            RingSubscription<T>[] current = subscribers.get();
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subscription) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            RingSubscription<T>[] next = current.length == 1 ? EMPTY : new RingSubscription[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            if (subscribers.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    private final class Writer implements CoreSubscriber<T>, Disposable {
+        private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+        private long sequence = -1;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (upstream.compareAndSet(null, s)) {
+                s.request(Long.MAX_VALUE);
+            } else {
+                s.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            long seq = ++sequence;
+            int index = (int) seq & mask;
+            RingSubscription<T>[] current = subscribers.get();
+            if (policy == LaggardPolicy.SPILL && seq >= capacity) {
+                spill(current, seq - capacity, ring.get(index));
+            }
+            claimed.set(seq);
+            ring.set(index, t);
+            published.set(seq);
+            for (RingSubscription<T> subscription : current) {
+                subscription.drain();
+            }
+        }
+
+        // antes de sobrescrever: quem ainda nao entregou o elemento recebe uma copia
+        private void spill(RingSubscription<T>[] current, long overwritten, Object value) {
+            for (RingSubscription<T> subscription : current) {
+                if (subscription.next <= overwritten) {
+                    subscription.spilled.offer(new Spilled(overwritten, value));
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, Context.empty());
+                return;
+            }
+            error = t;
+            terminate();
+        }
+
+        @Override
+        public void onComplete() {
+            terminate();
+        }
+
+        private void terminate() {
+            done = true;
+            for (RingSubscription<T> subscription : subscribers.get()) {
+                subscription.drain();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            Subscription s = upstream.getAndSet(Operators.cancelledSubscription());
+            if (s != null) {
+                s.cancel();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return upstream.get() == Operators.cancelledSubscription();
+        }
+    }
+
+    private record Spilled(long sequence, Object value) {
+    }
+
+    static final class RingSubscription<T> implements Subscription {
+        private final RingMulticast<T> parent;
+        private final CoreSubscriber<? super T> actual;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger(1);
+        final Queue<Spilled> spilled = new ConcurrentLinkedQueue<>();
+        // proxima sequencia a entregar; so o leitor escreve, o writer le para decidir o spill
+        volatile long next = Long.MAX_VALUE;
+        private volatile boolean cancelled;
+        // ultimo elemento publicado quando o assinante foi registrado; o que vem antes e replay
+        long registered;
+
+        RingSubscription(RingMulticast<T> parent, CoreSubscriber<? super T> actual) {
+            this.parent = parent;
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                parent.remove(this);
+                spilled.clear();
+            }
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void drainLoop() {
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                long e = 0;
+                long n = next;
+                while (e != r) {
+                    if (cancelled) {
+                        return;
+                    }
+                    if (n > parent.published.get()) {
+                        break;
+                    }
+                    Object value = parent.ring.get((int) n & parent.mask);
+                    long oldest = parent.claimed.get() - parent.capacity + 1;
+                    if (n < oldest) {
+                        if (n <= registered) {
+                            // replay sobrescrito antes de ser lido: nao conta como atraso
+                            n = Math.min(oldest, registered + 1);
+                            next = n;
+                            continue;
+                        }
+                        if (parent.policy == LaggardPolicy.DISCONNECT) {
+                            cancel();
+                            actual.onError(Exceptions.failWithOverflow("Subscriber lagged "
+                                    + (parent.published.get() - n + 1) + " elements behind a ring of "
+                                    + parent.capacity));
+                            return;
+                        }
+                        value = parent.policy == LaggardPolicy.SPILL ? pollSpilled(n) : null;
+                        // DROP, ou um assinante que chegou enquanto o writer sobrescrevia o replay
+                        if (value == null) {
+                            parent.dropped.add(oldest - n);
+                            n = oldest;
+                            next = n;
+                            continue;
+                        }
+                    }
+                    actual.onNext((T) value);
+                    next = ++n;
+                    e++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (parent.done && n > parent.published.get()) {
+                    cancelled = true;
+                    parent.remove(this);
+                    Throwable error = parent.error;
+                    if (error != null) {
+                        actual.onError(error);
+                    } else {
+                        actual.onComplete();
+                    }
+                    return;
+                }
+                if (e != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        // o writer copia o elemento antes de publicar a sobrescrita; copias velhas sao descartadas
+        private Object pollSpilled(long sequence) {
+            for (Spilled head = spilled.peek(); head != null; head = spilled.peek()) {
+                if (head.sequence() > sequence) {
+                    return null;
+                }
+                spilled.poll();
+                if (head.sequence() == sequence) {
+                    return head.value();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package academy.devdojo.reactive.primitive;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Lazy {@code int} pipeline that runs map/filter/reduce without boxing.
+ * <p>
+ * Stages are fused into one pull loop per subscription. Values are only boxed when leaving through
+ * {@link #boxed()}; {@link #window(int)} hands out one {@code int[]} per window instead, and
+ * {@link #reduce(int, IntBinaryOperator)} boxes the single result. Both bridges honour downstream demand.
+ */
+public final class IntFlux {
+
+    private final Supplier<Cursor> cursors;
+
+    private IntFlux(Supplier<Cursor> cursors) {
+        this.cursors = cursors;
+    }
+
+    public static IntFlux range(int start, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        if (count > 0 && start > Integer.MAX_VALUE - count + 1) {
+            throw new IllegalArgumentException("range overflows int: start " + start + ", count " + count);
+        }
+        long end = (long) start + count;
+        return new IntFlux(() -> new Cursor() {
+            long next = start;
+
+            @Override
+            boolean advance() {
+                if (next < end) {
+                    value = (int) next++;
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public static IntFlux just(int... values) {
+        int[] copy = values.clone();
+        return new IntFlux(() -> new Cursor() {
+            int index;
+
+            @Override
+            boolean advance() {
+                if (index < copy.length) {
+                    value = copy[index++];
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public IntFlux map(IntUnaryOperator mapper) {
+        Supplier<Cursor> upstream = cursors;
+        return new IntFlux(() -> new Cursor() {
+            final Cursor source = upstream.get();
+
+            @Override
+            boolean advance() {
+                if (source.advance()) {
+                    value = mapper.applyAsInt(source.value);
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public IntFlux filter(IntPredicate predicate) {
+        Supplier<Cursor> upstream = cursors;
+        return new IntFlux(() -> new Cursor() {
+            final Cursor source = upstream.get();
+
+            @Override
+            boolean advance() {
+                while (source.advance()) {
+                    if (predicate.test(source.value)) {
+                        value = source.value;
+                        return true;
+                    }
+                }
+                return false;
+            }
+        });
+    }
+
+    public LongFlux mapToLong(IntToLongFunction mapper) {
+        Supplier<Cursor> upstream = cursors;
+        return LongFlux.fromCursor(() -> new LongFlux.Cursor() {
+            final Cursor source = upstream.get();
+
+            @Override
+            boolean advance() {
+                if (source.advance()) {
+                    value = mapper.applyAsLong(source.value);
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public Mono<Integer> reduce(int identity, IntBinaryOperator accumulator) {
+        return Mono.fromCallable(() -> {
+            Cursor cursor = cursors.get();
+            int result = identity;
+            while (cursor.advance()) {
+                result = accumulator.applyAsInt(result, cursor.value);
+            }
+            return result;
+        });
+    }
+
+    public Mono<Long> count() {
+        return Mono.fromCallable(() -> {
+            Cursor cursor = cursors.get();
+            long count = 0;
+            while (cursor.advance()) {
+                count++;
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Emits consecutive windows of {@code size} values; the last one may be shorter.
+     */
+    public Flux<int[]> window(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size > 0 required but it was " + size);
+        }
+        return Flux.generate(this::lookahead, (cursor, sink) -> {
+            int[] window = new int[size];
+            int length = 0;
+            while (length < size && cursor.ready) {
+                window[length++] = cursor.value;
+                cursor.ready = cursor.advance();
+            }
+            if (length > 0) {
+                sink.next(length == size ? window : Arrays.copyOf(window, length));
+            }
+            if (!cursor.ready) {
+                sink.complete();
+            }
+            return cursor;
+        });
+    }
+
+    public Flux<Integer> boxed() {
+        return Flux.generate(this::lookahead, (cursor, sink) -> {
+            if (cursor.ready) {
+                int value = cursor.value;
+                cursor.ready = cursor.advance();
+                sink.next(value);
+            }
+            if (!cursor.ready) {
+                sink.complete();
+            }
+            return cursor;
+        });
+    }
+
+    // le um valor adiantado para completar junto com o ultimo onNext, sem esperar outro request
+    private Cursor lookahead() {
+        Cursor cursor = cursors.get();
+        cursor.ready = cursor.advance();
+        return cursor;
+    }
+
+    abstract static class Cursor {
+        int value;
+        boolean ready;
+
+        abstract boolean advance();
+    }
+}
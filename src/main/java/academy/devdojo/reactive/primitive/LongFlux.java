@@ -0,0 +1,248 @@
+package academy.devdojo.reactive.primitive;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * {@code long} counterpart of {@link IntFlux}, for counters and sequence ids.
+ */
+public final class LongFlux {
+
+    private final Supplier<Cursor> cursors;
+
+    private LongFlux(Supplier<Cursor> cursors) {
+        this.cursors = cursors;
+    }
+
+    static LongFlux fromCursor(Supplier<Cursor> cursors) {
+        return new LongFlux(cursors);
+    }
+
+    public static LongFlux range(long start, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        if (count > 0 && start > Long.MAX_VALUE - count + 1) {
+            throw new IllegalArgumentException("range overflows long: start " + start + ", count " + count);
+        }
+        return new LongFlux(() -> new Cursor() {
+            long next = start;
+            // conta o que falta: start + count pode nao caber num long mesmo com o ultimo valor valido
+            long remaining = count;
+
+            @Override
+            boolean advance() {
+                if (remaining > 0) {
+                    remaining--;
+                    value = next++;
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public static Flux<long[]> interval(Duration period, int size) {
+        return interval(period, size, Schedulers.parallel());
+    }
+
+    /**
+     * Ticks {@code 0, 1, 2...} every {@code period}, handed out as {@code long[]} windows of at most
+     * {@code size} ticks instead of one boxed {@code Long} each. A window goes out as soon as there is
+     * demand for it; ticks that pass without demand are only counted and come out together in the next
+     * windows, where {@code Flux.interval} would fail with an overflow.
+     */
+    public static Flux<long[]> interval(Duration period, int size, Scheduler scheduler) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size > 0 required but it was " + size);
+        }
+        long periodNanos = period.toNanos();
+        return Flux.create(sink -> {
+            Ticks ticks = new Ticks(sink, size);
+            sink.onRequest(n -> ticks.drain());
+            Disposable task = scheduler.schedulePeriodically(ticks::tick, periodNanos, periodNanos,
+                    TimeUnit.NANOSECONDS);
+            sink.onDispose(task);
+        });
+    }
+
+    public static LongFlux just(long... values) {
+        long[] copy = values.clone();
+        return new LongFlux(() -> new Cursor() {
+            int index;
+
+            @Override
+            boolean advance() {
+                if (index < copy.length) {
+                    value = copy[index++];
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public LongFlux map(LongUnaryOperator mapper) {
+        Supplier<Cursor> upstream = cursors;
+        return new LongFlux(() -> new Cursor() {
+            final Cursor source = upstream.get();
+
+            @Override
+            boolean advance() {
+                if (source.advance()) {
+                    value = mapper.applyAsLong(source.value);
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public LongFlux filter(LongPredicate predicate) {
+        Supplier<Cursor> upstream = cursors;
+        return new LongFlux(() -> new Cursor() {
+            final Cursor source = upstream.get();
+
+            @Override
+            boolean advance() {
+                while (source.advance()) {
+                    if (predicate.test(source.value)) {
+                        value = source.value;
+                        return true;
+                    }
+                }
+                return false;
+            }
+        });
+    }
+
+    public Mono<Long> reduce(long identity, LongBinaryOperator accumulator) {
+        return Mono.fromCallable(() -> {
+            Cursor cursor = cursors.get();
+            long result = identity;
+            while (cursor.advance()) {
+                result = accumulator.applyAsLong(result, cursor.value);
+            }
+            return result;
+        });
+    }
+
+    public Mono<Long> count() {
+        return Mono.fromCallable(() -> {
+            Cursor cursor = cursors.get();
+            long count = 0;
+            while (cursor.advance()) {
+                count++;
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Emits consecutive windows of {@code size} values; the last one may be shorter.
+     */
+    public Flux<long[]> window(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size > 0 required but it was " + size);
+        }
+        return Flux.generate(this::lookahead, (cursor, sink) -> {
+            long[] window = new long[size];
+            int length = 0;
+            while (length < size && cursor.ready) {
+                window[length++] = cursor.value;
+                cursor.ready = cursor.advance();
+            }
+            if (length > 0) {
+                sink.next(length == size ? window : Arrays.copyOf(window, length));
+            }
+            if (!cursor.ready) {
+                sink.complete();
+            }
+            return cursor;
+        });
+    }
+
+    public Flux<Long> boxed() {
+        return Flux.generate(this::lookahead, (cursor, sink) -> {
+            if (cursor.ready) {
+                long value = cursor.value;
+                cursor.ready = cursor.advance();
+                sink.next(value);
+            }
+            if (!cursor.ready) {
+                sink.complete();
+            }
+            return cursor;
+        });
+    }
+
+    // le um valor adiantado para completar junto com o ultimo onNext, sem esperar outro request
+    private Cursor lookahead() {
+        Cursor cursor = cursors.get();
+        cursor.ready = cursor.advance();
+        return cursor;
+    }
+
+    private static final class Ticks {
+        private final FluxSink<long[]> sink;
+        private final int size;
+        private final AtomicLong ticks = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        // proximo tick a entregar; so o dreno mexe
+        private long next;
+
+        Ticks(FluxSink<long[]> sink, int size) {
+            this.sink = sink;
+            this.size = size;
+        }
+
+        void tick() {
+            ticks.incrementAndGet();
+            drain();
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                long available = ticks.get() - next;
+                while (available > 0 && sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    long[] window = new long[(int) Math.min(size, available)];
+                    for (int i = 0; i < window.length; i++) {
+                        window[i] = next + i;
+                    }
+                    next += window.length;
+                    available -= window.length;
+                    sink.next(window);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    abstract static class Cursor {
+        long value;
+        boolean ready;
+
+        abstract boolean advance();
+    }
+}
@@ -0,0 +1,203 @@
+package academy.devdojo.reactive.ratelimit;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the rate of a stream with a shared {@link RateLimiter}:
+ * {@code names.transform(new RateLimited<>(limiter)).flatMap(this::findByName)}.
+ * <p>
+ * Instead of pacing with {@code delayElements}, which adds a fixed delay and a timer to every element
+ * whatever the actual rate, elements pass through untouched as long as the limiter has permits. The
+ * operator only requests from upstream what downstream asked for and the limiter granted, so the rate
+ * is enforced by backpressure and nothing is buffered. When the limiter runs dry a single timer is set
+ * for when the next permit frees up. A permit is spent when its element is requested, so a source
+ * that completes early wastes the permits it was granted.
+ */
+public final class RateLimited<T> implements Function<Flux<T>, Publisher<T>> {
+
+    private final RateLimiter limiter;
+    private final Scheduler timer;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Waits for permits on {@code Schedulers.parallel()}.
+     */
+    public RateLimited(RateLimiter limiter) {
+        this(limiter, Schedulers.parallel());
+    }
+
+    /**
+     * Reads the limiter's clock from {@code System.nanoTime()}.
+     */
+    public RateLimited(RateLimiter limiter, Scheduler timer) {
+        // o now() padrao de um Scheduler tem resolucao de milissegundo
+        this(limiter, timer, System::nanoTime);
+    }
+
+    /**
+     * @param timer     sets the retry timers
+     * @param nanoClock time in nanoseconds handed to the limiter, e.g. {@code () -> vts.now(NANOSECONDS)}
+     *                  to drive it with a {@code VirtualTimeScheduler}
+     */
+    public RateLimited(RateLimiter limiter, Scheduler timer, LongSupplier nanoClock) {
+        this.limiter = limiter;
+        this.timer = timer;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Publisher<T> apply(Flux<T> flux) {
+        return Flux.from(actual -> flux.subscribe(new RateLimitedSubscriber(Operators.toCoreSubscriber(actual))));
+    }
+
+    private final class RateLimitedSubscriber implements CoreSubscriber<T>, Subscription, Runnable {
+        private final CoreSubscriber<? super T> actual;
+        private final AtomicLong requested = new AtomicLong();
+        // pedidos ao upstream ainda sem onNext
+        private final AtomicLong outstanding = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private Subscription upstream;
+        private volatile Disposable retry;
+        private volatile boolean waiting;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+
+        RateLimitedSubscriber(CoreSubscriber<? super T> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, currentContext());
+                return;
+            }
+            // demanda antes do outstanding, para requested - outstanding nunca passar do que foi pedido
+            if (requested.get() != Long.MAX_VALUE) {
+                requested.decrementAndGet();
+            }
+            outstanding.decrementAndGet();
+            actual.onNext(t);
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, currentContext());
+                return;
+            }
+            done = true;
+            disposeRetry();
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            disposeRetry();
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                disposeRetry();
+                upstream.cancel();
+            }
+        }
+
+        // o timer de espera por permissao
+        @Override
+        public void run() {
+            waiting = false;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                if (cancelled || done) {
+                    return;
+                }
+                long inFlight = outstanding.get();
+                // no maximo um burst pedido sem chegar, para um upstream lento nao gastar permissoes a toa
+                long wanted = Math.min(requested.get() - inFlight, limiter.burst() - inFlight);
+                if (wanted > 0 && !waiting) {
+                    long now = nanoClock.getAsLong();
+                    long granted = limiter.tryAcquire(wanted, now);
+                    if (granted > 0) {
+                        outstanding.addAndGet(granted);
+                        upstream.request(granted);
+                        continue;
+                    }
+                    waitForPermit(Math.max(1, limiter.nanosUntilAvailable(now)));
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void waitForPermit(long nanos) {
+            waiting = true;
+            try {
+                retry = timer.schedule(this, nanos, TimeUnit.NANOSECONDS);
+            } catch (Throwable e) {
+                waiting = false;
+                upstream.cancel();
+                onError(Operators.onRejectedExecution(e, currentContext()));
+            }
+        }
+
+        private void disposeRetry() {
+            Disposable d = retry;
+            if (d != null) {
+                d.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package academy.devdojo.reactive.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free GCRA (generic cell rate algorithm) limiter: {@code permits} every {@code period}, with up to
+ * {@code burst} of them available at once after an idle stretch. The whole state is one theoretical
+ * arrival time advanced with CAS, so one instance can be shared by any number of threads and
+ * {@link RateLimited} streams to cap their combined rate.
+ * <p>
+ * Time is passed in by the caller, in nanoseconds of one consistent clock: {@code System.nanoTime()}
+ * or {@code Scheduler.now(NANOSECONDS)}, which lets virtual time drive it in tests.
+ */
+public final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burst;
+    private final long toleranceNanos;
+    // instante em que a proxima permissao fica livre sem usar o burst
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder granted = new LongAdder();
+
+    public RateLimiter(long permits, Duration period) {
+        this(permits, period, 1);
+    }
+
+    /**
+     * @param burst permits that can be taken back to back after an idle stretch
+     */
+    public RateLimiter(long permits, Duration period, long burst) {
+        if (permits < 1 || burst < 1 || period.toNanos() < permits) {
+            throw new IllegalArgumentException("Expected permits >= 1, burst >= 1 and at most one permit per"
+                    + " nanosecond, got " + permits + " per " + period + " and burst " + burst);
+        }
+        this.intervalNanos = period.toNanos() / permits;
+        this.burst = burst;
+        this.toleranceNanos = Math.multiplyExact(burst, intervalNanos);
+    }
+
+    /**
+     * Takes up to {@code permits} permits at {@code nowNanos}.
+     *
+     * @return the permits granted, from 0 to {@code permits}
+     */
+    public long tryAcquire(long permits, long nowNanos) {
+        for (;;) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, nowNanos);
+            long available = (toleranceNanos - (base - nowNanos)) / intervalNanos;
+            long grant = Math.min(permits, available);
+            if (grant <= 0) {
+                return 0;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + grant * intervalNanos)) {
+                granted.add(grant);
+                return grant;
+            }
+        }
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1, System.nanoTime()) == 1;
+    }
+
+    /**
+     * Nanoseconds from {@code nowNanos} until a permit is available, 0 if one is available now.
+     */
+    public long nanosUntilAvailable(long nowNanos) {
+        long base = Math.max(theoreticalArrival.get(), nowNanos);
+        return Math.max(0, base - nowNanos - (toleranceNanos - intervalNanos));
+    }
+
+    public long intervalNanos() {
+        return intervalNanos;
+    }
+
+    public long burst() {
+        return burst;
+    }
+
+    /**
+     * Permits granted so far, to every caller.
+     */
+    public long granted() {
+        return granted.sum();
+    }
+}
@@ -0,0 +1,105 @@
+package academy.devdojo.reactive.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Schedulers for wrapping blocking calls, as in {@code Mono.fromCallable(...).subscribeOn(...)}.
+ * <p>
+ * {@link #io()} picks the implementation from the {@value #PROPERTY} system property:
+ * {@code boundedElastic} (default) or {@code virtual}. The virtual-thread scheduler starts one
+ * virtual thread per task, so it has no thread cap, and needs a Java 21 runtime.
+ */
+@Slf4j
+public final class IoSchedulers {
+
+    public static final String PROPERTY = "reactive.io.scheduler";
+
+    public enum Kind {
+        BOUNDED_ELASTIC, VIRTUAL;
+
+        public static Kind of(String name) {
+            return switch (name) {
+                case "boundedElastic" -> BOUNDED_ELASTIC;
+                case "virtual" -> VIRTUAL;
+                default -> throw new IllegalArgumentException("Unknown io scheduler " + name);
+            };
+        }
+    }
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutorFactory();
+
+    private static volatile Scheduler virtualThreads;
+
+    private IoSchedulers() {
+    }
+
+    public static Scheduler io() {
+        Kind kind = Kind.of(System.getProperty(PROPERTY, "boundedElastic"));
+        if (kind == Kind.VIRTUAL && !virtualThreadsSupported()) {
+            log.warn("{}=virtual needs Java 21, falling back to boundedElastic", PROPERTY);
+            return Schedulers.boundedElastic();
+        }
+        return io(kind);
+    }
+
+    public static Scheduler io(Kind kind) {
+        return kind == Kind.VIRTUAL ? virtualThreads() : Schedulers.boundedElastic();
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Shared scheduler backed by {@code Executors.newVirtualThreadPerTaskExecutor()}.
+     *
+     * @throws UnsupportedOperationException when the runtime has no virtual threads
+     */
+    public static Scheduler virtualThreads() {
+        Scheduler scheduler = virtualThreads;
+        if (scheduler == null) {
+            synchronized (IoSchedulers.class) {
+                scheduler = virtualThreads;
+                if (scheduler == null) {
+                    scheduler = Schedulers.fromExecutorService(newVirtualThreadExecutor(), "virtualThreads");
+                    virtualThreads = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * New, unshared virtual-thread scheduler; the caller disposes it.
+     */
+    public static Scheduler newVirtualThreads(String name) {
+        return Schedulers.fromExecutorService(newVirtualThreadExecutor(), name);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (!virtualThreadsSupported()) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21, running on "
+                    + Runtime.version());
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+
+    // compilado com release 17, por isso o metodo do Java 21 e resolvido por reflexao
+    private static Method findVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
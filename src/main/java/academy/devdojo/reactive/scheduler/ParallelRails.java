@@ -0,0 +1,92 @@
+package academy.devdojo.reactive.scheduler;
+
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Runs a CPU-bound {@code map} stage on parallel rails instead of on the single thread that
+ * {@code publishOn} gives it: {@code flux.transform(rails.unordered(this::expensive))}.
+ * <p>
+ * Elements are dealt round-robin to {@code rails} rails, each rail runs on its own worker of the
+ * scheduler, and the results are merged back into one {@link Flux}. The default is one rail per core on
+ * {@link Schedulers#parallel()}.
+ */
+public final class ParallelRails {
+
+    private final int rails;
+    private final Scheduler scheduler;
+    private final int prefetch;
+
+    public ParallelRails() {
+        this(Schedulers.DEFAULT_POOL_SIZE, Schedulers.parallel(), Queues.SMALL_BUFFER_SIZE);
+    }
+
+    /**
+     * @param prefetch elements queued ahead per rail, both when splitting and when hopping to the rail's
+     *                 worker
+     */
+    public ParallelRails(int rails, Scheduler scheduler, int prefetch) {
+        if (rails < 1 || prefetch < 1) {
+            throw new IllegalArgumentException("rails and prefetch must be positive, got " + rails + " and " + prefetch);
+        }
+        this.rails = rails;
+        this.scheduler = scheduler;
+        this.prefetch = prefetch;
+    }
+
+    public int rails() {
+        return rails;
+    }
+
+    /**
+     * Results come out as soon as any rail produces them.
+     */
+    public <T, R> Function<Flux<T>, Publisher<R>> unordered(Function<? super T, ? extends R> mapper) {
+        return flux -> flux.parallel(rails, prefetch)
+                .runOn(scheduler, prefetch)
+                .<R>map(mapper)
+                .sequential();
+    }
+
+    /**
+     * Results come out in upstream order. Each element carries its index through the rails and the rails
+     * are merged by it, so a slow element holds back the ones after it on the other rails. A mapper error
+     * is signalled in order too, after the results of the elements before it.
+     */
+    public <T, R> Function<Flux<T>, Publisher<R>> ordered(Function<? super T, ? extends R> mapper) {
+        return flux -> flux.index((index, value) -> new Indexed<T>(index, value, null))
+                .parallel(rails, prefetch)
+                .runOn(scheduler, prefetch)
+                .map(indexed -> indexed.map(mapper))
+                .ordered(Comparator.comparingLong(Indexed::index), prefetch)
+                .handle((indexed, sink) -> {
+                    if (indexed.error() != null) {
+                        sink.error(indexed.error());
+                    } else {
+                        sink.next(indexed.value());
+                    }
+                });
+    }
+
+    private record Indexed<T>(long index, T value, Throwable error) {
+
+        // o merge ordenado do ParallelFlux trava se um rail falha, entao o erro viaja como valor
+        <R> Indexed<R> map(Function<? super T, ? extends R> mapper) {
+            try {
+                R result = Objects.requireNonNull(mapper.apply(value), "The mapper returned a null value");
+                return new Indexed<>(index, result, null);
+            } catch (Throwable e) {
+                Exceptions.throwIfJvmFatal(e);
+                return new Indexed<>(index, null, e);
+            }
+        }
+    }
+}
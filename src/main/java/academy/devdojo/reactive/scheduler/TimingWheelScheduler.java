@@ -0,0 +1,441 @@
+package academy.devdojo.reactive.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Scheduler whose delayed and periodic tasks wait in a hierarchical timing wheel instead of the
+ * {@code ScheduledThreadPoolExecutor} heaps behind {@code Schedulers.parallel()}; pass it to
+ * {@code delayElements}, {@code Flux.interval}, {@code delaySubscription}, {@code timeout} and the like.
+ * <p>
+ * A timer is one node in a doubly-linked slot list: scheduling and cancelling are O(1) and allocate only
+ * that node, where the heap pays O(log n) and a {@code ScheduledFutureTask} per timer. Producers hand new
+ * and cancelled timers to a single ticker thread through lock-free queues; every {@code tickDuration} it
+ * links them in, moves the timers of the next coarser wheel down when a finer wheel wraps, and hands
+ * the due tasks to the {@code executor} scheduler, so the ticker never runs user code. Tasks without a
+ * delay go straight to the executor, and a worker's tasks to one executor worker, keeping their order.
+ * <p>
+ * There are {@value #LEVELS} wheels of {@value #SLOTS} slots; a task runs up to one tick late, never
+ * early. Periodic tasks run at a fixed rate and never overlap: the next run is armed when the previous
+ * one returns.
+ */
+@Slf4j
+public final class TimingWheelScheduler implements Scheduler {
+
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(1);
+    static final int LEVELS = 4;
+    static final int SLOTS = 256;
+    private static final int SLOT_BITS = 8;
+
+    private final String name;
+    private final Scheduler executor;
+    private final long tickNanos;
+    private final long startNanos;
+    private final Slot[][] wheels = new Slot[LEVELS][SLOTS];
+    private final Queue<Timer> added = Queues.<Timer>unboundedMultiproducer().get();
+    private final Queue<Timer> cancelled = Queues.<Timer>unboundedMultiproducer().get();
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread ticker;
+    // ticks ja processados; so o ticker escreve
+    private long tick;
+    private volatile boolean disposed;
+
+    /**
+     * 1ms ticks; due tasks run on {@code Schedulers.parallel()}.
+     */
+    public TimingWheelScheduler(String name) {
+        this(name, DEFAULT_TICK, Schedulers.parallel());
+    }
+
+    /**
+     * @param executor runs the tasks; it is not disposed with this scheduler
+     */
+    public TimingWheelScheduler(String name, Duration tickDuration, Scheduler executor) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("tickDuration > 0 required but it was " + tickDuration);
+        }
+        this.name = name;
+        this.executor = executor;
+        this.tickNanos = tickDuration.toNanos();
+        for (Slot[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Slot();
+            }
+        }
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::runTicker, name + "-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        return executor.schedule(task);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            return executor.schedule(task);
+        }
+        return arm(new Timer(task, executor, null, 0), unit.toNanos(delay));
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            return executor.schedulePeriodically(task, initialDelay, period, unit);
+        }
+        return arm(new Timer(task, executor, null, ticks(unit.toNanos(period))), unit.toNanos(initialDelay));
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new WheelWorker(executor.createWorker());
+    }
+
+    /**
+     * Timers armed and not yet fired or cancelled.
+     */
+    public long pendingTimers() {
+        return pending.get();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    public void dispose() {
+        if (!disposed) {
+            disposed = true;
+            LockSupport.unpark(ticker);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TimingWheelScheduler(" + name + ")";
+    }
+
+    private Timer arm(Timer timer, long delayNanos) {
+        if (disposed) {
+            throw Exceptions.failWithRejected();
+        }
+        timer.deadline = ticks(System.nanoTime() - startNanos + Math.max(0, delayNanos));
+        if (!enqueue(timer)) {
+            timer.release();
+            throw Exceptions.failWithRejected();
+        }
+        return timer;
+    }
+
+    // false se o scheduler foi descartado; o ticker pode ja ter drenado added antes do offer, entao quem
+    // vence o CAS para DONE tira o timer da conta
+    private boolean enqueue(Timer timer) {
+        pending.incrementAndGet();
+        added.offer(timer);
+        if (disposed && timer.state.compareAndSet(Timer.WAITING, Timer.DONE)) {
+            pending.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    // arredonda para cima: nunca dispara antes da hora
+    private long ticks(long nanos) {
+        return (nanos + tickNanos - 1) / tickNanos;
+    }
+
+    private void runTicker() {
+        while (!disposed) {
+            long target = (System.nanoTime() - startNanos) / tickNanos;
+            try {
+                link();
+                while (tick < target) {
+                    advance(++tick);
+                }
+            } catch (Throwable e) {
+                log.error("{} ticker failed", name, e);
+            }
+            long next = startNanos + (tick + 1) * tickNanos;
+            LockSupport.parkNanos(this, next - System.nanoTime());
+        }
+        cancelAll();
+    }
+
+    private void link() {
+        for (Timer timer = added.poll(); timer != null; timer = added.poll()) {
+            if (timer.state.get() == Timer.WAITING) {
+                place(timer);
+            }
+        }
+        for (Timer timer = cancelled.poll(); timer != null; timer = cancelled.poll()) {
+            if (timer.slot != null) {
+                timer.slot.unlink(timer);
+            }
+        }
+    }
+
+    // quando uma roda fina da a volta, a roda acima desce os timers do slot atual
+    private void advance(long t) {
+        int wrapped = 0;
+        while (wrapped < LEVELS - 1 && (t & ((1L << (SLOT_BITS * (wrapped + 1))) - 1)) == 0) {
+            wrapped++;
+        }
+        for (int level = wrapped; level > 0; level--) {
+            Slot slot = wheels[level][digit(t, level)];
+            for (Timer timer = slot.clear(); timer != null; ) {
+                Timer next = timer.next;
+                timer.next = null;
+                timer.prev = null;
+                place(timer);
+                timer = next;
+            }
+        }
+        Slot slot = wheels[0][digit(t, 0)];
+        for (Timer timer = slot.clear(); timer != null; ) {
+            Timer next = timer.next;
+            timer.next = null;
+            timer.prev = null;
+            fire(timer);
+            timer = next;
+        }
+    }
+
+    // nivel = digito mais alto em que o prazo difere do tick atual
+    private void place(Timer timer) {
+        long deadline = timer.deadline;
+        if (deadline <= tick) {
+            fire(timer);
+            return;
+        }
+        int level = Math.min(LEVELS - 1, (63 - Long.numberOfLeadingZeros(deadline ^ tick)) / SLOT_BITS);
+        wheels[level][digit(deadline, level)].add(timer);
+    }
+
+    private static int digit(long ticks, int level) {
+        return (int) (ticks >>> (SLOT_BITS * level)) & (SLOTS - 1);
+    }
+
+    private void fire(Timer timer) {
+        timer.slot = null;
+        if (!timer.state.compareAndSet(Timer.WAITING, Timer.RUNNING)) {
+            return;
+        }
+        pending.decrementAndGet();
+        try {
+            timer.inFlight = timer.worker != null ? timer.worker.schedule(timer) : timer.executor.schedule(timer);
+        } catch (Throwable e) {
+            timer.state.set(Timer.DONE);
+            log.warn("{} could not run a due task", name, e);
+        }
+    }
+
+    // sem link(): o place() dispararia os timers vencidos depois do dispose
+    private void cancelAll() {
+        for (Timer timer = added.poll(); timer != null; timer = added.poll()) {
+            cancel(timer);
+        }
+        cancelled.clear();
+        for (Slot[] wheel : wheels) {
+            for (Slot slot : wheel) {
+                for (Timer timer = slot.clear(); timer != null; timer = timer.next) {
+                    cancel(timer);
+                }
+            }
+        }
+    }
+
+    private void cancel(Timer timer) {
+        if (timer.state.compareAndSet(Timer.WAITING, Timer.DONE)) {
+            pending.decrementAndGet();
+            timer.release();
+        }
+    }
+
+    private final class Timer implements Disposable, Runnable {
+        static final int WAITING = 0;
+        static final int RUNNING = 1;
+        static final int DONE = 2;
+
+        final Runnable task;
+        final Scheduler executor;
+        final Worker worker;
+        final long periodTicks;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        // prazo em ticks desde startNanos
+        long deadline;
+        Slot slot;
+        Timer prev;
+        Timer next;
+        volatile Disposable inFlight;
+        Disposable.Composite owner;
+
+        Timer(Runnable task, Scheduler executor, Worker worker, long periodTicks) {
+            this.task = task;
+            this.executor = executor;
+            this.worker = worker;
+            this.periodTicks = periodTicks;
+        }
+
+        @Override
+        public void run() {
+            boolean failed = true;
+            try {
+                task.run();
+                failed = false;
+            } finally {
+                // o erro segue para o wrapper de tarefa do executor, que o entrega ao hook do Reactor
+                if (failed) {
+                    state.set(DONE);
+                    release();
+                }
+            }
+            if (periodTicks == 0) {
+                state.set(DONE);
+                release();
+                return;
+            }
+            // taxa fixa: o proximo prazo conta do anterior, nao de agora
+            deadline += periodTicks;
+            if (state.compareAndSet(RUNNING, WAITING) && !enqueue(this)) {
+                release();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            int s = state.getAndSet(DONE);
+            if (s == WAITING) {
+                pending.decrementAndGet();
+                cancelled.offer(this);
+            } else if (s == RUNNING) {
+                Disposable running = inFlight;
+                if (running != null) {
+                    running.dispose();
+                }
+            }
+            release();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return state.get() == DONE;
+        }
+
+        private void release() {
+            Disposable.Composite composite = owner;
+            if (composite != null) {
+                composite.remove(this);
+            }
+        }
+    }
+
+    // so o ticker mexe nos slots
+    private static final class Slot {
+        Timer head;
+        Timer tail;
+
+        void add(Timer timer) {
+            timer.slot = this;
+            timer.prev = tail;
+            timer.next = null;
+            if (tail == null) {
+                head = timer;
+            } else {
+                tail.next = timer;
+            }
+            tail = timer;
+        }
+
+        void unlink(Timer timer) {
+            if (timer.prev == null) {
+                head = timer.next;
+            } else {
+                timer.prev.next = timer.next;
+            }
+            if (timer.next == null) {
+                tail = timer.prev;
+            } else {
+                timer.next.prev = timer.prev;
+            }
+            timer.prev = null;
+            timer.next = null;
+            timer.slot = null;
+        }
+
+        // devolve a lista inteira e esvazia o slot
+        Timer clear() {
+            Timer first = head;
+            for (Timer timer = first; timer != null; timer = timer.next) {
+                timer.slot = null;
+            }
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    private final class WheelWorker implements Worker {
+        private final Worker delegate;
+        private final Disposable.Composite timers = Disposables.composite();
+
+        WheelWorker(Worker delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            return delegate.schedule(task);
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            if (delay <= 0) {
+                return delegate.schedule(task);
+            }
+            return track(new Timer(task, executor, delegate, 0), unit.toNanos(delay));
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            if (period <= 0) {
+                return delegate.schedulePeriodically(task, initialDelay, period, unit);
+            }
+            return track(new Timer(task, executor, delegate, ticks(unit.toNanos(period))), unit.toNanos(initialDelay));
+        }
+
+        private Disposable track(Timer timer, long delayNanos) {
+            timer.owner = timers;
+            if (!timers.add(timer)) {
+                throw Exceptions.failWithRejected();
+            }
+            return arm(timer, delayNanos);
+        }
+
+        @Override
+        public void dispose() {
+            timers.dispose();
+            delegate.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return timers.isDisposed();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.cache.AsyncCache;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * AsyncCache contra um LRU simples (LinkedHashMap sincronizado) do mesmo tamanho, com chaves Zipfianas
+ * (expoente `skew`) sobre KEY_SPACE chaves e 4 threads. O lookup e sincrono e barato para medir so o cache;
+ * a taxa de acerto de cada um e impressa por iteracao.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class AsyncCacheBenchmark {
+
+    static final int KEY_SPACE = 1 << 20;
+    static final int SAMPLES = 1 << 20;
+
+    @Param({"0.8", "1.2"})
+    public double skew;
+
+    @Param({"1000", "10000"})
+    public int maximumSize;
+
+    private int[] keys;
+    private AsyncCache<Integer, Integer> cache;
+    private Map<Integer, Integer> lru;
+    private final AtomicLong lruHits = new AtomicLong();
+    private final AtomicLong lruMisses = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = zipf(KEY_SPACE, skew, SAMPLES, new SplittableRandom(42));
+    }
+
+    @Setup(Level.Iteration)
+    public void newCaches() {
+        cache = new AsyncCache<>(this::lookup, maximumSize, Duration.ofMinutes(10));
+        lru = new LinkedHashMap<>(maximumSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        lruHits.set(0);
+        lruMisses.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        long lruTotal = lruHits.get() + lruMisses.get();
+        log.info("skew={} maximumSize={}: AsyncCache hit ratio {} ({} evictions), LRU hit ratio {}", skew,
+                maximumSize, String.format("%.3f", cache.hitRatio()), cache.evictions(),
+                lruTotal == 0 ? "-" : String.format("%.3f", (double) lruHits.get() / lruTotal));
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = (int) Thread.currentThread().getId() * 7919;
+    }
+
+    @Benchmark
+    public Integer asyncCache(Cursor cursor) {
+        return cache.get(nextKey(cursor)).block();
+    }
+
+    @Benchmark
+    public Integer lruBaseline(Cursor cursor) {
+        int key = nextKey(cursor);
+        synchronized (lru) {
+            Integer value = lru.get(key);
+            if (value != null) {
+                lruHits.incrementAndGet();
+                return value;
+            }
+            lruMisses.incrementAndGet();
+            value = lookup(key).block();
+            lru.put(key, value);
+            return value;
+        }
+    }
+
+    private int nextKey(Cursor cursor) {
+        return keys[cursor.next++ & (SAMPLES - 1)];
+    }
+
+    private Mono<Integer> lookup(Integer key) {
+        return Mono.just(key * 31);
+    }
+
+    // inversao da CDF: P(k) proporcional a 1 / k^skew, k = 1..n
+    static int[] zipf(int n, double skew, int samples, SplittableRandom random) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, skew);
+            cdf[k] = sum;
+        }
+        int[] keys = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            keys[i] = index >= 0 ? index : Math.min(n - 1, -index - 1);
+        }
+        return keys;
+    }
+}
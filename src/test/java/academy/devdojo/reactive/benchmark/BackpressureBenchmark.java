@@ -0,0 +1,141 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.backpressure.AdaptiveBatchSubscriber;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Estrategias de backpressure do FluxTest (batch fixo de 2, limitRate(3)) contra o AdaptiveBatchSubscriber.
+ * O produtor roda no parallel e o consumidor e rapido (10 tokens de CPU) ou lento (2000 tokens).
+ * O contador requests mostra quantos sinais de request(n) chegaram na fonte.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(BackpressureBenchmark.ELEMENTS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BackpressureBenchmark {
+
+    static final int ELEMENTS = 10_000;
+
+    @Param({"10", "2000"})
+    public long consumerTokens;
+
+    private Flux<Integer> source;
+    private Requests counter;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Requests {
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            requests = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        source = Flux.range(0, ELEMENTS)
+                .doOnRequest(n -> counter.requests++)
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    @Benchmark
+    public void fixedBatchOfTwo(Requests requests, Blackhole bh) throws InterruptedException {
+        counter = requests;
+        run(source, new FixedBatchSubscriber(2, bh));
+    }
+
+    @Benchmark
+    public void fixedBatchOf256(Requests requests, Blackhole bh) throws InterruptedException {
+        counter = requests;
+        run(source, new FixedBatchSubscriber(256, bh));
+    }
+
+    @Benchmark
+    public void limitRateThree(Requests requests, Blackhole bh) throws InterruptedException {
+        counter = requests;
+        CountDownLatch done = new CountDownLatch(1);
+        source.limitRate(3)
+                .subscribe(i -> consume(bh, i), e -> done.countDown(), done::countDown);
+        done.await();
+    }
+
+    @Benchmark
+    public void adaptive(Requests requests, Blackhole bh) throws InterruptedException {
+        counter = requests;
+        CountDownLatch done = new CountDownLatch(1);
+        source.doFinally(s -> done.countDown())
+                .subscribe(new AdaptiveBatchSubscriber<>(i -> consume(bh, i), 1, 1024, Duration.ofMillis(1)));
+        done.await();
+    }
+
+    private void run(Flux<Integer> flux, FixedBatchSubscriber subscriber) throws InterruptedException {
+        flux.subscribe(subscriber);
+        subscriber.done.await();
+    }
+
+    private void consume(Blackhole bh, Integer i) {
+        Blackhole.consumeCPU(consumerTokens);
+        bh.consume(i);
+    }
+
+    // mesmo BaseSubscriber do fluxSubscriberNumbersNotSoUglyBackpressure
+    private class FixedBatchSubscriber extends BaseSubscriber<Integer> {
+        private final int requestCount;
+        private final Blackhole bh;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int count;
+
+        FixedBatchSubscriber(int requestCount, Blackhole bh) {
+            this.requestCount = requestCount;
+            this.bh = bh;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(requestCount);
+        }
+
+        @Override
+        protected void hookOnNext(Integer value) {
+            consume(bh, value);
+            count++;
+            if (count >= requestCount) {
+                count = 0;
+                request(requestCount);
+            }
+        }
+
+        @Override
+        protected void hookFinally(SignalType type) {
+            done.countDown();
+        }
+    }
+}
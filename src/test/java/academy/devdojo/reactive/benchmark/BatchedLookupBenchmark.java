@@ -0,0 +1,110 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.lookup.BatchedLookup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * findByName remoto simulado: cada chamada custa callOverheadMicros (rede, serializacao) mais 1us por chave,
+ * parkando uma thread do boundedElastic. flatMap por elemento faz uma chamada por chave; o BatchedLookup faz
+ * uma por lote de batchSize chaves, com a mesma concorrencia.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(BatchedLookupBenchmark.KEYS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchedLookupBenchmark {
+
+    static final int KEYS = 1024;
+    static final int CONCURRENCY = 8;
+
+    @Param({"50", "500"})
+    public long callOverheadMicros;
+
+    @Param({"16", "128"})
+    public int batchSize;
+
+    private Flux<String> keys;
+    private BatchedLookup<String, String> ordered;
+
+    @Setup
+    public void setUp() {
+        keys = Flux.range(0, KEYS).map(i -> "name" + (i % 256));
+        ordered = new BatchedLookup<>(this::findAllByName, batchSize, Duration.ofMillis(1), CONCURRENCY, 1);
+    }
+
+    @Benchmark
+    public void perElementFlatMap(Blackhole bh) {
+        keys.flatMap(this::findByName, CONCURRENCY)
+                .doOnNext(bh::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void perElementFlatMapSequential(Blackhole bh) {
+        keys.flatMapSequential(this::findByName, CONCURRENCY)
+                .doOnNext(bh::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void batchedOrdered(Blackhole bh) {
+        keys.transform(ordered.ordered())
+                .doOnNext(bh::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void batchedUnordered(Blackhole bh) {
+        keys.transform(ordered.unordered())
+                .doOnNext(bh::consume)
+                .blockLast();
+    }
+
+    private Flux<String> findByName(String name) {
+        return Mono.fromCallable(() -> {
+                    remoteCall(1);
+                    return name.toUpperCase();
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flux();
+    }
+
+    private Mono<Map<String, List<String>>> findAllByName(List<String> names) {
+        return Mono.fromCallable(() -> {
+                    remoteCall(names.size());
+                    Map<String, List<String>> found = new HashMap<>(names.size() * 2);
+                    names.forEach(name -> found.put(name, List.of(name.toUpperCase())));
+                    return found;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void remoteCall(int keys) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(callOverheadMicros + keys));
+    }
+}
@@ -0,0 +1,111 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.combine.Conflate;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Dois feeds de `ticks` atualizacoes cada, produzidos em threads do parallel, lidos por um consumidor lento
+ * (consumeCPU(`work`) por valor, um de cada vez no single). Mede o tempo para consumir os feeds ate o fim e
+ * imprime por iteracao quantas combinacoes foram calculadas e entregues e a defasagem media: quantas
+ * atualizacoes o feed ja tinha produzido alem das que entraram no valor lido.
+ * Em combineLatest os feeds sao freados pelo consumidor e cada atualizacao vira uma combinacao.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConflateBenchmark {
+
+    record Quote(long price, long status) {
+    }
+
+    @Param({"100000"})
+    public int ticks;
+
+    @Param({"200", "2000"})
+    public long work;
+
+    private final AtomicLong producedPrices = new AtomicLong();
+    private final AtomicLong producedStatuses = new AtomicLong();
+    private final LongAdder combinations = new LongAdder();
+    private final LongAdder consumed = new LongAdder();
+    private final LongAdder staleness = new LongAdder();
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        combinations.reset();
+        consumed.reset();
+        staleness.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        long values = consumed.sum();
+        log.info("work={}: {} combinations computed, {} consumed, mean staleness {}", work, combinations.sum(),
+                values, values == 0 ? "-" : String.format("%.1f", (double) staleness.sum() / values));
+    }
+
+    @Benchmark
+    public Quote combineLatest() {
+        return consume(Flux.combineLatest(feed(producedPrices), feed(producedStatuses), this::combine));
+    }
+
+    @Benchmark
+    public Quote combineLatestOnBackpressureLatest() {
+        return consume(Flux.combineLatest(feed(producedPrices), feed(producedStatuses), this::combine)
+                .onBackpressureLatest());
+    }
+
+    @Benchmark
+    public Quote conflate() {
+        return consume(Conflate.combineLatest(feed(producedPrices), feed(producedStatuses), this::combine));
+    }
+
+    private Flux<Long> feed(AtomicLong produced) {
+        return Flux.range(0, ticks)
+                .map(i -> {
+                    produced.set(i);
+                    return (long) i;
+                })
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    private Quote combine(long price, long status) {
+        combinations.increment();
+        return new Quote(price, status);
+    }
+
+    private Quote consume(Flux<Quote> quotes) {
+        return quotes
+                .publishOn(Schedulers.single(), 1)
+                .doOnNext(quote -> {
+                    staleness.add(producedPrices.get() - quote.price() + producedStatuses.get() - quote.status());
+                    consumed.increment();
+                    Blackhole.consumeCPU(work);
+                })
+                .blockLast();
+    }
+}
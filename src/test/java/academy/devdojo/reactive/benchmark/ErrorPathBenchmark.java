@@ -0,0 +1,102 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.error.Fallbacks;
+import academy.devdojo.reactive.error.StacklessException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Custo do caminho de erro com `errorPercent`% dos ELEMENTS elementos falhando. Rode com -prof gc para ver a
+ * alocacao por operacao: o par "classic" cria uma excecao com stack trace por falha e, no flatMap, um Mono de
+ * fallback no onErrorResume; o par "stackless" reusa NOT_FOUND e o fallback nao aloca.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    static final int ELEMENTS = 1024;
+    static final StacklessException NOT_FOUND = new StacklessException("not found");
+
+    @Param({"1", "10", "50"})
+    public int errorPercent;
+
+    @Benchmark
+    public Integer flatMapClassic() {
+        return Flux.range(0, ELEMENTS)
+                .flatMap(i -> lookupClassic(i).onErrorResume(e -> Mono.just(-1)))
+                .reduce(0, Integer::sum)
+                .block();
+    }
+
+    @Benchmark
+    public Integer flatMapStackless() {
+        return Flux.range(0, ELEMENTS)
+                .flatMap(i -> lookupStackless(i).transform(Fallbacks.recover(-1)))
+                .reduce(0, Integer::sum)
+                .block();
+    }
+
+    @Benchmark
+    public Integer mapClassic() {
+        return Flux.range(0, ELEMENTS)
+                .<Integer>handle((i, sink) -> {
+                    try {
+                        sink.next(parseClassic(i));
+                    } catch (IllegalArgumentException e) {
+                        sink.next(-1);
+                    }
+                })
+                .reduce(0, Integer::sum)
+                .block();
+    }
+
+    @Benchmark
+    public Integer mapStackless() {
+        return Flux.range(0, ELEMENTS)
+                .transform(Fallbacks.mapOrElse(this::parseStackless, -1))
+                .reduce(0, Integer::sum)
+                .block();
+    }
+
+    private boolean fails(int i) {
+        return i % 100 < errorPercent;
+    }
+
+    private Mono<Integer> lookupClassic(int i) {
+        return fails(i) ? Mono.error(new IllegalArgumentException("not found")) : Mono.just(i);
+    }
+
+    private Mono<Integer> lookupStackless(int i) {
+        return fails(i) ? NOT_FOUND.mono() : Mono.just(i);
+    }
+
+    private Integer parseClassic(int i) {
+        if (fails(i)) {
+            throw new IllegalArgumentException("not found");
+        }
+        return i;
+    }
+
+    private Integer parseStackless(int i) {
+        if (fails(i)) {
+            throw NOT_FOUND;
+        }
+        return i;
+    }
+}
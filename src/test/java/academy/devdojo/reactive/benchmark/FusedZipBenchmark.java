@@ -0,0 +1,71 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.combine.FusedZip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Junta tres colunas de `rows` linhas em Anime: o zip + flatMap(Flux.just) do OperatorsTest, o Flux.zip com
+ * combinador Object[] e o FusedZip. Rode com -prof gc para ver a alocacao por linha.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FusedZipBenchmark {
+
+    record Anime(String title, String studio, int episodes) {
+    }
+
+    @Param({"1000000", "4000000"})
+    public int rows;
+
+    private Flux<String> titles;
+    private Flux<String> studios;
+    private Flux<Integer> episodes;
+
+    @Setup
+    public void setUp() {
+        String[] titleValues = {"Grand Blue", "Baki", "Naruto", "Monster"};
+        String[] studioValues = {"Zero-G", "TMS Entertainment", "Pierrot", "Madhouse"};
+        titles = Flux.range(0, rows).map(i -> titleValues[i & 3]);
+        studios = Flux.range(0, rows).map(i -> studioValues[i & 3]);
+        episodes = Flux.range(0, rows).map(i -> i & 63);
+    }
+
+    @Benchmark
+    public void zipFlatMap(Blackhole bh) {
+        drain(Flux.zip(titles, studios, episodes)
+                .flatMap(tuple -> Flux.just(new Anime(tuple.getT1(), tuple.getT2(), tuple.getT3()))), bh);
+    }
+
+    @Benchmark
+    public void zipArrayCombinator(Blackhole bh) {
+        drain(Flux.zip(row -> new Anime((String) row[0], (String) row[1], (Integer) row[2]),
+                titles, studios, episodes), bh);
+    }
+
+    @Benchmark
+    public void fusedZip(Blackhole bh) {
+        drain(FusedZip.zip(titles, studios, episodes, Anime::new), bh);
+    }
+
+    private static void drain(Flux<Anime> flux, Blackhole bh) {
+        flux.subscribe(bh::consume);
+    }
+}
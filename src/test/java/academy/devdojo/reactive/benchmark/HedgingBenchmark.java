@@ -0,0 +1,83 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.lookup.HedgedLookup;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Latencia por chamada (SampleTime: o JMH imprime p0.99 e p0.999) de um findByName remoto simulado com cauda
+ * longa: 1ms normalmente, `slowMillis` em 1 de cada `slowEvery` chamadas, sorteado de forma independente a cada
+ * chamada (replicas diferentes). direct chama so o primario; hedged manda o hedge no p95 observado, com 10% de
+ * orcamento. O numero de hedges por iteracao e impresso para conferir a carga extra.
+ */
+@Slf4j
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HedgingBenchmark {
+
+    @Param({"50", "200"})
+    public int slowEvery;
+
+    @Param({"20"})
+    public long slowMillis;
+
+    private HedgedLookup<String, String> hedged;
+    private long hedgesBefore;
+    private long callsBefore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hedged = new HedgedLookup<>(this::findByName, this::findByName, 95, Duration.ofMillis(2),
+                Duration.ofMillis(1), 0.1, 10, Schedulers.parallel());
+    }
+
+    @Setup(Level.Iteration)
+    public void mark() {
+        hedgesBefore = hedged.hedges();
+        callsBefore = hedged.calls();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        log.info("slowEvery={}: {} hedges for {} calls, deadline {}", slowEvery, hedged.hedges() - hedgesBefore,
+                hedged.calls() - callsBefore, hedged.deadline());
+    }
+
+    @Benchmark
+    public String direct() {
+        return findByName("A").blockLast();
+    }
+
+    @Benchmark
+    public String hedged() {
+        return hedged.apply("A").blockLast();
+    }
+
+    private Flux<String> findByName(String name) {
+        long millis = ThreadLocalRandom.current().nextInt(slowEvery) == 0 ? slowMillis : 1;
+        return Mono.delay(Duration.ofMillis(millis)).thenMany(Flux.just("name" + name + "1", "name" + name + "2"));
+    }
+}
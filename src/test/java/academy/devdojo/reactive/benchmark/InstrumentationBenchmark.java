@@ -0,0 +1,78 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.metrics.PipelineMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Custo por elemento do PipelineMetrics no pipeline flatMap/findByName, com 1 e 4 threads
+ * gravando no mesmo estagio (os contadores sao compartilhados pelo @State(Scope.Benchmark)).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(InstrumentationBenchmark.ELEMENTS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationBenchmark {
+
+    static final int ELEMENTS = 1000;
+
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private final PipelineMetrics counters = new PipelineMetrics(null, false);
+
+    @Benchmark
+    public void plain(Blackhole bh) {
+        pipeline().subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void instrumented(Blackhole bh) {
+        instrumentedPipeline(metrics).subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void countersOnly(Blackhole bh) {
+        instrumentedPipeline(counters).subscribe(bh::consume);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void plainFourThreads(Blackhole bh) {
+        pipeline().subscribe(bh::consume);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void instrumentedFourThreads(Blackhole bh) {
+        instrumentedPipeline(metrics).subscribe(bh::consume);
+    }
+
+    private static Flux<String> pipeline() {
+        return Flux.range(0, ELEMENTS / 2)
+                .map(i -> i % 2 == 0 ? "A" : "B")
+                .flatMap(OperatorsBenchmark::findByName);
+    }
+
+    private static Flux<String> instrumentedPipeline(PipelineMetrics metrics) {
+        return Flux.range(0, ELEMENTS / 2)
+                .map(i -> i % 2 == 0 ? "A" : "B")
+                .transform(metrics.instrument("source"))
+                .flatMap(OperatorsBenchmark::findByName)
+                .transform(metrics.instrument("findByName"));
+    }
+}
@@ -0,0 +1,105 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.scheduler.IoSchedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Fan-out de leituras bloqueantes (subscribeOnIO) com boundedElastic e com virtual threads.
+ * O sleep simula a latencia de um disco/servico lento, ja que o text-file fica no page cache.
+ * Cada operacao dispara `concurrency` leituras ao mesmo tempo; o p99 por leitura, o pico de threads
+ * da plataforma e o heap usado sao impressos ao final de cada iteracao.
+ * O modo virtual precisa de JDK 21: JAVA_HOME=<jdk21> mvn -Pjmh test-compile exec:exec -Djmh.include=IoSchedulerBenchmark
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class IoSchedulerBenchmark {
+
+    @Param({"boundedElastic", "virtual"})
+    public String scheduler;
+
+    @Param({"1000", "5000"})
+    public int concurrency;
+
+    @Param({"2"})
+    public int blockMillis;
+
+    private Scheduler io;
+    private Path file;
+    private long[] latencies;
+    private double p99Sum;
+    private int operations;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Setup
+    public void setUp() {
+        IoSchedulers.Kind kind = IoSchedulers.Kind.of(scheduler);
+        if (kind == IoSchedulers.Kind.VIRTUAL && !IoSchedulers.virtualThreadsSupported()) {
+            throw new IllegalStateException("virtual needs a Java 21 runtime");
+        }
+        io = IoSchedulers.io(kind);
+        file = Path.of("text-file");
+        latencies = new long[concurrency];
+    }
+
+    @Setup(Level.Iteration)
+    public void resetIteration() {
+        threads.resetPeakThreadCount();
+        p99Sum = 0;
+        operations = 0;
+    }
+
+    @Benchmark
+    public Integer concurrentBlockingReads() {
+        long start = System.nanoTime();
+        Integer last = Flux.range(0, concurrency)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    Thread.sleep(blockMillis);
+                    int lines = Files.readAllLines(file).size();
+                    latencies[i] = System.nanoTime() - start;
+                    return lines;
+                }).subscribeOn(io), concurrency)
+                .blockLast();
+        Arrays.sort(latencies);
+        p99Sum += latencies[(int) (latencies.length * 0.99) - 1];
+        operations++;
+        return last;
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        Runtime runtime = Runtime.getRuntime();
+        log.info("{} x{}: read p99 {} ms, peak platform threads {}, heap used {} MB",
+                scheduler, concurrency,
+                String.format("%.2f", p99Sum / Math.max(1, operations) / 1_000_000d),
+                threads.getPeakThreadCount(),
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+}
@@ -0,0 +1,128 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.batch.Batch;
+import academy.devdojo.reactive.batch.MicroBatcher;
+import academy.devdojo.reactive.io.LineFileSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * bufferTimeout (um ArrayList novo por janela) contra MicroBatcher (lotes do pool) para varios tamanhos de
+ * lote, primeiro so entregando os lotes ao Blackhole e depois gravando cada lote num arquivo com uma escrita:
+ * batchSize=1 e a escrita por elemento. O maxWait e longo para so o tamanho fechar os lotes; o -prof gc mostra
+ * a alocacao por elemento.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(MicroBatchBenchmark.SIZE)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MicroBatchBenchmark {
+
+    static final int SIZE = 65_536;
+    static final Duration MAX_WAIT = Duration.ofSeconds(1);
+
+    @Param({"1", "16", "256", "4096"})
+    public int batchSize;
+
+    private List<String> lines;
+    private MicroBatcher<String> batcher;
+    private Path file;
+    private LineFileSink sink;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        lines = IntStream.range(0, SIZE).mapToObj(i -> "line " + i).collect(Collectors.toList());
+        batcher = new MicroBatcher<>(batchSize, MAX_WAIT);
+        file = Files.createTempFile("micro-batch", ".txt");
+    }
+
+    // recria (trunca) o arquivo a cada iteracao para ele nao crescer sem limite
+    @Setup(Level.Iteration)
+    public void openSink() throws IOException {
+        sink = LineFileSink.create(file);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeSink() throws IOException {
+        sink.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void bufferTimeout(Blackhole bh) {
+        Flux.fromIterable(lines)
+                .bufferTimeout(batchSize, MAX_WAIT)
+                .doOnNext(bh::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void microBatcher(Blackhole bh) {
+        Flux.fromIterable(lines)
+                .transform(batcher)
+                .doOnNext(batch -> {
+                    bh.consume(batch);
+                    batch.release();
+                })
+                .blockLast();
+    }
+
+    @Benchmark
+    public void bufferTimeoutToFile() {
+        Flux.fromIterable(lines)
+                .bufferTimeout(batchSize, MAX_WAIT)
+                .doOnNext(this::write)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void microBatcherToFile() {
+        Flux.fromIterable(lines)
+                .transform(batcher)
+                .doOnNext(this::writeAndRelease)
+                .blockLast();
+    }
+
+    private void write(List<String> batch) {
+        try {
+            sink.write(batch);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeAndRelease(Batch<String> batch) {
+        write(batch);
+        batch.release();
+    }
+}
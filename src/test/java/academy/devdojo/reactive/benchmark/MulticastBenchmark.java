@@ -0,0 +1,119 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.metrics.LatencyHistogram;
+import academy.devdojo.reactive.multicast.RingMulticast;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Fan-out de um feed para 1 a 64 assinantes rapidos com publish(), replay(CAPACITY) e RingMulticast (DROP).
+ * Com slowSubscriber um assinante extra consome em outra thread gastando 5us por elemento: no publish()
+ * ele dita o ritmo de todos. Cada elemento leva o nanoTime da emissao; a latencia ate os assinantes rapidos
+ * (p99/p999) e os descartes do ring sao impressos ao final de cada iteracao.
+ */
+@Slf4j
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(MulticastBenchmark.ELEMENTS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MulticastBenchmark {
+
+    static final int ELEMENTS = 10_000;
+    static final int CAPACITY = 1024;
+
+    @Param({"publish", "replay", "ring"})
+    public String multicast;
+
+    @Param({"1", "8", "64"})
+    public int subscribers;
+
+    @Param({"false", "true"})
+    public boolean slowSubscriber;
+
+    private Scheduler slowScheduler;
+    private LatencyHistogram latency;
+    private long dropped;
+
+    @Setup
+    public void setUp() {
+        slowScheduler = Schedulers.newSingle("slow-subscriber");
+    }
+
+    @Setup(Level.Iteration)
+    public void resetIteration() {
+        latency = new LatencyHistogram();
+        dropped = 0;
+    }
+
+    @Benchmark
+    public void fanOut() throws InterruptedException {
+        Flux<Long> source = Flux.range(0, ELEMENTS).map(i -> System.nanoTime());
+        RingMulticast<Long> ring = null;
+        Flux<Long> shared;
+        int total = slowSubscriber ? subscribers + 1 : subscribers;
+        switch (multicast) {
+            case "publish" -> shared = source.publish().autoConnect(total);
+            case "replay" -> shared = source.replay(CAPACITY).autoConnect(total);
+            default -> {
+                ring = new RingMulticast<>(source, CAPACITY, 0, RingMulticast.LaggardPolicy.DROP);
+                shared = ring.autoConnect(total);
+            }
+        }
+
+        Disposable slow = null;
+        if (slowSubscriber) {
+            slow = shared.publishOn(slowScheduler, 32)
+                    .subscribe(stamp -> LockSupport.parkNanos(5_000));
+        }
+        CountDownLatch fastDone = new CountDownLatch(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            shared.subscribe(stamp -> latency.record(System.nanoTime() - stamp), e -> fastDone.countDown(),
+                    fastDone::countDown);
+        }
+
+        fastDone.await();
+        if (slow != null) {
+            slow.dispose();
+        }
+        if (ring != null) {
+            dropped += ring.dropped();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        log.info("{} x{} slow={}: latency p99 {} us, p999 {} us, dropped by laggards {}",
+                multicast, subscribers, slowSubscriber,
+                snapshot.percentile(99) / 1_000, snapshot.percentile(99.9) / 1_000, dropped);
+    }
+
+    @TearDown
+    public void tearDown() {
+        slowScheduler.dispose();
+    }
+}
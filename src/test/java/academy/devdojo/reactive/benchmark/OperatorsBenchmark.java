@@ -0,0 +1,106 @@
+package academy.devdojo.reactive.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Mesmos pipelines do OperatorsTest, sem delayElements/delaySubscription e sem .log(),
+ * para medir somente o custo de cada operador.
+ * Throughput da ops/s, SampleTime da os percentis e o profiler gc (-prof gc) a taxa de alocacao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorsBenchmark {
+
+    @Param({"1", "1000", "1000000"})
+    public int size;
+
+    private Flux<String> letters;
+    private Flux<String> half1;
+    private Flux<String> half2;
+    private Flux<Integer> episodes;
+
+    @Setup
+    public void setUp() {
+        letters = Flux.range(0, size).map(i -> i % 2 == 0 ? "a" : "b");
+        half1 = Flux.range(0, Math.max(1, size / 2)).map(i -> "a");
+        half2 = Flux.range(0, Math.max(1, size / 2)).map(i -> "c");
+        episodes = Flux.range(0, size);
+    }
+
+    @Benchmark
+    public void concat(Blackhole bh) {
+        drain(Flux.concat(half1, half2), bh);
+    }
+
+    @Benchmark
+    public void merge(Blackhole bh) {
+        drain(Flux.merge(half1, half2), bh);
+    }
+
+    @Benchmark
+    public void mergeSequential(Blackhole bh) {
+        drain(Flux.mergeSequential(half1, half2), bh);
+    }
+
+    @Benchmark
+    public void flatMap(Blackhole bh) {
+        drain(letters.map(String::toUpperCase).flatMap(OperatorsBenchmark::findByName), bh);
+    }
+
+    @Benchmark
+    public void flatMapSequential(Blackhole bh) {
+        drain(letters.map(String::toUpperCase).flatMapSequential(OperatorsBenchmark::findByName), bh);
+    }
+
+    @Benchmark
+    public void zip(Blackhole bh) {
+        drain(Flux.zip(letters, letters, episodes)
+                .flatMap(tuple -> Flux.just(new Anime(tuple.getT1(), tuple.getT2(), tuple.getT3()))), bh);
+    }
+
+    @Benchmark
+    public void combineLatest(Blackhole bh) {
+        drain(Flux.combineLatest(half1, half2, (s1, s2) -> s1.toUpperCase() + s2.toUpperCase()), bh);
+    }
+
+    @Benchmark
+    public void switchIfEmpty(Blackhole bh) {
+        drain(Flux.<String>empty().switchIfEmpty(letters), bh);
+    }
+
+    public static Flux<String> findByName(String name) {
+        return name.equals("A") ? Flux.just("nameA1", "nameA2") : Flux.just("nameB1", "nameB2");
+    }
+
+    static <T> void drain(Flux<T> flux, Blackhole bh) {
+        flux.subscribe(bh::consume);
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class Anime {
+        private String title;
+        private String studio;
+        private int episodes;
+    }
+}
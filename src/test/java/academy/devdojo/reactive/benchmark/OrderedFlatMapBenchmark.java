@@ -0,0 +1,94 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.backpressure.BoundedOrderedFlatMap;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * flatMapSequential com os defaults (concorrencia 256, prefetch 32: ate 8192 elementos guardados) contra
+ * BoundedOrderedFlatMap com latencias dos inners enviesadas: 1 a cada `skewEvery`
+ * inners atrasa 1ms para comecar e segura o head enquanto os outros terminam. Cada inner emite 64 elementos.
+ * O pico de elementos produzidos pelos inners e ainda nao entregues (o buffer de reordenacao) e impresso
+ * por iteracao para os dois; o -prof gc mostra a alocacao por operacao.
+ */
+@Slf4j
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(OrderedFlatMapBenchmark.INNERS * OrderedFlatMapBenchmark.INNER_SIZE)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderedFlatMapBenchmark {
+
+    static final int INNERS = 256;
+    static final int INNER_SIZE = 64;
+    static final int CONCURRENCY = 256;
+
+    @Param({"8", "64"})
+    public int skewEvery;
+
+    @Param({"256", "1024"})
+    public int maxBuffered;
+
+    private BoundedOrderedFlatMap<Integer, Integer> bounded;
+    private final AtomicLong produced = new AtomicLong();
+    private long consumed;
+    private long peakBuffered;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bounded = new BoundedOrderedFlatMap<>(this::inner, CONCURRENCY, 32, maxBuffered, i -> 1, Long.MAX_VALUE);
+        peakBuffered = 0;
+    }
+
+    @Benchmark
+    public void flatMapSequential(Blackhole bh) {
+        Flux.range(0, INNERS)
+                .flatMapSequential(this::inner)
+                .doOnNext(v -> consume(v, bh))
+                .blockLast();
+    }
+
+    @Benchmark
+    public void boundedOrderedFlatMap(Blackhole bh) {
+        Flux.range(0, INNERS)
+                .transform(bounded)
+                .doOnNext(v -> consume(v, bh))
+                .blockLast();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        log.info("skewEvery={} maxBuffered={}: peak reorder buffer {} elements", skewEvery, maxBuffered, peakBuffered);
+    }
+
+    private void consume(Integer value, Blackhole bh) {
+        peakBuffered = Math.max(peakBuffered, produced.get() - ++consumed);
+        bh.consume(value);
+    }
+
+    private Flux<Integer> inner(Integer i) {
+        Flux<Integer> values = Flux.range(i * INNER_SIZE, INNER_SIZE).doOnNext(v -> produced.incrementAndGet());
+        return i % skewEvery == 0 ? values.delaySubscription(Duration.ofMillis(1)) : values;
+    }
+}
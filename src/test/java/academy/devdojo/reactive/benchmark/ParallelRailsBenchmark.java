@@ -0,0 +1,86 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.scheduler.ParallelRails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * map CPU-bound (consumeCPU por elemento) em um rail so com publishOn, como no OperatorsTest,
+ * contra ParallelRails com 1 a 8 rails. Acima do numero de cores os rails so disputam CPU:
+ * rode com -Djmh.args="-p rails=1,2,...,N" para a curva da maquina.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(ParallelRailsBenchmark.ELEMENTS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelRailsBenchmark {
+
+    static final int ELEMENTS = 4096;
+
+    @Param({"1", "2", "4", "8"})
+    public int rails;
+
+    @Param({"1000"})
+    public long cpuTokens;
+
+    private Scheduler scheduler;
+    private ParallelRails parallelRails;
+
+    @Setup
+    public void setUp() {
+        scheduler = Schedulers.newParallel("rails", rails);
+        parallelRails = new ParallelRails(rails, scheduler, 32);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public Long publishOnSingleRail() {
+        return Flux.range(0, ELEMENTS)
+                .publishOn(scheduler)
+                .map(this::cpuBound)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Long unordered() {
+        return Flux.range(0, ELEMENTS)
+                .transform(parallelRails.unordered(this::cpuBound))
+                .blockLast();
+    }
+
+    @Benchmark
+    public Long ordered() {
+        return Flux.range(0, ELEMENTS)
+                .transform(parallelRails.ordered(this::cpuBound))
+                .blockLast();
+    }
+
+    private Long cpuBound(Integer i) {
+        Blackhole.consumeCPU(cpuTokens);
+        return i.longValue();
+    }
+}
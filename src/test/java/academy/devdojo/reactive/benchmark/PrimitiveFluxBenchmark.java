@@ -0,0 +1,85 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.primitive.IntFlux;
+import academy.devdojo.reactive.primitive.LongFlux;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Flux.range(1, N).map(...) com boxing contra IntFlux/LongFlux.
+ * Rodar com -prof gc para comparar gc.alloc.rate.norm (bytes por operacao).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveFluxBenchmark {
+
+    // valores acima do cache de Integer (-128..127), como contadores e ids reais
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Benchmark
+    public Integer boxedMapFilterReduce() {
+        return Flux.range(1, size)
+                .map(i -> i * 3)
+                .filter(i -> (i & 1) == 0)
+                .reduce(0, Integer::sum)
+                .block();
+    }
+
+    @Benchmark
+    public Integer intFluxMapFilterReduce() {
+        return IntFlux.range(1, size)
+                .map(i -> i * 3)
+                .filter(i -> (i & 1) == 0)
+                .reduce(0, Integer::sum)
+                .block();
+    }
+
+    @Benchmark
+    public Long boxedLongSequence() {
+        return Flux.range(0, size)
+                .map(i -> i + 1_000_000_000L)
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    @Benchmark
+    public Long longFluxSequence() {
+        return LongFlux.range(0, size)
+                .map(l -> l + 1_000_000_000L)
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    @Benchmark
+    public void boxedWindow(Blackhole bh) {
+        Flux.range(1, size)
+                .map(i -> i * 3)
+                .buffer(256)
+                .subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void intFluxWindow(Blackhole bh) {
+        IntFlux.range(1, size)
+                .map(i -> i * 3)
+                .window(256)
+                .subscribe(bh::consume);
+    }
+}
@@ -0,0 +1,94 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.ratelimit.RateLimited;
+import academy.devdojo.reactive.ratelimit.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Custo por elemento do RateLimited com um limite que nunca segura (1 permissao por ns, burst grande),
+ * contra o mesmo range sem limite; e o tryAcquire sozinho com 1 e com 8 threads disputando o mesmo limiter.
+ * Os benchmarks "capped" usam um limite real de 1M/s compartilhado pelas 8 threads e imprimem, por iteracao,
+ * as permissoes concedidas contra as que o limite permite no tempo medido (taxa * tempo + burst).
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    static final int ELEMENTS = 1024;
+    static final long CAPPED_RATE = 1_000_000;
+    static final long CAPPED_BURST = 1_000;
+
+    private final RateLimiter unlimited = new RateLimiter(1_000_000_000, Duration.ofSeconds(1), 1L << 20);
+    private RateLimiter capped;
+    private long iterationStart;
+
+    @Setup(Level.Iteration)
+    public void newCappedLimiter() {
+        capped = new RateLimiter(CAPPED_RATE, Duration.ofSeconds(1), CAPPED_BURST);
+        iterationStart = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        long granted = capped.granted();
+        if (granted == 0) {
+            return;
+        }
+        double seconds = (System.nanoTime() - iterationStart) / 1e9;
+        long allowed = (long) (seconds * CAPPED_RATE) + CAPPED_BURST;
+        log.info("capped limiter: {} permits granted, {} allowed ({} %)", granted, allowed,
+                String.format("%.3f", 100.0 * granted / allowed));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public Integer rangeBaseline() {
+        return Flux.range(0, ELEMENTS).blockLast();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public Integer rangeRateLimited() {
+        return Flux.range(0, ELEMENTS).transform(new RateLimited<>(unlimited)).blockLast();
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return unlimited.tryAcquire(1, System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long tryAcquireContended() {
+        return unlimited.tryAcquire(1, System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long tryAcquireCapped() {
+        return capped.tryAcquire(1, System.nanoTime());
+    }
+}
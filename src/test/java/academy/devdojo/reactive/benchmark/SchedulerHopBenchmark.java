@@ -0,0 +1,198 @@
+package academy.devdojo.reactive.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Topologias dos testes *OnSimple do OperatorsTest medidas por elemento.
+ * AverageTime = latencia media por elemento, Throughput = elementos/us.
+ * Os contadores auxiliares mostram quantos elementos mudaram de thread entre o map 1 e o map 2 (crossThread)
+ * e quantas vezes a thread do map 2 trocou entre elementos consecutivos (workerChanges).
+ * Para trocas de contexto do SO use -prof perf (Linux).
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(SchedulerHopBenchmark.ELEMENTS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerHopBenchmark {
+
+    static final int ELEMENTS = 1024;
+
+    private final Thread[] map1Threads = new Thread[ELEMENTS];
+    private Thread lastMap2Thread;
+
+    // cada topologia tem o seu estado: so varia os parametros que usa
+    @State(Scope.Thread)
+    public static class OneHop {
+        @Param({"single", "boundedElastic", "parallel"})
+        public String second;
+
+        Scheduler secondScheduler;
+
+        @Setup
+        public void setUp() {
+            secondScheduler = scheduler(second);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PrefetchedHop {
+        @Param({"single", "boundedElastic", "parallel"})
+        public String second;
+
+        @Param({"1", "32", "256"})
+        public int prefetch;
+
+        Scheduler secondScheduler;
+
+        @Setup
+        public void setUp() {
+            secondScheduler = scheduler(second);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TwoHops {
+        @Param({"single", "boundedElastic", "parallel"})
+        public String first;
+
+        @Param({"single", "boundedElastic", "parallel"})
+        public String second;
+
+        Scheduler firstScheduler;
+        Scheduler secondScheduler;
+
+        @Setup
+        public void setUp() {
+            firstScheduler = scheduler(first);
+            secondScheduler = scheduler(second);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PrefetchedTwoHops {
+        @Param({"single", "boundedElastic", "parallel"})
+        public String first;
+
+        @Param({"single", "boundedElastic", "parallel"})
+        public String second;
+
+        @Param({"1", "32", "256"})
+        public int prefetch;
+
+        Scheduler firstScheduler;
+        Scheduler secondScheduler;
+
+        @Setup
+        public void setUp() {
+            firstScheduler = scheduler(first);
+            secondScheduler = scheduler(second);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Hops {
+        public long crossThread;
+        public long workerChanges;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            crossThread = 0;
+            workerChanges = 0;
+        }
+    }
+
+    @Benchmark
+    public Integer noHop(Hops hops) {
+        return map2(map1(Flux.range(0, ELEMENTS)), hops).blockLast();
+    }
+
+    @Benchmark
+    public Integer subscribeOn(OneHop hop, Hops hops) {
+        return map2(map1(Flux.range(0, ELEMENTS)).subscribeOn(hop.secondScheduler), hops).blockLast();
+    }
+
+    @Benchmark
+    public Integer publishOn(PrefetchedHop hop, Hops hops) {
+        return map2(map1(Flux.range(0, ELEMENTS)).publishOn(hop.secondScheduler, hop.prefetch), hops).blockLast();
+    }
+
+    @Benchmark
+    public Integer multipleSubscribeOn(TwoHops hop, Hops hops) {
+        return map2(map1(Flux.range(0, ELEMENTS).subscribeOn(hop.firstScheduler)).subscribeOn(hop.secondScheduler),
+                hops)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer multiplePublishOn(PrefetchedTwoHops hop, Hops hops) {
+        return map2(map1(Flux.range(0, ELEMENTS).publishOn(hop.firstScheduler, hop.prefetch))
+                .publishOn(hop.secondScheduler, hop.prefetch), hops)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer publishAndSubscribeOn(PrefetchedTwoHops hop, Hops hops) {
+        return map2(map1(Flux.range(0, ELEMENTS).publishOn(hop.firstScheduler, hop.prefetch))
+                .subscribeOn(hop.secondScheduler), hops)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer subscribeAndPublishOn(PrefetchedTwoHops hop, Hops hops) {
+        return map2(map1(Flux.range(0, ELEMENTS).subscribeOn(hop.firstScheduler))
+                .publishOn(hop.secondScheduler, hop.prefetch), hops)
+                .blockLast();
+    }
+
+    private Flux<Integer> map1(Flux<Integer> flux) {
+        return flux.map(i -> {
+            map1Threads[i] = Thread.currentThread();
+            return i;
+        });
+    }
+
+    private Flux<Integer> map2(Flux<Integer> flux, Hops hops) {
+        return flux.map(i -> {
+            Thread current = Thread.currentThread();
+            if (map1Threads[i] != current) {
+                hops.crossThread++;
+            }
+            if (lastMap2Thread != current) {
+                hops.workerChanges++;
+                lastMap2Thread = current;
+            }
+            return i;
+        });
+    }
+
+    static Scheduler scheduler(String name) {
+        return switch (name) {
+            case "single" -> Schedulers.single();
+            case "boundedElastic" -> Schedulers.boundedElastic();
+            case "parallel" -> Schedulers.parallel();
+            default -> throw new IllegalArgumentException("Unknown scheduler " + name);
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.backpressure.SpillSerializer;
+import academy.devdojo.reactive.backpressure.SpillingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Rajada de ELEMENTS strings de `payloadBytes` sem nenhuma demanda (spill), depois consumo de tudo (replay).
+ * O SpillingBuffer guarda 1024 elementos no heap e o resto em segmentos de 16MB; o onBackpressureBuffer
+ * guarda tudo no heap e serve de teto. No spill a rajada e cancelada no fim, o que apaga os segmentos;
+ * no replay a rajada e montada fora da medicao, em @Setup(Level.Invocation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(SpillingBufferBenchmark.ELEMENTS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpillingBufferBenchmark {
+
+    static final int ELEMENTS = 100_000;
+
+    @Param({"64", "1024"})
+    public int payloadBytes;
+
+    private Path directory;
+    private Flux<String> source;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("spill-benchmark");
+        String payload = "x".repeat(payloadBytes);
+        source = Flux.range(0, ELEMENTS).map(i -> payload);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class SpilledBurst {
+        Parked parked;
+
+        @Setup(Level.Invocation)
+        public void burst(SpillingBufferBenchmark benchmark) {
+            parked = benchmark.burst(benchmark.spilling());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class HeapBurst {
+        Parked parked;
+
+        @Setup(Level.Invocation)
+        public void burst(SpillingBufferBenchmark benchmark) {
+            parked = benchmark.burst(benchmark.source.onBackpressureBuffer());
+        }
+    }
+
+    @Benchmark
+    public Parked spill() {
+        Parked parked = burst(spilling());
+        parked.cancel();
+        return parked;
+    }
+
+    @Benchmark
+    public Parked heapBufferSpill() {
+        Parked parked = burst(source.onBackpressureBuffer());
+        parked.cancel();
+        return parked;
+    }
+
+    @Benchmark
+    public long replay(SpilledBurst burst) {
+        return burst.parked.drain();
+    }
+
+    @Benchmark
+    public long heapBufferReplay(HeapBurst burst) {
+        return burst.parked.drain();
+    }
+
+    Publisher<String> spilling() {
+        return source.transform(new SpillingBuffer<>(1024, SpillSerializer.utf8(), directory, 16 * 1024 * 1024));
+    }
+
+    // a fonte e sincrona: quando o subscribe volta, a rajada inteira ja esta no buffer
+    Parked burst(Publisher<String> buffered) {
+        Parked parked = new Parked();
+        buffered.subscribe(parked);
+        return parked;
+    }
+
+    public static final class Parked extends BaseSubscriber<String> {
+        private long bytes;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // nada pedido ate o drain
+        }
+
+        @Override
+        protected void hookOnNext(String value) {
+            bytes += value.length();
+        }
+
+        long drain() {
+            request(Long.MAX_VALUE);
+            return bytes;
+        }
+    }
+}
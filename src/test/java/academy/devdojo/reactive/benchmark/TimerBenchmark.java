@@ -0,0 +1,98 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.scheduler.TimingWheelScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Timers de timeout por requisicao: com `pending` timers ja armados (30s a 10min no futuro), mede agendar e
+ * cancelar um timer de 1s a 30s, que e o destino da maioria dos timeouts. "parallel" e um Schedulers.newParallel,
+ * cujos workers usam ScheduledThreadPoolExecutor; "wheel" e o TimingWheelScheduler. Rode com -prof gc para ver
+ * a alocacao e o tempo de GC por timer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TimerBenchmark {
+
+    static final int BATCH = 10_000;
+    static final Runnable NOOP = () -> {
+    };
+
+    @Param({"parallel", "wheel"})
+    public String scheduler;
+
+    @Param({"1000000"})
+    public int pending;
+
+    private Scheduler timers;
+    private Disposable[] preloaded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timers = scheduler.equals("wheel") ? new TimingWheelScheduler("timers") : Schedulers.newParallel("timers");
+        preloaded = new Disposable[pending];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < pending; i++) {
+            preloaded[i] = timers.schedule(NOOP, random.nextLong(30_000, 600_000), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Disposable timer : preloaded) {
+            timer.dispose();
+        }
+        timers.dispose();
+    }
+
+    @State(Scope.Thread)
+    public static class Batch {
+        final Disposable[] timers = new Disposable[BATCH];
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Disposable scheduleAndCancel() {
+        Disposable timer = timers.schedule(NOOP, ThreadLocalRandom.current().nextLong(1_000, 30_000),
+                TimeUnit.MILLISECONDS);
+        timer.dispose();
+        return timer;
+    }
+
+    // rajada: BATCH timers armados de uma vez e cancelados depois, como requisicoes que respondem a tempo
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void scheduleBatchThenCancel(Batch batch) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Disposable[] armed = batch.timers;
+        for (int i = 0; i < BATCH; i++) {
+            armed[i] = timers.schedule(NOOP, random.nextLong(1_000, 30_000), TimeUnit.MILLISECONDS);
+        }
+        for (Disposable timer : armed) {
+            timer.dispose();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package academy.devdojo.reactive.benchmark;
+
+import academy.devdojo.reactive.diagnostics.SignalTracer;
+import academy.devdojo.reactive.diagnostics.TraceSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/*
+ * Custo do .log() contra o SignalTracer e contra nenhum rastreamento, num pipeline range -> map.
+ * O slf4j-simple escreve em target/jmh-trace.log para nao inundar a saida do JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(TracingBenchmark.ELEMENTS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.logFile=target/jmh-trace.log")
+public class TracingBenchmark {
+
+    static final int ELEMENTS = 1000;
+
+    private SignalTracer tracer;
+    private SignalTracer sampledTracer;
+    private SignalTracer discardingTracer;
+
+    @Setup
+    public void setUp() {
+        tracer = new SignalTracer(TraceSink.slf4j("trace"), Level.FINE, 1,
+                1 << 16, SignalTracer.DEFAULT_DRAIN_INTERVAL_MILLIS);
+        sampledTracer = new SignalTracer(TraceSink.slf4j("trace.sampled"), Level.FINE, 100,
+                1 << 16, SignalTracer.DEFAULT_DRAIN_INTERVAL_MILLIS);
+        discardingTracer = new SignalTracer(event -> { }, Level.FINE, 1,
+                1 << 16, SignalTracer.DEFAULT_DRAIN_INTERVAL_MILLIS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tracer.close();
+        sampledTracer.close();
+        discardingTracer.close();
+    }
+
+    @Benchmark
+    public void noTracing(Blackhole bh) {
+        pipeline().subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void log(Blackhole bh) {
+        pipeline().log().subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void tracer(Blackhole bh) {
+        pipeline().transform(tracer.trace("map")).subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void tracerSampled(Blackhole bh) {
+        pipeline().transform(sampledTracer.trace("map")).subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void tracerDiscardingSink(Blackhole bh) {
+        pipeline().transform(discardingTracer.trace("map")).subscribe(bh::consume);
+    }
+
+    private static Flux<Integer> pipeline() {
+        return Flux.range(0, ELEMENTS).map(i -> i + 1);
+    }
+}
@@ -0,0 +1,9 @@
+package academy.devdojo.reactive.simulation;
+
+/**
+ * One simulated request, as emitted into the pipeline under test.
+ *
+ * @param arrivedAt virtual time of arrival, in nanoseconds since the start of the run
+ */
+public record Arrival(long id, long arrivedAt) {
+}
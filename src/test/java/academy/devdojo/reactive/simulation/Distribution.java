@@ -0,0 +1,59 @@
+package academy.devdojo.reactive.simulation;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Random duration, in nanoseconds, used for inter-arrival and service times. Samples only depend on the
+ * given random, so a run with the same seed draws the same values.
+ */
+@FunctionalInterface
+public interface Distribution {
+
+    long sampleNanos(SplittableRandom random);
+
+    static Distribution fixed(Duration duration) {
+        long nanos = duration.toNanos();
+        return random -> nanos;
+    }
+
+    static Distribution uniform(Duration min, Duration max) {
+        long from = min.toNanos();
+        long to = max.toNanos();
+        if (to < from) {
+            throw new IllegalArgumentException("Expected min <= max, got " + min + " and " + max);
+        }
+        return random -> from == to ? from : random.nextLong(from, to + 1);
+    }
+
+    static Distribution exponential(Duration mean) {
+        double nanos = mean.toNanos();
+        return random -> (long) (-nanos * Math.log(1 - random.nextDouble()));
+    }
+
+    /**
+     * Inter-arrival times of a Poisson process with the given rate.
+     */
+    static Distribution poisson(double perSecond) {
+        if (perSecond <= 0) {
+            throw new IllegalArgumentException("perSecond must be positive, got " + perSecond);
+        }
+        return exponential(Duration.ofNanos((long) (1e9 / perSecond)));
+    }
+
+    /**
+     * Long-tailed latency: {@code sigma} around 0.5 gives a p99 near 3x the median, 1.0 near 10x.
+     */
+    static Distribution logNormal(Duration median, double sigma) {
+        double nanos = median.toNanos();
+        return random -> (long) (nanos * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Draws from {@code tail} with the given probability, otherwise from this distribution; e.g. a replica
+     * that is slow on 1% of the calls.
+     */
+    default Distribution withTail(double probability, Distribution tail) {
+        return random -> random.nextDouble() < probability ? tail.sampleNanos(random) : sampleNanos(random);
+    }
+}
@@ -0,0 +1,204 @@
+package academy.devdojo.reactive.simulation;
+
+import academy.devdojo.reactive.metrics.LatencyHistogram;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Load-simulation harness: pushes simulated traffic through a real Reactor pipeline on a
+ * {@link VirtualTimeScheduler}, the way {@code StepVerifier.withVirtualTime} steps through
+ * {@code Flux.interval}, so hours of traffic run in seconds and the same seed gives the same report.
+ * <pre>{@code
+ * LoadSimulation simulation = new LoadSimulation(42);
+ * SimulatedService db = simulation.service("findByName", 8, Distribution.logNormal(Duration.ofMillis(20), 0.5));
+ * SimulationReport report = simulation.run(Distribution.poisson(200), Duration.ofHours(2), arrivals -> arrivals
+ *         .flatMap(a -> db.call(a).timeout(Duration.ofMillis(100)).retry(2).onErrorResume(e -> Mono.empty()), 64));
+ * }</pre>
+ * While the run lasts the virtual clock replaces every {@code Schedulers} factory, so {@code publishOn},
+ * {@code timeout}, {@code delayElements} and friends in the pipeline all run on it, on the calling thread.
+ * Arrivals are only emitted when the pipeline has demand for them; the others count as rejected, like
+ * clients that do not wait for backpressure. Each service contributes {@code <name>.queued} and
+ * {@code <name>.busy} gauges.
+ * <p>
+ * A simulation runs once: services keep their counters for the report. Like {@code StepVerifier}, it
+ * lives in the test sources, since it needs reactor-test.
+ */
+public final class LoadSimulation {
+
+    public static final Duration DEFAULT_SAMPLE_INTERVAL = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+    private final SplittableRandom random;
+    private final Map<String, LongSupplier> gauges = new LinkedHashMap<>();
+    private boolean started;
+
+    public LoadSimulation(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public SimulatedService service(String name, int servers, Distribution serviceTime) {
+        return service(name, servers, serviceTime, 0);
+    }
+
+    public SimulatedService service(String name, int servers, Distribution serviceTime, double failureRate) {
+        SimulatedService service = new SimulatedService(this, name, servers, serviceTime, failureRate);
+        gauge(name + ".queued", service::queued);
+        gauge(name + ".busy", service::busy);
+        return service;
+    }
+
+    /**
+     * Samples {@code value} every sample interval of the run, e.g. the size of a buffer in the pipeline.
+     */
+    public void gauge(String name, LongSupplier value) {
+        if (gauges.putIfAbsent(name, value) != null) {
+            throw new IllegalArgumentException("Gauge " + name + " already registered");
+        }
+    }
+
+    public SimulationReport run(Distribution interArrivals, Duration duration,
+                                Function<Flux<Arrival>, ? extends Publisher<Arrival>> pipeline) {
+        return run(interArrivals, duration, pipeline, DEFAULT_SAMPLE_INTERVAL, DEFAULT_DRAIN_TIMEOUT);
+    }
+
+    /**
+     * @param duration       arrivals are generated during this much virtual time
+     * @param sampleInterval virtual time between gauge samples
+     * @param drainTimeout   virtual time allowed after the last arrival for the pipeline to finish
+     */
+    public SimulationReport run(Distribution interArrivals, Duration duration,
+                                Function<Flux<Arrival>, ? extends Publisher<Arrival>> pipeline,
+                                Duration sampleInterval, Duration drainTimeout) {
+        if (started) {
+            throw new IllegalStateException("A LoadSimulation can only run once");
+        }
+        started = true;
+        long wallStart = System.nanoTime();
+        Run run = new Run(interArrivals, duration.toNanos());
+        VirtualTimeScheduler.set(clock);
+        try {
+            return run.execute(pipeline, sampleInterval.toNanos(), duration.plus(drainTimeout).toNanos(), wallStart);
+        } finally {
+            VirtualTimeScheduler.reset();
+        }
+    }
+
+    VirtualTimeScheduler clock() {
+        return clock;
+    }
+
+    SplittableRandom random() {
+        return random;
+    }
+
+    long now() {
+        return clock.now(TimeUnit.NANOSECONDS);
+    }
+
+    private final class Run implements Consumer<FluxSink<Arrival>>, Runnable {
+        private final Distribution interArrivals;
+        private final long end;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final Map<String, long[]> samples = new LinkedHashMap<>();
+        private FluxSink<Arrival> sink;
+        private Disposable nextArrival;
+        private long sampleCount;
+        private long arrivals;
+        private long completed;
+        private long rejected;
+        private long discarded;
+        private Throwable error;
+        private boolean terminated;
+
+        Run(Distribution interArrivals, long end) {
+            this.interArrivals = interArrivals;
+            this.end = end;
+        }
+
+        SimulationReport execute(Function<Flux<Arrival>, ? extends Publisher<Arrival>> pipeline,
+                                 long sampleInterval, long limit, long wallStart) {
+            long start = now();
+            gauges.keySet().forEach(name -> samples.put(name, new long[3]));
+            Disposable sampler = clock.schedulePeriodically(this::sample, 0, sampleInterval, TimeUnit.NANOSECONDS);
+            Disposable subscription = Flux.from(pipeline.apply(Flux.create(this, FluxSink.OverflowStrategy.ERROR)))
+                    .doOnDiscard(Arrival.class, a -> discarded++)
+                    .subscribe(this::complete, e -> {
+                        error = e;
+                        terminated = true;
+                    }, () -> terminated = true);
+            while (!terminated && now() - start < limit) {
+                clock.advanceTimeBy(Duration.ofNanos(Math.min(sampleInterval, limit - (now() - start))));
+            }
+            sampler.dispose();
+            subscription.dispose();
+
+            Map<String, SimulationReport.Gauge> stats = new LinkedHashMap<>();
+            samples.forEach((name, s) -> stats.put(name, new SimulationReport.Gauge(s[0],
+                    sampleCount == 0 ? 0 : (double) s[1] / sampleCount, s[2])));
+            return new SimulationReport(Duration.ofNanos(now() - start), Duration.ofNanos(System.nanoTime() - wallStart),
+                    arrivals, completed, rejected, discarded, arrivals - completed - rejected - discarded, error,
+                    latency.snapshot(), stats);
+        }
+
+        @Override
+        public void accept(FluxSink<Arrival> sink) {
+            this.sink = sink;
+            sink.onDispose(() -> {
+                if (nextArrival != null) {
+                    nextArrival.dispose();
+                }
+            });
+            scheduleNext();
+        }
+
+        @Override
+        public void run() {
+            Arrival arrival = new Arrival(arrivals++, now());
+            if (sink.requestedFromDownstream() > 0) {
+                sink.next(arrival);
+            } else {
+                rejected++;
+            }
+            scheduleNext();
+        }
+
+        private void scheduleNext() {
+            long delay = interArrivals.sampleNanos(random);
+            if (now() + delay >= end) {
+                nextArrival = clock.schedule(sink::complete, end - now(), TimeUnit.NANOSECONDS);
+                return;
+            }
+            nextArrival = clock.schedule(this, delay, TimeUnit.NANOSECONDS);
+        }
+
+        private void complete(Arrival arrival) {
+            completed++;
+            latency.record(now() - arrival.arrivedAt());
+        }
+
+        // {max, soma, ultimo} por gauge
+        private void sample() {
+            sampleCount++;
+            gauges.forEach((name, value) -> {
+                long[] s = samples.get(name);
+                long v = value.getAsLong();
+                s[0] = Math.max(s[0], v);
+                s[1] += v;
+                s[2] = v;
+            });
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package academy.devdojo.reactive.simulation;
+
+import academy.devdojo.reactive.metrics.LatencyHistogram;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remote dependency with {@code servers} parallel workers and a FIFO queue in front of them, answering on
+ * the virtual clock of its {@link LoadSimulation}. A call takes a sample of the service-time distribution
+ * once it reaches a worker, and fails with {@link SimulatedFailure} with probability {@code failureRate}.
+ * Cancelling a call, e.g. from {@code timeout}, frees its queue slot or worker.
+ * <p>
+ * Not thread-safe: everything runs on the thread that advances the virtual clock.
+ */
+public final class SimulatedService {
+
+    private final LoadSimulation simulation;
+    private final String name;
+    private final int servers;
+    private final Distribution serviceTime;
+    private final double failureRate;
+    // chamadas canceladas na fila ficam ate o dispatch passar por elas
+    private final Queue<Call<?>> queue = new ArrayDeque<>();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private int queued;
+    private int busy;
+    private long calls;
+    private long completed;
+    private long failed;
+    private long cancelled;
+
+    SimulatedService(LoadSimulation simulation, String name, int servers, Distribution serviceTime,
+                     double failureRate) {
+        if (servers < 1 || failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Expected servers >= 1 and 0 <= failureRate <= 1, got "
+                    + servers + " and " + failureRate);
+        }
+        this.simulation = simulation;
+        this.name = name;
+        this.servers = servers;
+        this.serviceTime = serviceTime;
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Emits {@code value} once a worker has served the call.
+     */
+    public <T> Mono<T> call(T value) {
+        return Mono.create(sink -> {
+            Call<T> call = new Call<>(value, sink);
+            sink.onCancel(call::cancel);
+            calls++;
+            queued++;
+            queue.offer(call);
+            dispatch();
+        });
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int queued() {
+        return queued;
+    }
+
+    public int busy() {
+        return busy;
+    }
+
+    public long calls() {
+        return calls;
+    }
+
+    public long completed() {
+        return completed;
+    }
+
+    public long failed() {
+        return failed;
+    }
+
+    public long cancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Time calls spent in the queue before reaching a worker, in virtual nanoseconds.
+     */
+    public LatencyHistogram.Snapshot queueWait() {
+        return queueWait.snapshot();
+    }
+
+    private void dispatch() {
+        while (busy < servers) {
+            Call<?> call = queue.poll();
+            if (call == null) {
+                return;
+            }
+            if (call.state == Call.WAITING) {
+                queued--;
+                busy++;
+                call.start();
+            }
+        }
+    }
+
+    private final class Call<T> {
+        static final int WAITING = 0;
+        static final int RUNNING = 1;
+        static final int DONE = 2;
+
+        private final T value;
+        private final MonoSink<T> sink;
+        private final long enqueuedAt;
+        private Disposable task;
+        int state = WAITING;
+
+        Call(T value, MonoSink<T> sink) {
+            this.value = value;
+            this.sink = sink;
+            this.enqueuedAt = simulation.now();
+        }
+
+        void start() {
+            state = RUNNING;
+            queueWait.record(simulation.now() - enqueuedAt);
+            task = simulation.clock().schedule(this::finish, serviceTime.sampleNanos(simulation.random()),
+                    TimeUnit.NANOSECONDS);
+        }
+
+        void finish() {
+            if (state != RUNNING) {
+                return;
+            }
+            state = DONE;
+            busy--;
+            if (failureRate > 0 && simulation.random().nextDouble() < failureRate) {
+                failed++;
+                sink.error(new SimulatedFailure(name));
+            } else {
+                completed++;
+                sink.success(value);
+            }
+            dispatch();
+        }
+
+        void cancel() {
+            if (state == WAITING) {
+                queued--;
+            } else if (state == RUNNING) {
+                task.dispose();
+                busy--;
+            } else {
+                return;
+            }
+            state = DONE;
+            cancelled++;
+            dispatch();
+        }
+    }
+
+    public static final class SimulatedFailure extends RuntimeException {
+        SimulatedFailure(String service) {
+            super(service + " failed");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package academy.devdojo.reactive.simulation;
+
+import academy.devdojo.reactive.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of a {@link LoadSimulation} run. Times are virtual except {@code wallClock}.
+ *
+ * @param rejected  arrivals the pipeline had no demand for, dropped at the source
+ * @param discarded arrivals discarded inside the pipeline, e.g. by {@code onBackpressureDrop}
+ * @param lost      arrivals that neither completed nor were rejected or discarded: errors swallowed by
+ *                  the pipeline, filtered out, or still in flight when the run stopped
+ * @param error     error that terminated the pipeline, {@code null} if it completed or was still running
+ * @param latency   arrival to emission by the pipeline, for completed arrivals
+ * @param gauges    queue depths and custom gauges, sampled at a fixed virtual interval
+ */
+public record SimulationReport(Duration simulated,
+                               Duration wallClock,
+                               long arrivals,
+                               long completed,
+                               long rejected,
+                               long discarded,
+                               long lost,
+                               Throwable error,
+                               LatencyHistogram.Snapshot latency,
+                               Map<String, Gauge> gauges) {
+
+    public Gauge gauge(String name) {
+        Gauge gauge = gauges.get(name);
+        if (gauge == null) {
+            throw new IllegalArgumentException("Unknown gauge " + name + ", expected one of " + gauges.keySet());
+        }
+        return gauge;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("simulated %s in %dms: arrivals=%d completed=%d rejected=%d discarded=%d lost=%d"
+                        + " latency p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms%s%s",
+                simulated, wallClock.toMillis(), arrivals, completed, rejected, discarded, lost,
+                millis(latency.percentile(50)), millis(latency.percentile(99)), millis(latency.percentile(99.9)),
+                millis(latency.max()),
+                gauges.entrySet().stream().map(e -> " " + e.getKey() + "=" + e.getValue()).collect(Collectors.joining()),
+                error == null ? "" : " error=" + error);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * @param mean average of the samples, i.e. the time-weighted mean depth
+     */
+    public record Gauge(long max, double mean, long last) {
+
+        @Override
+        public String toString() {
+            return String.format("{max=%d mean=%.2f}", max, mean);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.backpressure.AdaptiveBatchSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class AdaptiveBatchSubscriberTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void fastConsumerGrowsBatch() {
+        List<Long> requests = new ArrayList<>();
+        AtomicLong sum = new AtomicLong();
+        AdaptiveBatchSubscriber<Integer> subscriber = new AdaptiveBatchSubscriber<>(i -> sum.addAndGet(i),
+                1, 256, Duration.ofSeconds(1));
+
+        Flux.range(1, 10_000)
+                .doOnRequest(requests::add)
+                .subscribe(subscriber);
+
+        log.info("Batch {} after {} request calls", subscriber.currentBatch(), subscriber.requestCalls());
+        Assertions.assertEquals(50_005_000L, sum.get());
+        Assertions.assertEquals(10_000, subscriber.received());
+        Assertions.assertEquals(256, subscriber.currentBatch());
+        Assertions.assertTrue(requests.size() < 10_000 / 2, "fewer requests than the fixed batch of 2");
+        Assertions.assertTrue(requests.stream().allMatch(n -> n <= 256));
+    }
+
+    @Test
+    public void slowConsumerShrinksBatch() {
+        AdaptiveBatchSubscriber<Integer> subscriber = new AdaptiveBatchSubscriber<>(i -> sleep(),
+                1, 64, Duration.ofNanos(1));
+
+        Flux.range(1, 50)
+                .subscribe(subscriber);
+
+        Assertions.assertEquals(50, subscriber.received());
+        Assertions.assertEquals(1, subscriber.currentBatch());
+    }
+
+    @Test
+    public void batchFollowsLoadChanges() {
+        AtomicLong slowUntil = new AtomicLong(100);
+        AdaptiveBatchSubscriber<Integer> subscriber = new AdaptiveBatchSubscriber<>(i -> {
+            if (i <= slowUntil.get()) {
+                sleep();
+            }
+        }, 1, 128, Duration.ofMillis(2));
+
+        Flux.range(1, 20_000)
+                .subscribe(subscriber);
+
+        Assertions.assertEquals(20_000, subscriber.received());
+        Assertions.assertEquals(128, subscriber.currentBatch());
+    }
+
+    @Test
+    public void rejectsInvalidBounds() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchSubscriber<>(i -> { }, 8, 4, Duration.ofMillis(1)));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.cache.AsyncCache;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class AsyncCacheTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void concurrentGetsShareOneLookup() {
+        AtomicInteger lookups = new AtomicInteger();
+        AsyncCache<String, String> cache = new AsyncCache<>(name -> Mono.fromSupplier(lookups::incrementAndGet)
+                .delayElement(Duration.ofMillis(50))
+                .map(i -> "name" + name), 100, Duration.ofMinutes(1));
+
+        StepVerifier
+                .create(Flux.range(0, 100).flatMap(i -> cache.get("A")))
+                .expectNextCount(100)
+                .verifyComplete();
+
+        Assertions.assertEquals(1, lookups.get());
+        Assertions.assertEquals(1, cache.misses());
+        Assertions.assertEquals(99, cache.coalesced());
+    }
+
+    @Test
+    public void deferRunsTheLookupOnEverySubscribe() {
+        // referencia: o que o cache evita
+        AtomicInteger lookups = new AtomicInteger();
+        Mono<Integer> deferred = Mono.defer(() -> Mono.just(lookups.incrementAndGet()));
+
+        StepVerifier
+                .create(Flux.range(0, 10).flatMap(i -> deferred))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        Assertions.assertEquals(10, lookups.get());
+    }
+
+    @Test
+    public void valuesExpireAfterTtl() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        AsyncCache<String, Integer> cache = new AsyncCache<>(name -> Mono.fromSupplier(lookups::incrementAndGet),
+                100, Duration.ofMillis(100));
+
+        Assertions.assertEquals(1, cache.get("A").block());
+        Assertions.assertEquals(1, cache.get("A").block());
+        Thread.sleep(150);
+        Assertions.assertEquals(2, cache.get("A").block());
+
+        Assertions.assertEquals(1, cache.hits());
+        Assertions.assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void lookupPendingPastTtlIsReplaced() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        AsyncCache<String, Integer> cache = new AsyncCache<>(name -> lookups.incrementAndGet() == 1
+                ? Mono.never()
+                : Mono.just(lookups.get()), 100, Duration.ofMillis(100));
+
+        Mono<Integer> stuck = cache.get("A");
+        Assertions.assertSame(stuck, cache.get("A"));
+        Thread.sleep(150);
+
+        StepVerifier.create(cache.get("A")).expectNext(2).verifyComplete();
+        StepVerifier.create(cache.get("A")).expectNext(2).verifyComplete();
+        Assertions.assertEquals(2, cache.misses());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void hitAfterRefreshAgeReloadsInTheBackground() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        AsyncCache<String, Integer> cache = new AsyncCache<>(name -> Mono.fromSupplier(lookups::incrementAndGet),
+                100, Duration.ofMinutes(1), Duration.ofMillis(50));
+
+        Assertions.assertEquals(1, cache.get("A").block());
+        Thread.sleep(80);
+        // o valor antigo sai na hora e o lookup roda por tras
+        Assertions.assertEquals(1, cache.get("A").block());
+        Assertions.assertEquals(2, cache.get("A").block());
+
+        Assertions.assertEquals(1, cache.refreshes());
+        Assertions.assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void errorsAndEmptyResultsAreNotCached() {
+        AtomicInteger lookups = new AtomicInteger();
+        AsyncCache<String, Integer> cache = new AsyncCache<>(name -> {
+            int call = lookups.incrementAndGet();
+            if (call == 1) {
+                return Mono.error(new IllegalStateException("lookup down"));
+            }
+            return call == 2 ? Mono.empty() : Mono.just(call);
+        }, 100, Duration.ofMinutes(1));
+
+        StepVerifier.create(cache.get("A")).expectError(IllegalStateException.class).verify();
+        StepVerifier.create(cache.get("A")).verifyComplete();
+        StepVerifier.create(cache.get("A")).expectNext(3).verifyComplete();
+        StepVerifier.create(cache.get("A")).expectNext(3).verifyComplete();
+
+        Assertions.assertEquals(3, lookups.get());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void scanOfColdKeysDoesNotEvictHotOnes() {
+        AsyncCache<Integer, Integer> cache = new AsyncCache<>(i -> Mono.just(i * 2), 100, Duration.ofMinutes(1));
+        for (int round = 0; round < 20; round++) {
+            for (int hot = 0; hot < 50; hot++) {
+                cache.get(hot).block();
+            }
+        }
+        for (int cold = 1_000; cold < 2_000; cold++) {
+            cache.get(cold).block();
+        }
+        long hitsBefore = cache.hits();
+        for (int hot = 0; hot < 50; hot++) {
+            cache.get(hot).block();
+        }
+
+        log.info("size {} evictions {} hot hits after the scan {}", cache.size(), cache.evictions(),
+                cache.hits() - hitsBefore);
+        Assertions.assertTrue(cache.size() <= 100);
+        Assertions.assertTrue(cache.hits() - hitsBefore >= 45, "hot hits " + (cache.hits() - hitsBefore));
+    }
+
+    @Test
+    public void invalidateForcesALookup() {
+        AtomicInteger lookups = new AtomicInteger();
+        AsyncCache<String, Integer> cache = new AsyncCache<>(name -> Mono.fromSupplier(lookups::incrementAndGet),
+                100, Duration.ofMinutes(1));
+
+        Assertions.assertEquals(1, cache.get("A").block());
+        cache.invalidate("A");
+        Assertions.assertEquals(2, cache.get("A").block());
+    }
+}
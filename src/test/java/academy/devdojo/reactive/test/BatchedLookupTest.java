@@ -0,0 +1,144 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.lookup.BatchedLookup;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class BatchedLookupTest {
+
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void orderedBatchKeepsKeyOrderWithOneCall() {
+        BatchedLookup<String, String> lookup = new BatchedLookup<>(this::findAllByName,
+                10, Duration.ofMillis(50), 4, 1);
+
+        Flux<String> flatFlux = Flux.just("a", "b")
+                .map(String::toUpperCase)
+                .transform(lookup.ordered())
+                .log();
+
+        StepVerifier
+                .create(flatFlux)
+                .expectSubscription()
+                .expectNext("nameA1", "nameA2", "nameB1", "nameB2")
+                .verifyComplete();
+
+        Assertions.assertEquals(List.of(List.of("A", "B")), calls);
+    }
+
+    @Test
+    public void unorderedEmitsFastBatchesFirst() {
+        // lote de 1 chave: mesmo comportamento do flatMap(this::findByName)
+        BatchedLookup<String, String> lookup = new BatchedLookup<>(this::findAllByName,
+                1, Duration.ofMillis(50), 4, 1);
+
+        Flux<String> flatFlux = Flux.just("A", "B")
+                .transform(lookup.unordered());
+
+        StepVerifier
+                .create(flatFlux)
+                .expectNext("nameB1", "nameB2", "nameA1", "nameA2")
+                .verifyComplete();
+
+        Assertions.assertEquals(2, calls.size());
+    }
+
+    @Test
+    public void orderedWaitsForSlowBatch() {
+        BatchedLookup<String, String> lookup = new BatchedLookup<>(this::findAllByName,
+                1, Duration.ofMillis(50), 4, 1);
+
+        StepVerifier
+                .create(Flux.just("A", "B").transform(lookup.ordered()))
+                .expectNext("nameA1", "nameA2", "nameB1", "nameB2")
+                .verifyComplete();
+    }
+
+    @Test
+    public void duplicateKeysAreLookedUpOnceAndFannedOut() {
+        BatchedLookup<String, String> lookup = new BatchedLookup<>(this::findAllByName,
+                10, Duration.ofMillis(50), 4, 1);
+
+        StepVerifier
+                .create(Flux.just("B", "C", "B").transform(lookup.ordered()))
+                .expectNext("nameB1", "nameB2", "nameB1", "nameB2")
+                .verifyComplete();
+
+        Assertions.assertEquals(List.of(List.of("B", "C")), calls);
+    }
+
+    @Test
+    public void partialBatchIsFlushedAfterMaxWait() {
+        BatchedLookup<String, String> lookup = new BatchedLookup<>(this::findAllByName,
+                10, Duration.ofMillis(50), 4, 1);
+
+        StepVerifier
+                .create(Flux.just("B").concatWith(Flux.never()).transform(lookup.ordered()))
+                .expectNext("nameB1", "nameB2")
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void concurrencyLimitsLookupsInFlight() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        BatchedLookup<Integer, Integer> lookup = new BatchedLookup<>(keys -> Mono.defer(() -> {
+                    peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    Map<Integer, List<Integer>> found = new HashMap<>();
+                    keys.forEach(k -> found.put(k, List.of(k * 10)));
+                    return Mono.just(found).delayElement(Duration.ofMillis(10))
+                            .doOnNext(m -> active.decrementAndGet());
+                }),
+                5, Duration.ofMillis(50), 2, 1);
+
+        StepVerifier
+                .create(Flux.range(1, 100).transform(lookup.unordered()))
+                .expectNextCount(100)
+                .verifyComplete();
+
+        log.info("Peak lookups in flight {}", peak.get());
+        Assertions.assertTrue(peak.get() <= 2, "peak " + peak.get());
+    }
+
+    @Test
+    public void lookupErrorIsPropagated() {
+        BatchedLookup<String, String> lookup = new BatchedLookup<>(keys -> Mono.error(new IllegalStateException("backend down")));
+
+        StepVerifier
+                .create(Flux.just("A", "B").transform(lookup.ordered()))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    public Mono<Map<String, List<String>>> findAllByName(List<String> names) {
+        calls.add(List.copyOf(names));
+        Map<String, List<String>> found = new HashMap<>();
+        for (String name : names) {
+            if (!name.equals("C")) {
+                found.put(name, List.of("name" + name + "1", "name" + name + "2"));
+            }
+        }
+        return names.contains("A") ? Mono.just(found).delayElement(Duration.ofMillis(100)) : Mono.just(found);
+    }
+}
@@ -0,0 +1,138 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.diagnostics.BlockingProfiler;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+public class BlockingProfilerTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void blockingCallsAreReportedInsteadOfFailing() {
+        List<BlockingProfiler.CallSite> report;
+        try (BlockingProfiler profiler = BlockingProfiler.start()) {
+            Flux<Integer> flux = Flux.range(1, 5)
+                    .concatMap(i -> Mono.fromCallable(() -> sleepy(i)).subscribeOn(Schedulers.parallel()));
+
+            StepVerifier.create(flux)
+                    .expectNext(1, 2, 3, 4, 5)
+                    .verifyComplete();
+
+            log.info("{}", profiler);
+            report = profiler.report();
+            // o JDK pode passar por mais de um metodo bloqueante no mesmo sleep
+            Assertions.assertTrue(profiler.calls() >= 5);
+        }
+
+        BlockingProfiler.CallSite top = report.get(0);
+        Assertions.assertTrue(top.location().contains("sleepy"), top.location());
+        Assertions.assertTrue(top.blockingMethod().contains("sleep"), top.blockingMethod());
+        Assertions.assertEquals(top.calls(), top.pools().get("parallel"));
+        Assertions.assertEquals(top.calls(), top.timedCalls());
+        Assertions.assertTrue(top.latency().max() >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assertions.assertTrue(top.blockedNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void callSitesAreRankedByTimeBlocked() {
+        try (BlockingProfiler profiler = BlockingProfiler.start()) {
+            Flux.range(0, 3)
+                    .flatMap(i -> Mono.fromCallable(() -> sleepy(1)).subscribeOn(Schedulers.parallel()))
+                    .then(Mono.fromCallable(this::shortNap).subscribeOn(Schedulers.parallel()))
+                    .block(Duration.ofSeconds(10));
+
+            List<BlockingProfiler.CallSite> report = profiler.report();
+            Assertions.assertEquals(2, report.size());
+            Assertions.assertTrue(report.get(0).location().contains("sleepy"));
+            Assertions.assertTrue(report.get(1).location().contains("shortNap"));
+            Assertions.assertTrue(profiler.histogram().count() >= 4);
+        }
+    }
+
+    @Test
+    public void callsOutsideProfiledTasksAreNotTimed() throws Exception {
+        Scheduler single = Schedulers.newSingle("untracked");
+        AtomicBoolean started = new AtomicBoolean();
+        FutureTask<Integer> untracked = new FutureTask<>(() -> {
+            // espera ocupada: um await seria ele mesmo uma chamada bloqueante
+            while (!started.get()) {
+                Thread.onSpinWait();
+            }
+            return shortNap();
+        });
+        try {
+            // agendada antes do start, sem o hook: a chamada nao tem fim de tarefa para medir
+            single.schedule(untracked);
+            try (BlockingProfiler profiler = BlockingProfiler.start()) {
+                started.set(true);
+                untracked.get(10, TimeUnit.SECONDS);
+                Thread.sleep(100);
+                // a proxima tarefa da mesma thread nao pode fechar a chamada que sobrou
+                FutureTask<Integer> tracked = new FutureTask<>(() -> 0);
+                single.schedule(tracked);
+                tracked.get(10, TimeUnit.SECONDS);
+
+                BlockingProfiler.CallSite site = profiler.report().get(0);
+                Assertions.assertTrue(site.location().contains("shortNap"), site.location());
+                Assertions.assertTrue(site.calls() >= 1);
+                Assertions.assertEquals(0, site.timedCalls());
+                Assertions.assertEquals(0, profiler.histogram().count());
+            }
+        } finally {
+            single.dispose();
+        }
+    }
+
+    @Test
+    public void blockHoundFailsAgainAfterClose() throws Exception {
+        BlockingProfiler.start().close();
+
+        FutureTask<?> task = new FutureTask<>(() -> {
+            Thread.sleep(0);
+            return "";
+        });
+        Schedulers.parallel().schedule(task);
+
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> task.get(10, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(BlockingOperationError.class, e.getCause());
+    }
+
+    @Test
+    public void onlyOneProfilerRunsAtATime() {
+        try (BlockingProfiler ignored = BlockingProfiler.start()) {
+            Assertions.assertThrows(IllegalStateException.class, BlockingProfiler::start);
+        }
+    }
+
+    private Integer sleepy(int i) throws InterruptedException {
+        Thread.sleep(20);
+        return i;
+    }
+
+    private Integer shortNap() throws InterruptedException {
+        Thread.sleep(1);
+        return 0;
+    }
+}
@@ -0,0 +1,163 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.backpressure.BoundedOrderedFlatMap;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.util.RaceTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+public class BoundedOrderedFlatMapTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void keepsOrderLikeFlatMapSequential() {
+        Flux<String> flatFlux = Flux.just("a", "b")
+                .map(String::toUpperCase)
+                .transform(new BoundedOrderedFlatMap<>(this::findByName, 2, 4))
+                .log();
+
+        StepVerifier
+                .create(flatFlux)
+                .expectSubscription()
+                .expectNext("nameA1", "nameA2", "nameB1", "nameB2")
+                .verifyComplete();
+    }
+
+    @Test
+    public void slowHeadDoesNotGrowBufferPastCap() {
+        AtomicLong upstreamRequested = new AtomicLong();
+        BoundedOrderedFlatMap<Integer, Integer> flatMap = new BoundedOrderedFlatMap<>(this::skewed,
+                8, 4, 32, i -> 1, Long.MAX_VALUE);
+
+        Flux<Integer> flux = Flux.range(0, 100)
+                .doOnRequest(upstreamRequested::addAndGet)
+                .transform(flatMap);
+
+        StepVerifier
+                .create(flux)
+                .expectNextSequence(expected(100))
+                .verifyComplete();
+
+        log.info("Peak buffered {}, upstream requested {}", flatMap.peakBufferedElements(), upstreamRequested.get());
+        Assertions.assertTrue(flatMap.peakBufferedElements() <= 32 + 4, "peak " + flatMap.peakBufferedElements());
+        Assertions.assertEquals(0, flatMap.bufferedElements());
+    }
+
+    @Test
+    public void flatMapSequentialBuffersEveryEarlyFinisher() {
+        // referencia: o head atrasado faz o flatMapSequential guardar tudo que os outros ja produziram
+        AtomicLong innerElements = new AtomicLong();
+        Flux<Integer> flux = Flux.range(0, 100)
+                .flatMapSequential(i -> skewed(i).doOnNext(v -> innerElements.incrementAndGet()), 8, 32);
+
+        StepVerifier
+                .create(flux, 0)
+                .thenAwait(Duration.ofMillis(50))
+                .then(() -> Assertions.assertTrue(innerElements.get() > 36, "buffered " + innerElements.get()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void weightCapStopsRequestingBehindTheHead() {
+        BoundedOrderedFlatMap<Integer, String> flatMap = new BoundedOrderedFlatMap<>(
+                i -> skewed(i).map(v -> "x".repeat(100)), 8, 4, 1_000, String::length, 1_000);
+
+        StepVerifier
+                .create(Flux.range(0, 50).transform(flatMap))
+                .expectNextCount(500)
+                .verifyComplete();
+
+        log.info("Peak buffered {}", flatMap.peakBufferedElements());
+        // 1000 de peso: 10 elementos atras do head, mais um lote pedido antes de estourar e o lote do head
+        Assertions.assertTrue(flatMap.peakBufferedElements() <= 10 + 4 + 4, "peak " + flatMap.peakBufferedElements());
+    }
+
+    @Test
+    public void honoursDownstreamDemandAndReleasesOnCancel() {
+        BoundedOrderedFlatMap<Integer, Integer> flatMap = new BoundedOrderedFlatMap<>(this::skewed, 4, 16);
+
+        StepVerifier
+                .create(Flux.range(0, 100).transform(flatMap), 3)
+                .expectNext(0, 1, 2)
+                .thenAwait(Duration.ofMillis(100))
+                .then(() -> Assertions.assertTrue(flatMap.bufferedElements() > 0))
+                .thenCancel()
+                .verify();
+
+        Assertions.assertEquals(0, flatMap.bufferedElements());
+    }
+
+    @Test
+    public void valueRacingCancelIsDiscarded() {
+        BoundedOrderedFlatMap<TestPublisher<Integer>, Integer> flatMap = new BoundedOrderedFlatMap<>(p -> p, 1, 16);
+        AtomicInteger discarded = new AtomicInteger();
+
+        for (int round = 0; round < 2_000; round++) {
+            int value = round;
+            TestPublisher<Integer> inner = TestPublisher.create();
+            BaseSubscriber<Integer> subscriber = Flux.just(inner)
+                    .transform(flatMap)
+                    .doOnDiscard(Integer.class, i -> discarded.incrementAndGet())
+                    .subscribeWith(new BaseSubscriber<>() {
+                        @Override
+                        protected void hookOnSubscribe(Subscription subscription) {
+                            // nada pedido: o valor fica no buffer ate o cancel
+                        }
+                    });
+
+            RaceTestUtils.race(() -> inner.next(value), subscriber::cancel);
+
+            Assertions.assertEquals(0, flatMap.bufferedElements(), "round " + round);
+        }
+        log.info("Discarded {} values racing cancel", discarded.get());
+    }
+
+    @Test
+    public void innerErrorCancelsEverything() {
+        BoundedOrderedFlatMap<Integer, Integer> flatMap = new BoundedOrderedFlatMap<>(i -> i == 3
+                ? Flux.error(new IllegalStateException("boom"))
+                : Flux.just(i), 4, 16);
+
+        StepVerifier
+                .create(Flux.range(0, 10).transform(flatMap))
+                .expectNext(0, 1, 2)
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        Assertions.assertEquals(0, flatMap.bufferedElements());
+    }
+
+    // o inner 0 de cada grupo de 10 e lento; cada inner gera 10 elementos
+    private Flux<Integer> skewed(Integer i) {
+        Flux<Integer> values = Flux.range(i * 10, 10);
+        return i % 10 == 0 ? values.delaySubscription(Duration.ofMillis(20)) : values;
+    }
+
+    private static List<Integer> expected(int inners) {
+        return IntStream.range(0, inners * 10).boxed().collect(Collectors.toList());
+    }
+
+    public Flux<String> findByName(String name) {
+        return name.equals("A") ? Flux.just("nameA1", "nameA2").delayElements(Duration.ofMillis(100)) : Flux.just("nameB1", "nameB2");
+    }
+}
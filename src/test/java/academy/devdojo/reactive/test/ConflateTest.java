@@ -0,0 +1,156 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.combine.Conflate;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.util.RaceTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ConflateTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void latestHandsOutOnlyTheNewestValue() {
+        TestPublisher<Integer> prices = TestPublisher.create();
+
+        StepVerifier.create(Conflate.latest(prices), 0)
+                .then(() -> prices.next(1, 2, 3))
+                .expectNoEvent(Duration.ofMillis(10))
+                .thenRequest(1)
+                .expectNext(3)
+                .thenRequest(1)
+                .expectNoEvent(Duration.ofMillis(10))
+                .then(() -> prices.next(4))
+                .expectNext(4)
+                .then(prices::complete)
+                .verifyComplete();
+    }
+
+    @Test
+    public void valueRacingRequestIsEmittedOnce() {
+        for (int round = 0; round < 2_000; round++) {
+            TestPublisher<Integer> prices = TestPublisher.create();
+            List<Integer> received = new CopyOnWriteArrayList<>();
+            BaseSubscriber<Integer> subscriber = Conflate.latest(prices)
+                    .subscribeWith(new BaseSubscriber<>() {
+                        @Override
+                        protected void hookOnSubscribe(Subscription subscription) {
+                            // nada pedido: a rodada pede um valor por vez
+                        }
+
+                        @Override
+                        protected void hookOnNext(Integer value) {
+                            received.add(value);
+                        }
+                    });
+            prices.next(0);
+            subscriber.request(1);
+
+            RaceTestUtils.race(() -> prices.next(1), () -> subscriber.request(1));
+            // o valor 1 ja saiu: o pedido seguinte nao pode receber ele de novo
+            subscriber.request(1);
+
+            Assertions.assertEquals(List.of(0, 1), received, "round " + round);
+            subscriber.dispose();
+        }
+    }
+
+    @Test
+    public void combineLatestRecomputesOnEveryUpdate() {
+        // referencia: o combinador roda para cada atualizacao, mesmo sem ninguem ler
+        AtomicInteger combinations = new AtomicInteger();
+        Flux<String> combineLatest = Flux.combineLatest(Flux.just("a"), Flux.range(0, 1000),
+                (status, price) -> {
+                    combinations.incrementAndGet();
+                    return status + price;
+                });
+
+        StepVerifier.create(combineLatest.onBackpressureLatest(), 0)
+                .expectSubscription()
+                .then(() -> Assertions.assertEquals(1000, combinations.get()))
+                .thenRequest(1)
+                .expectNext("a999")
+                .verifyComplete();
+    }
+
+    @Test
+    public void conflatedCombineLatestOnlyComputesWhatIsRequested() {
+        AtomicInteger combinations = new AtomicInteger();
+        TestPublisher<Integer> prices = TestPublisher.create();
+        TestPublisher<String> statuses = TestPublisher.create();
+
+        StepVerifier.create(Conflate.combineLatest(prices, statuses, (price, status) -> {
+                    combinations.incrementAndGet();
+                    return status + price;
+                }), 0)
+                .then(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        prices.next(i);
+                    }
+                    statuses.next("open", "halted");
+                })
+                .thenRequest(1)
+                .expectNext("halted999")
+                .then(() -> prices.next(1000, 1001))
+                .thenRequest(5)
+                .expectNext("halted1001")
+                .then(() -> {
+                    prices.complete();
+                    statuses.complete();
+                })
+                .verifyComplete();
+
+        Assertions.assertEquals(2, combinations.get());
+    }
+
+    @Test
+    public void newestValuesAreEmittedBeforeCompleting() {
+        Flux<String> flux = Conflate.combineLatest(values -> values[0] + "" + values[1] + values[2],
+                Flux.just("a", "b"), Flux.just(1, 2), Flux.just('x'));
+
+        StepVerifier.create(flux)
+                .expectNext("b2x")
+                .verifyComplete();
+    }
+
+    @Test
+    public void emptySourceCompletesRightAway() {
+        TestPublisher<Integer> prices = TestPublisher.create();
+
+        StepVerifier.create(Conflate.combineLatest(prices, Flux.<String>empty(), (price, status) -> status + price))
+                .verifyComplete();
+
+        prices.assertCancelled();
+    }
+
+    @Test
+    public void errorsCancelTheOtherSources() {
+        TestPublisher<Integer> prices = TestPublisher.create();
+        TestPublisher<String> statuses = TestPublisher.create();
+
+        StepVerifier.create(Conflate.combineLatest(prices, statuses, (price, status) -> status + price))
+                .then(() -> prices.next(1))
+                .then(() -> statuses.error(new IllegalStateException("feed down")))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        prices.assertCancelled();
+    }
+}
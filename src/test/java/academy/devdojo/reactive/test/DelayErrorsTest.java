@@ -0,0 +1,134 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.error.DelayErrors;
+import academy.devdojo.reactive.error.DelayedErrorsException;
+import academy.devdojo.reactive.error.ErrorSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class DelayErrorsTest {
+
+    private static final int SOURCES = 100_000;
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void concatDelaysErrorsAndKeepsOrder() {
+        Flux<String> flux1 = Flux.just("a", "b")
+                .map(s -> {
+                    if (s.equals("b")) {
+                        throw new IllegalArgumentException();
+                    }
+                    return s;
+                });
+        Flux<String> flux2 = Flux.just("c", "d");
+
+        Flux<String> concatFlux = new DelayErrors(4).concat(Flux.just(flux1, flux2, flux1));
+
+        StepVerifier.create(concatFlux)
+                .expectSubscription()
+                .expectNext("a", "c", "d", "a")
+                .expectErrorSatisfies(e -> {
+                    ErrorSummary summary = ((DelayedErrorsException) e).summary();
+                    Assertions.assertEquals(2, summary.errors());
+                    Assertions.assertEquals(1, summary.successes());
+                    Assertions.assertEquals(2, e.getSuppressed().length);
+                })
+                .verify();
+    }
+
+    @Test
+    public void completesWhenNoSourceFails() {
+        StepVerifier.create(new DelayErrors(4).merge(Flux.just(Flux.just("a"), Mono.just("b")), 2))
+                .expectNext("a", "b")
+                .verifyComplete();
+    }
+
+    @Test
+    public void mergeDelayErrorKeepsEveryError() {
+        // referencia: o composite do reactor guarda uma excecao suprimida por fonte que falhou
+        Flux<Integer> mergeFlux = Flux.range(0, SOURCES)
+                .flatMapDelayError(this::source, 256, 32);
+
+        StepVerifier.create(mergeFlux)
+                .thenConsumeWhile(i -> true)
+                .expectErrorSatisfies(e -> Assertions.assertEquals(SOURCES / 3 + 1, e.getSuppressed().length))
+                .verify();
+    }
+
+    @Test
+    public void mergeOfManyFailingSourcesKeepsABoundedSummary() {
+        AtomicLong values = new AtomicLong();
+        Flux<Integer> mergeFlux = new DelayErrors(8).merge(Flux.range(0, SOURCES).map(this::source), 256);
+
+        StepVerifier.create(mergeFlux.doOnNext(i -> values.incrementAndGet()))
+                .thenConsumeWhile(i -> true)
+                .expectErrorSatisfies(e -> {
+                    ErrorSummary summary = ((DelayedErrorsException) e).summary();
+                    log.info("{}", summary);
+                    Assertions.assertEquals(SOURCES / 3 + 1, summary.errors());
+                    Assertions.assertEquals(SOURCES - summary.errors(), summary.successes());
+                    Assertions.assertEquals(summary.errors(), summary.countsByType().values().stream()
+                            .mapToLong(Long::longValue).sum());
+                    Assertions.assertEquals(8, summary.exemplars().size());
+                    Assertions.assertEquals(9, e.getSuppressed().length);
+                    Assertions.assertFalse(summary.shortCircuited());
+                })
+                .verify(Duration.ofSeconds(30));
+
+        Assertions.assertEquals(SOURCES - SOURCES / 3 - 1, values.get());
+    }
+
+    @Test
+    public void mergeShortCircuitsOverTheErrorRate() {
+        AtomicLong subscribed = new AtomicLong();
+        Flux<Mono<Integer>> sources = Flux.range(0, SOURCES)
+                .map(i -> source(i).doOnSubscribe(s -> subscribed.incrementAndGet()));
+
+        StepVerifier.create(new DelayErrors(8, 0.2, 1_000).merge(sources, 64))
+                .thenConsumeWhile(i -> true)
+                .expectErrorSatisfies(e -> {
+                    ErrorSummary summary = ((DelayedErrorsException) e).summary();
+                    Assertions.assertTrue(summary.shortCircuited());
+                    Assertions.assertTrue(summary.errorRate() > 0.2);
+                })
+                .verify(Duration.ofSeconds(30));
+
+        log.info("subscribed to {} of {} sources", subscribed.get(), SOURCES);
+        Assertions.assertTrue(subscribed.get() < 2_000, "subscribed " + subscribed.get());
+    }
+
+    @Test
+    public void mergeOfAsyncSourcesCountsEveryFailure() {
+        Flux<Mono<Integer>> sources = Flux.range(0, 10_000)
+                .map(i -> source(i).subscribeOn(Schedulers.parallel()));
+
+        StepVerifier.create(new DelayErrors(8).merge(sources, 128))
+                .thenConsumeWhile(i -> true)
+                .expectErrorSatisfies(e -> Assertions.assertEquals(10_000 / 3 + 1,
+                        ((DelayedErrorsException) e).summary().errors()))
+                .verify(Duration.ofSeconds(30));
+    }
+
+    private Mono<Integer> source(int i) {
+        if (i % 3 == 0) {
+            return Mono.error(i % 2 == 0 ? new IllegalArgumentException("source " + i)
+                    : new IllegalStateException("source " + i));
+        }
+        return Mono.just(i);
+    }
+}
@@ -0,0 +1,134 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.error.Fallbacks;
+import academy.devdojo.reactive.error.Result;
+import academy.devdojo.reactive.error.StacklessException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+public class FallbacksTest {
+
+    private static final StacklessException NOT_FOUND = new StacklessException("name not found");
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void stacklessExceptionIsReusedWithoutStackTrace() {
+        Assertions.assertEquals(0, NOT_FOUND.getStackTrace().length);
+        Assertions.assertSame(NOT_FOUND.mono(), NOT_FOUND.mono());
+        Assertions.assertSame(NOT_FOUND.asResult(), NOT_FOUND.asResult());
+
+        NOT_FOUND.addSuppressed(new IllegalStateException("ignored"));
+        Assertions.assertEquals(0, NOT_FOUND.getSuppressed().length);
+
+        StepVerifier.create(NOT_FOUND.<String>mono())
+                .expectErrorSatisfies(e -> Assertions.assertSame(NOT_FOUND, e))
+                .verify();
+    }
+
+    @Test
+    public void recoverReplacesMonoErrorLikeOnErrorReturn() {
+        Mono<String> error = NOT_FOUND.<String>mono()
+                .transform(Fallbacks.recover("EMPTY"));
+
+        StepVerifier.create(error)
+                .expectNext("EMPTY")
+                .verifyComplete();
+    }
+
+    @Test
+    public void recoverComputesFallbackFromTheError() {
+        Mono<String> error = Mono.<String>error(new IllegalArgumentException("Illegal argument exception error"))
+                .transform(Fallbacks.recover(Throwable::getMessage));
+
+        StepVerifier.create(error)
+                .expectNext("Illegal argument exception error")
+                .verifyComplete();
+    }
+
+    @Test
+    public void recoverWaitsForDemandBeforeEmittingTheFallback() {
+        Flux<String> flux = Flux.just("a", "b")
+                .concatWith(NOT_FOUND.flux())
+                .transform(Fallbacks.recover("EMPTY"));
+
+        StepVerifier.create(flux, 2)
+                .expectNext("a", "b")
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(1)
+                .expectNext("EMPTY")
+                .verifyComplete();
+    }
+
+    @Test
+    public void recoverKeepsFusedStagesAfterItWorking() {
+        // range e fuseable: sem o hide o map seguinte quebraria com ClassCastException
+        Flux<Integer> flux = Flux.range(1, 3)
+                .transform(Fallbacks.recover(-1))
+                .map(i -> i * 10);
+
+        StepVerifier.create(flux)
+                .expectNext(10, 20, 30)
+                .verifyComplete();
+    }
+
+    @Test
+    public void failingFallbackSignalsItsOwnError() {
+        Mono<String> error = NOT_FOUND.<String>mono()
+                .transform(Fallbacks.recover(e -> {
+                    throw new IllegalStateException("fallback failed");
+                }));
+
+        StepVerifier.create(error)
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    public void mapOrElseContinuesPastFailedElements() {
+        Flux<String> flux = Flux.just("a", "b", "c", "d")
+                .transform(Fallbacks.mapOrElse(this::findByName, "EMPTY"));
+
+        StepVerifier.create(flux)
+                .expectNext("nameA", "EMPTY", "nameC", "EMPTY")
+                .verifyComplete();
+    }
+
+    @Test
+    public void mapToResultCarriesFailuresAsValues() {
+        List<Result<String>> results = Flux.just("a", "b", "x")
+                .transform(Fallbacks.mapToResult(this::findByName))
+                .collectList()
+                .block();
+
+        Assertions.assertNotNull(results);
+        Assertions.assertEquals(new Result.Ok<>("nameA"), results.get(0));
+        Assertions.assertSame(NOT_FOUND.asResult(), results.get(1));
+        Result.Failed<String> failed = Assertions.assertInstanceOf(Result.Failed.class, results.get(2));
+        Assertions.assertInstanceOf(IllegalArgumentException.class, failed.error());
+        Assertions.assertEquals("?", results.get(2).orElse("?"));
+    }
+
+    private String findByName(String name) {
+        if (name.equals("x")) {
+            throw new IllegalArgumentException("Illegal argument exception error");
+        }
+        if (name.equals("b") || name.equals("d")) {
+            throw NOT_FOUND;
+        }
+        return "name" + name.toUpperCase();
+    }
+}
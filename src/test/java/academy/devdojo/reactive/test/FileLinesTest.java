@@ -0,0 +1,129 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.io.FileLines;
+import academy.devdojo.reactive.scheduler.IoSchedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+@Slf4j
+public class FileLinesTest {
+
+    // 64 bytes por linha, 16384 linhas por MB
+    private static final byte[] LINE = (String.join("", Collections.nCopies(63, "x")) + "\n")
+            .getBytes(StandardCharsets.US_ASCII);
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void linesFromTextFile() {
+        Flux<String> lines = FileLines.lines(Path.of("text-file"))
+                .subscribeOn(IoSchedulers.io());
+
+        StepVerifier.create(lines)
+                .expectSubscription()
+                .expectNext("Goku", "is", "the", "strongest", "character")
+                .verifyComplete();
+    }
+
+    @Test
+    public void linesAreReadOnDemand(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("crlf");
+        Files.writeString(file, "a\r\nb\r\n\r\nc");
+
+        StepVerifier.create(FileLines.lines(file, StandardCharsets.UTF_8, 2), 0)
+                .expectSubscription()
+                .thenRequest(1)
+                .expectNext("a")
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(3)
+                .expectNext("b", "", "c")
+                .verifyComplete();
+    }
+
+    @Test
+    public void linesErrorWhenFileIsMissing(@TempDir Path dir) {
+        StepVerifier.create(FileLines.lines(dir.resolve("missing")))
+                .expectErrorMatches(e -> e instanceof UncheckedIOException
+                        && e.getCause() instanceof NoSuchFileException)
+                .verify();
+    }
+
+    @Test
+    public void linesRejectsNonPositiveBufferSize() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> FileLines.lines(Path.of("text-file"), StandardCharsets.UTF_8, 0));
+    }
+
+    @Test
+    public void mappedChunksCoverTheWholeFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("chunks");
+        byte[] content = new byte[10_000];
+        Arrays.fill(content, (byte) 7);
+        Files.write(file, content);
+
+        StepVerifier.create(FileLines.mappedChunks(file, 4096).map(ByteBuffer::remaining))
+                .expectNext(4096, 4096, 1808)
+                .verifyComplete();
+    }
+
+    // so com -Pstress, que passa 256MB; -Pstress -Dreactive.io.largeFileMb=4096 para um arquivo de varios GB
+    @Test
+    @Tag("stress")
+    public void streamsFileLargerThanHeap(@TempDir Path dir) throws Exception {
+        int sizeMb = Integer.getInteger("reactive.io.largeFileMb", 8);
+        Path file = dir.resolve("large");
+        writeLines(file, sizeMb);
+
+        ForkedJvm.Result result = ForkedJvm.run("16m", CountLines.class, file.toString());
+
+        log.info("Forked JVM output: {}", result.output());
+        Assertions.assertEquals(0, result.exitCode(), result.output());
+        Assertions.assertTrue(result.output().contains("lines=" + (sizeMb * 16384L)), result.output());
+    }
+
+    private static void writeLines(Path file, int sizeMb) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(1024 * 1024);
+        while (block.hasRemaining()) {
+            block.put(LINE);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < sizeMb; i++) {
+                block.flip();
+                while (block.hasRemaining()) {
+                    channel.write(block);
+                }
+                block.limit(block.capacity());
+            }
+        }
+    }
+
+    public static class CountLines {
+        public static void main(String[] args) {
+            Long lines = FileLines.lines(Path.of(args[0])).count().block();
+            System.out.println("lines=" + lines + " maxHeapMb=" + (Runtime.getRuntime().maxMemory() >> 20));
+        }
+    }
+}
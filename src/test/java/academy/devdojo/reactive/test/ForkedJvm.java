@@ -0,0 +1,48 @@
+package academy.devdojo.reactive.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Roda uma classe main em outra JVM com o mesmo classpath dos testes,
+ * para testes que precisam de um heap pequeno e fixo (-Xmx).
+ */
+final class ForkedJvm {
+
+    record Result(int exitCode, String output) {
+    }
+
+    private ForkedJvm() {
+    }
+
+    static Result run(String maxHeap, Class<?> mainClass, String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + maxHeap);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        command.addAll(List.of(args));
+
+        // saida num arquivo: ler o pipe ate o fim bloquearia ate o filho sair e o timeout nunca valeria
+        Path log = Files.createTempFile("forked-jvm-", ".log");
+        try {
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            if (!process.waitFor(5, TimeUnit.MINUTES)) {
+                process.destroyForcibly().waitFor();
+                throw new IllegalStateException("Forked JVM timed out: " + Files.readString(log, StandardCharsets.UTF_8));
+            }
+            return new Result(process.exitValue(), Files.readString(log, StandardCharsets.UTF_8));
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+}
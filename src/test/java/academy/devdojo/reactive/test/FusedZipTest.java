@@ -0,0 +1,117 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.combine.FusedZip;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Slf4j
+public class FusedZipTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    record Anime(String title, String studio, int episodes) {
+    }
+
+    @Test
+    public void zipBuildsTheRecordDirectly() {
+        Flux<String> titleFlux = Flux.just("Grand Blue", "Baki");
+        Flux<String> studioFlux = Flux.just("Grand Blue", "TMS Entertainment");
+        Flux<Integer> episodesFlux = Flux.just(12, 24);
+
+        Flux<Anime> animeFlux = FusedZip.zip(titleFlux, studioFlux, episodesFlux, Anime::new);
+
+        StepVerifier.create(animeFlux)
+                .expectSubscription()
+                .expectNext(
+                        new Anime("Grand Blue", "Grand Blue", 12),
+                        new Anime("Baki", "TMS Entertainment", 24))
+                .verifyComplete();
+    }
+
+    @Test
+    public void zipStopsAtTheShortestSource() {
+        Flux<Anime> animeFlux = FusedZip.zip(Flux.just("Grand Blue", "Baki", "Naruto"), Flux.just(12, 24),
+                (title, episodes) -> new Anime(title, null, episodes));
+
+        StepVerifier.create(animeFlux)
+                .expectNext(new Anime("Grand Blue", null, 12), new Anime("Baki", null, 24))
+                .verifyComplete();
+    }
+
+    @Test
+    public void zipRespectsDownstreamDemand() {
+        Flux<Integer> flux = FusedZip.zip(Flux.range(0, 10), Flux.range(0, 10), Integer::sum);
+
+        StepVerifier.create(flux, 2)
+                .expectNext(0, 2)
+                .thenRequest(3)
+                .expectNext(4, 6, 8)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void sourcesAreRequestedInAlignedBatches() {
+        List<Long> titleRequests = new CopyOnWriteArrayList<>();
+        List<Long> episodeRequests = new CopyOnWriteArrayList<>();
+        Flux<Integer> titles = Flux.range(0, 20).doOnRequest(titleRequests::add);
+        Flux<Integer> episodes = Flux.range(0, 20).publishOn(Schedulers.parallel()).doOnRequest(episodeRequests::add);
+
+        StepVerifier.create(FusedZip.zip(8, titles, episodes, Integer::sum))
+                .expectNextCount(20)
+                .verifyComplete();
+
+        log.info("title requests {}, episode requests {}", titleRequests, episodeRequests);
+        Assertions.assertEquals(List.of(8L, 6L, 6L, 6L), titleRequests);
+        Assertions.assertEquals(titleRequests, episodeRequests);
+    }
+
+    @Test
+    public void zipFailsOnTheFirstError() {
+        Flux<Integer> flux = FusedZip.zip(Flux.range(0, 10),
+                Flux.range(0, 3).concatWith(Flux.<Integer>error(new IllegalArgumentException())
+                        .delaySubscription(Duration.ofMillis(50))),
+                Flux.range(0, 10),
+                (a, b, c) -> a + b + c);
+
+        StepVerifier.create(flux)
+                .expectNext(0, 3, 6)
+                .expectError(IllegalArgumentException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void combinerErrorsCancelTheSources() {
+        List<String> cancelled = new CopyOnWriteArrayList<>();
+        Flux<String> flux = FusedZip.zip(Flux.range(0, 10).doOnCancel(() -> cancelled.add("a")),
+                Flux.range(0, 10).doOnCancel(() -> cancelled.add("b")),
+                Flux.range(0, 10).doOnCancel(() -> cancelled.add("c")),
+                Flux.range(0, 10).doOnCancel(() -> cancelled.add("d")),
+                (a, b, c, d) -> {
+                    if (a == 2) {
+                        throw new IllegalStateException("bad row");
+                    }
+                    return a + "" + b + c + d;
+                });
+
+        StepVerifier.create(flux)
+                .expectNext("0000", "1111")
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        Assertions.assertEquals(List.of("a", "b", "c", "d"), cancelled);
+    }
+}
@@ -0,0 +1,60 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.diagnostics.FusionInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.reactivestreams.Publisher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Marca pipelines "quentes" que precisam continuar fundidos (SYNC/ASYNC) do inicio ao fim.
+ * Com @ExtendWith(FusionGuard.Extension.class) o guard e injetado no teste e verificado depois dele,
+ * falhando o teste se algum estagio perdeu a fusao (por exemplo um .hide() no meio do pipeline).
+ */
+public class FusionGuard {
+
+    private final List<Publisher<?>> hot = new ArrayList<>();
+
+    public <P extends Publisher<?>> P hot(P publisher) {
+        hot.add(publisher);
+        return publisher;
+    }
+
+    public void verify() {
+        for (Publisher<?> publisher : hot) {
+            FusionInspector.Stage unfused = FusionInspector.firstUnfused(publisher);
+            if (unfused != null) {
+                Assertions.fail("Hot pipeline lost fusion at " + unfused.name() + " ("
+                        + unfused.mode() + "):\n" + FusionInspector.report(publisher));
+            }
+        }
+    }
+
+    public static class Extension implements ParameterResolver, AfterEachCallback {
+
+        private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(FusionGuard.class);
+
+        @Override
+        public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            return parameterContext.getParameter().getType() == FusionGuard.class;
+        }
+
+        @Override
+        public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            return extensionContext.getStore(NAMESPACE).getOrComputeIfAbsent(FusionGuard.class);
+        }
+
+        @Override
+        public void afterEach(ExtensionContext context) {
+            FusionGuard guard = context.getStore(NAMESPACE).get(FusionGuard.class, FusionGuard.class);
+            if (guard != null) {
+                guard.verify();
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.diagnostics.FusionInspector;
+import academy.devdojo.reactive.diagnostics.FusionInspector.FusionMode;
+import academy.devdojo.reactive.diagnostics.FusionInspector.Stage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+@Slf4j
+@ExtendWith(FusionGuard.Extension.class)
+public class FusionInspectorTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void publishOnPipelineIsFused() {
+        Flux<Integer> flux = Flux.range(1, 4)
+                .map(i -> i)
+                .publishOn(Schedulers.single())
+                .map(i -> i);
+
+        List<Stage> stages = FusionInspector.inspect(flux);
+        log.info("\n{}", FusionInspector.report(flux));
+
+        Assertions.assertEquals(List.of(FusionMode.SYNC, FusionMode.SYNC, FusionMode.ASYNC, FusionMode.ASYNC),
+                stages.stream().map(Stage::mode).toList());
+        Assertions.assertEquals(256, stages.get(2).prefetch());
+    }
+
+    @Test
+    public void hideBreaksFusion() {
+        Flux<Integer> flux = Flux.range(1, 4)
+                .hide()
+                .map(i -> i);
+
+        Stage unfused = FusionInspector.firstUnfused(flux);
+
+        Assertions.assertNotNull(unfused);
+        Assertions.assertEquals(FusionMode.NONE, unfused.mode());
+        Assertions.assertTrue(unfused.name().contains("hide"), unfused.name());
+    }
+
+    @Test
+    public void logOnFuseableSourceKeepsFusion() {
+        Flux<Integer> flux = Flux.range(1, 4)
+                .log()
+                .map(i -> i);
+
+        log.info("\n{}", FusionInspector.report(flux));
+        Assertions.assertNull(FusionInspector.firstUnfused(flux));
+    }
+
+    @Test
+    public void justIsMacroFused() {
+        Stage source = FusionInspector.inspect(Mono.just("a").map(String::toUpperCase)).get(0);
+
+        Assertions.assertTrue(source.macroFused());
+    }
+
+    @Test
+    public void inspectingDoesNotConsumeThePipeline() {
+        Flux<Integer> flux = Flux.range(1, 4).map(i -> i * 2);
+
+        FusionInspector.inspect(flux);
+
+        StepVerifier.create(flux)
+                .expectNext(2, 4, 6, 8)
+                .verifyComplete();
+    }
+
+    @Test
+    public void hotPipelineStaysFused(FusionGuard guard) {
+        Flux<Integer> flux = guard.hot(Flux.range(1, 4)
+                .map(i -> i)
+                .publishOn(Schedulers.single())
+                .map(i -> i));
+
+        StepVerifier.create(flux)
+                .expectNext(1, 2, 3, 4)
+                .verifyComplete();
+    }
+
+    @Test
+    public void guardFailsWhenHotPipelineLosesFusion() {
+        FusionGuard guard = new FusionGuard();
+        guard.hot(Flux.range(1, 4).map(i -> i).hide().map(i -> i));
+
+        AssertionError error = Assertions.assertThrows(AssertionError.class, guard::verify);
+        log.info(error.getMessage());
+    }
+}
@@ -0,0 +1,223 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.lookup.HedgedLookup;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class HedgedLookupTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void fastPrimaryIsNeverHedged() {
+        HedgedLookup<String, String> lookup = new HedgedLookup<>(this::findByName, this::replica, 95,
+                Duration.ofMillis(200), Duration.ofMillis(1), 0.1, 10, Schedulers.parallel());
+
+        StepVerifier
+                .create(Flux.just("B").flatMap(lookup))
+                .expectNext("nameB1", "nameB2")
+                .verifyComplete();
+
+        Assertions.assertEquals(0, lookup.hedges());
+    }
+
+    @Test
+    public void slowPrimaryIsHedgedAndTheLoserCancelled() {
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        HedgedLookup<String, String> lookup = new HedgedLookup<>(
+                name -> findByName(name).doOnCancel(() -> primaryCancelled.set(true)), this::replica, 95,
+                Duration.ofMillis(20), Duration.ofMillis(1), 0.1, 10, Schedulers.parallel());
+
+        // findByName("A") leva 100ms por elemento; a replica responde na hora
+        StepVerifier
+                .create(Flux.just("A", "B").flatMap(lookup))
+                .expectNext("nameB1", "nameB2")
+                .expectNext("replicaA1", "replicaA2")
+                .expectComplete()
+                .verify(Duration.ofMillis(90));
+
+        Assertions.assertTrue(primaryCancelled.get());
+        Assertions.assertEquals(1, lookup.hedges());
+        Assertions.assertEquals(1, lookup.hedgesWon());
+    }
+
+    @Test
+    public void budgetCapsTheNumberOfHedges() {
+        AtomicInteger alternateCalls = new AtomicInteger();
+        HedgedLookup<Integer, Integer> lookup = new HedgedLookup<>(
+                i -> Flux.just(i).delayElements(Duration.ofMillis(50)),
+                i -> Flux.just(i).doOnSubscribe(s -> alternateCalls.incrementAndGet()).delayElements(Duration.ofMillis(50)),
+                95, Duration.ofMillis(5), Duration.ofMillis(1), 0.1, 2, Schedulers.parallel());
+
+        StepVerifier
+                .create(Flux.range(0, 100).flatMap(lookup, 100))
+                .expectNextCount(100)
+                .verifyComplete();
+
+        log.info("hedges {} denied {}", lookup.hedges(), lookup.hedgesDenied());
+        // 2 tokens iniciais mais 0,1 por chamada
+        Assertions.assertTrue(lookup.hedges() <= 12, "hedges " + lookup.hedges());
+        Assertions.assertEquals(lookup.hedges(), alternateCalls.get());
+        Assertions.assertEquals(100, lookup.hedges() + lookup.hedgesDenied());
+    }
+
+    @Test
+    public void deadlineFollowsTheObservedPercentile() {
+        HedgedLookup<Integer, Integer> lookup = new HedgedLookup<>(Flux::just, Flux::just, 95,
+                Duration.ofMillis(50), Duration.ofMillis(2), 0.1, 10, Schedulers.parallel());
+        Assertions.assertEquals(Duration.ofMillis(50), lookup.deadline());
+
+        StepVerifier
+                .create(Flux.range(0, HedgedLookup.WINDOW).concatMap(lookup))
+                .expectNextCount(HedgedLookup.WINDOW)
+                .verifyComplete();
+
+        // respostas imediatas: o p95 fica abaixo do minimo
+        Assertions.assertEquals(Duration.ofMillis(2), lookup.deadline());
+    }
+
+    @Test
+    public void failedAlternateWaitsForThePrimary() {
+        HedgedLookup<String, String> lookup = new HedgedLookup<>(this::findByName,
+                name -> Flux.error(new IllegalStateException("replica down")), 95,
+                Duration.ofMillis(10), Duration.ofMillis(1), 0.1, 10, Schedulers.parallel());
+
+        StepVerifier
+                .create(Flux.just("A").flatMap(lookup))
+                .expectNext("nameA1", "nameA2")
+                .verifyComplete();
+
+        Assertions.assertEquals(1, lookup.hedges());
+        Assertions.assertEquals(0, lookup.hedgesWon());
+    }
+
+    @Test
+    public void failedPrimaryIsRescuedByTheHedge() {
+        HedgedLookup<String, String> lookup = new HedgedLookup<>(
+                name -> Flux.error(new IllegalArgumentException("bad name")), this::replica, 95,
+                Duration.ofMillis(10), Duration.ofMillis(1), 0.1, 10, Schedulers.parallel());
+
+        StepVerifier
+                .create(Flux.just("A").flatMap(lookup))
+                .expectNext("replicaA1", "replicaA2")
+                .verifyComplete();
+
+        Assertions.assertEquals(1, lookup.hedges());
+        Assertions.assertEquals(1, lookup.hedgesWon());
+    }
+
+    @Test
+    public void primaryErrorIsPropagatedWhenTheHedgeFailsToo() {
+        HedgedLookup<String, String> lookup = new HedgedLookup<>(
+                name -> Flux.error(new IllegalArgumentException("bad name")),
+                name -> Flux.error(new IllegalStateException("replica down")), 95,
+                Duration.ofMillis(10), Duration.ofMillis(1), 0.1, 10, Schedulers.parallel());
+
+        StepVerifier
+                .create(Flux.just("A").flatMap(lookup))
+                .expectErrorSatisfies(e -> {
+                    Assertions.assertEquals("bad name", e.getMessage());
+                    Assertions.assertEquals("replica down", e.getSuppressed()[0].getMessage());
+                })
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void primaryErrorIsPropagatedWithoutATokenToHedge() {
+        HedgedLookup<String, String> lookup = new HedgedLookup<>(
+                name -> Flux.error(new IllegalArgumentException("bad name")), this::replica, 95,
+                Duration.ofMillis(10), Duration.ofMillis(1), 0, 0, Schedulers.parallel());
+
+        StepVerifier
+                .create(Flux.just("A").flatMap(lookup))
+                .expectError(IllegalArgumentException.class)
+                .verify(Duration.ofSeconds(1));
+
+        Assertions.assertEquals(0, lookup.hedges());
+        Assertions.assertEquals(1, lookup.hedgesDenied());
+    }
+
+    @Test
+    public void failedPrimaryIsHedgedWithoutWaitingForTheDeadline() {
+        StepVerifier
+                .withVirtualTime(() -> Flux.just("A").flatMap(new HedgedLookup<String, String>(
+                        name -> Flux.error(new IllegalArgumentException("bad name")), this::replica, 95,
+                        Duration.ofSeconds(1), Duration.ofMillis(1), 0.1, 10, Schedulers.parallel())))
+                // o deadline de 1s nunca passa: o hedge sai junto com o erro
+                .expectNext("replicaA1", "replicaA2")
+                .verifyComplete();
+    }
+
+    @Test
+    public void primaryErrorWithoutATokenFailsAtOnce() {
+        StepVerifier
+                .withVirtualTime(() -> Flux.just("A").flatMap(new HedgedLookup<String, String>(
+                        name -> Flux.error(new IllegalArgumentException("bad name")), this::replica, 95,
+                        Duration.ofSeconds(1), Duration.ofMillis(1), 0, 0, Schedulers.parallel())))
+                .expectError(IllegalArgumentException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void failedCallsDoNotMoveTheDeadline() {
+        HedgedLookup<Integer, Integer> lookup = new HedgedLookup<>(
+                i -> Flux.error(new IllegalArgumentException("bad key")),
+                i -> Flux.error(new IllegalStateException("replica down")), 95,
+                Duration.ofMillis(50), Duration.ofMillis(1), 0.1, 10, Schedulers.parallel());
+
+        StepVerifier
+                .create(Flux.range(0, HedgedLookup.WINDOW)
+                        .flatMap(i -> lookup.apply(i).onErrorResume(e -> Flux.empty()), HedgedLookup.WINDOW))
+                .verifyComplete();
+
+        // erros imediatos numa janela inteira: sem eles na janela o deadline nao encolhe
+        Assertions.assertEquals(Duration.ofMillis(50), lookup.deadline());
+    }
+
+    @Test
+    public void deadlineIsMeasuredOnTheGivenClock() {
+        VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+        HedgedLookup<Integer, Integer> lookup = new HedgedLookup<>(
+                i -> Mono.just(i).delayElement(Duration.ofMillis(40), timer), Flux::just, 95,
+                Duration.ofSeconds(1), Duration.ofMillis(1), 0.1, 10, timer,
+                () -> timer.now(TimeUnit.NANOSECONDS));
+
+        StepVerifier
+                .create(Flux.range(0, HedgedLookup.WINDOW).flatMap(lookup, HedgedLookup.WINDOW))
+                .then(() -> timer.advanceTimeBy(Duration.ofMillis(40)))
+                .expectNextCount(HedgedLookup.WINDOW)
+                .verifyComplete();
+
+        // 40ms de tempo virtual; com o System.nanoTime() a janela teria so os microssegundos reais
+        log.info("deadline {}", lookup.deadline());
+        Assertions.assertTrue(lookup.deadline().compareTo(Duration.ofMillis(40)) >= 0, lookup.deadline().toString());
+        Assertions.assertTrue(lookup.deadline().compareTo(Duration.ofMillis(46)) < 0, lookup.deadline().toString());
+        Assertions.assertEquals(0, lookup.hedges());
+        timer.dispose();
+    }
+
+    public Flux<String> findByName(String name) {
+        return name.equals("A") ? Flux.just("nameA1", "nameA2").delayElements(Duration.ofMillis(100)) : Flux.just("nameB1", "nameB2");
+    }
+
+    private Flux<String> replica(String name) {
+        return Flux.just("replica" + name + "1", "replica" + name + "2");
+    }
+}
@@ -0,0 +1,81 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.scheduler.IoSchedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+public class IoSchedulersTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @AfterEach
+    public void clearProperty() {
+        System.clearProperty(IoSchedulers.PROPERTY);
+    }
+
+    @Test
+    public void ioDefaultsToBoundedElastic() {
+        Assertions.assertSame(Schedulers.boundedElastic(), IoSchedulers.io());
+    }
+
+    @Test
+    public void ioFallsBackToBoundedElasticWithoutVirtualThreads() {
+        Assumptions.assumeFalse(IoSchedulers.virtualThreadsSupported());
+        System.setProperty(IoSchedulers.PROPERTY, "virtual");
+
+        Assertions.assertSame(Schedulers.boundedElastic(), IoSchedulers.io());
+        Assertions.assertThrows(UnsupportedOperationException.class, IoSchedulers::virtualThreads);
+    }
+
+    @Test
+    public void subscribeOnIOWithVirtualThreads() {
+        Assumptions.assumeTrue(IoSchedulers.virtualThreadsSupported());
+        System.setProperty(IoSchedulers.PROPERTY, "virtual");
+
+        Mono<List<String>> listMono = Mono.fromCallable(() -> {
+                    log.info("Reading on {}", Thread.currentThread());
+                    return Files.readAllLines(Path.of("text-file"));
+                })
+                .subscribeOn(IoSchedulers.io());
+
+        StepVerifier.create(listMono)
+                .expectSubscription()
+                .assertNext(l -> Assertions.assertFalse(l.isEmpty()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void virtualThreadsAreNotCapped() {
+        Assumptions.assumeTrue(IoSchedulers.virtualThreadsSupported());
+
+        // 1000 chamadas bloqueantes de 100ms ao mesmo tempo: no boundedElastic levaria segundos
+        Flux<Integer> flux = Flux.range(1, 1000)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    Thread.sleep(100);
+                    return i;
+                }).subscribeOn(IoSchedulers.virtualThreads()), 1000);
+
+        StepVerifier.create(flux)
+                .expectNextCount(1000)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,98 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.simulation.Distribution;
+import academy.devdojo.reactive.simulation.LoadSimulation;
+import academy.devdojo.reactive.simulation.SimulatedService;
+import academy.devdojo.reactive.simulation.SimulationReport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Slf4j
+public class LoadSimulationTest {
+
+    @Test
+    public void simulatesHoursOfTrafficInSeconds() {
+        LoadSimulation simulation = new LoadSimulation(42);
+        SimulatedService db = simulation.service("findByName", 8, Distribution.exponential(Duration.ofMillis(20)));
+
+        SimulationReport report = simulation.run(Distribution.poisson(20), Duration.ofHours(1),
+                arrivals -> arrivals.flatMap(db::call, 64));
+
+        log.info("{}", report);
+        Assertions.assertTrue(report.simulated().compareTo(Duration.ofHours(1)) >= 0);
+        Assertions.assertTrue(report.wallClock().compareTo(Duration.ofMinutes(1)) < 0, "took " + report.wallClock());
+        Assertions.assertTrue(report.arrivals() > 60_000, "arrivals " + report.arrivals());
+        Assertions.assertEquals(report.arrivals(), report.completed());
+        Assertions.assertEquals(0, report.rejected());
+        Assertions.assertEquals(db.calls(), db.completed());
+        Assertions.assertTrue(report.latency().percentile(99) > report.latency().percentile(50));
+        Assertions.assertTrue(report.gauge("findByName.busy").max() <= 8);
+    }
+
+    @Test
+    public void sameSeedGivesSameReport() {
+        SimulationReport first = overloadedRun(7);
+        SimulationReport second = overloadedRun(7);
+
+        Assertions.assertEquals(first.arrivals(), second.arrivals());
+        Assertions.assertEquals(first.completed(), second.completed());
+        Assertions.assertEquals(first.rejected(), second.rejected());
+        Assertions.assertEquals(first.latency().percentile(99.9), second.latency().percentile(99.9));
+        Assertions.assertEquals(first.gauge("findByName.queued"), second.gauge("findByName.queued"));
+    }
+
+    @Test
+    public void overloadIsRejectedAtTheSource() {
+        SimulationReport report = overloadedRun(1);
+
+        log.info("{}", report);
+        // 1 servidor de 100ms atende 10/s, chegam 100/s; o flatMap so deixa 4 em voo (ate 400ms de espera,
+        // o histograma arredonda para cima)
+        Assertions.assertTrue(report.rejected() > report.completed(), report.toString());
+        Assertions.assertTrue(report.completed() <= 610, report.toString());
+        Assertions.assertTrue(report.gauge("findByName.queued").max() <= 3);
+        Assertions.assertTrue(report.latency().max() <= Duration.ofMillis(450).toNanos(), "max " + report.latency().max());
+    }
+
+    @Test
+    public void timeoutsCutTheTailAndShowUpAsCancelledCalls() {
+        LoadSimulation simulation = new LoadSimulation(3);
+        SimulatedService db = simulation.service("findByName", 16, Distribution.fixed(Duration.ofMillis(10))
+                .withTail(0.05, Distribution.fixed(Duration.ofSeconds(1))));
+        simulation.gauge("constant", () -> 1);
+
+        SimulationReport report = simulation.run(Distribution.poisson(50), Duration.ofMinutes(10),
+                arrivals -> arrivals.flatMap(a -> db.call(a)
+                        .timeout(Duration.ofMillis(100))
+                        .onErrorResume(e -> Mono.empty()), 256));
+
+        log.info("{}", report);
+        Assertions.assertEquals(db.cancelled(), report.lost());
+        Assertions.assertTrue(report.lost() > report.arrivals() / 40, report.toString());
+        Assertions.assertTrue(report.latency().percentile(99.9) < Duration.ofMillis(100).toNanos());
+        Assertions.assertEquals(1, report.gauge("constant").mean());
+    }
+
+    @Test
+    public void pipelineErrorEndsTheRun() {
+        LoadSimulation simulation = new LoadSimulation(5);
+        SimulatedService db = simulation.service("findByName", 1, Distribution.fixed(Duration.ofMillis(1)), 1);
+
+        SimulationReport report = simulation.run(Distribution.poisson(10), Duration.ofHours(1),
+                arrivals -> arrivals.concatMap(db::call));
+
+        Assertions.assertInstanceOf(SimulatedService.SimulatedFailure.class, report.error());
+        Assertions.assertTrue(report.simulated().compareTo(Duration.ofMinutes(1)) < 0);
+    }
+
+    private static SimulationReport overloadedRun(long seed) {
+        LoadSimulation simulation = new LoadSimulation(seed);
+        SimulatedService db = simulation.service("findByName", 1, Distribution.fixed(Duration.ofMillis(100)));
+        return simulation.run(Distribution.poisson(100), Duration.ofMinutes(1),
+                arrivals -> arrivals.flatMap(db::call, 4));
+    }
+}
@@ -0,0 +1,276 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.batch.Batch;
+import academy.devdojo.reactive.batch.MicroBatcher;
+import academy.devdojo.reactive.io.LineFileSink;
+import academy.devdojo.reactive.scheduler.IoSchedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reactivestreams.Subscription;
+import reactor.blockhound.BlockHound;
+import reactor.core.Scannable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import reactor.test.util.RaceTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+public class MicroBatcherTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void closesBatchWhenFull() {
+        Flux<List<Integer>> batches = Flux.range(1, 7)
+                .transform(new MicroBatcher<>(3, Duration.ofSeconds(10)))
+                .map(MicroBatcherTest::copyAndRelease);
+
+        StepVerifier
+                .create(batches)
+                .expectNext(List.of(1, 2, 3), List.of(4, 5, 6), List.of(7))
+                .verifyComplete();
+    }
+
+    @Test
+    public void closesBatchWhenMaxWaitPasses() {
+        StepVerifier
+                .withVirtualTime(() -> Flux.interval(Duration.ofMillis(30)).take(5)
+                        .transform(new MicroBatcher<>(100, Duration.ofMillis(100)))
+                        .map(MicroBatcherTest::copyAndRelease))
+                .expectSubscription()
+                // o lote abre no primeiro elemento (30ms) e fecha 100ms depois
+                .expectNoEvent(Duration.ofMillis(129))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(List.of(0L, 1L, 2L, 3L))
+                .thenAwait(Duration.ofMillis(20))
+                .expectNext(List.of(4L))
+                .verifyComplete();
+    }
+
+    @Test
+    public void closesBatchWhenWeightReachesCap() {
+        Flux<List<String>> batches = Flux.just("aaaa", "bb", "cccc", "dddddddddd", "e")
+                .transform(new MicroBatcher<>(100, Duration.ofSeconds(10), String::length, 6))
+                .map(MicroBatcherTest::copyAndRelease);
+
+        StepVerifier
+                .create(batches)
+                .expectNext(List.of("aaaa", "bb"), List.of("cccc", "dddddddddd"), List.of("e"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void timedOutBatchKeepsFillingWithoutDemand() {
+        StepVerifier
+                .withVirtualTime(() -> Flux.interval(Duration.ofMillis(10)).take(8)
+                        .transform(new MicroBatcher<>(100, Duration.ofMillis(25)))
+                        .map(MicroBatcherTest::copyAndRelease), 0)
+                .expectSubscription()
+                .thenRequest(1)
+                .thenAwait(Duration.ofMillis(35))
+                .expectNext(List.of(0L, 1L, 2L))
+                // o segundo lote vence aos 65ms sem demanda e segue recebendo
+                .expectNoEvent(Duration.ofMillis(40))
+                .thenRequest(1)
+                .expectNext(List.of(3L, 4L, 5L, 6L))
+                .thenRequest(1)
+                .thenAwait(Duration.ofMillis(10))
+                .expectNext(List.of(7L))
+                .verifyComplete();
+    }
+
+    @Test
+    public void releasedBatchesAreReused() {
+        MicroBatcher<Integer> batcher = new MicroBatcher<>(16, Duration.ofSeconds(10));
+        AtomicLong elements = new AtomicLong();
+
+        StepVerifier
+                .create(Flux.range(0, 10_000)
+                        .transform(batcher)
+                        .doOnNext(batch -> {
+                            elements.addAndGet(batch.size());
+                            batch.release();
+                        }))
+                .expectNextCount(625)
+                .verifyComplete();
+
+        log.info("Allocated {} batches for {} elements", batcher.allocatedBatches(), elements.get());
+        Assertions.assertEquals(10_000, elements.get());
+        Assertions.assertEquals(1, batcher.allocatedBatches());
+        Assertions.assertEquals(1, batcher.pooledBatches());
+    }
+
+    @Test
+    public void upstreamDemandFollowsRequestedBatches() {
+        AtomicLong upstreamRequested = new AtomicLong();
+
+        StepVerifier
+                .create(Flux.range(0, 1_000)
+                        .doOnRequest(upstreamRequested::addAndGet)
+                        .transform(new MicroBatcher<>(10, Duration.ofSeconds(10))), 2)
+                .expectNextCount(2)
+                .thenCancel()
+                .verify();
+
+        Assertions.assertEquals(20, upstreamRequested.get());
+    }
+
+    @Test
+    public void batchesClosedByTimeDoNotLeaveDemandBehind() {
+        VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+        TestPublisher<Integer> source = TestPublisher.create();
+        AtomicLong upstreamRequested = new AtomicLong();
+        AtomicInteger sent = new AtomicInteger();
+        List<Integer> batchSizes = new ArrayList<>();
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+        MicroBatcher<Integer> batcher = new MicroBatcher<>(10, Duration.ofMillis(100), v -> 1, Long.MAX_VALUE, 4,
+                timer);
+
+        source.flux()
+                .doOnRequest(upstreamRequested::addAndGet)
+                .transform(batcher)
+                .subscribe(new BaseSubscriber<Batch<Integer>>() {
+                    @Override
+                    protected void hookOnSubscribe(Subscription s) {
+                        subscription.set(s);
+                    }
+
+                    @Override
+                    protected void hookOnNext(Batch<Integer> batch) {
+                        batchSizes.add(batch.size());
+                        batch.release();
+                    }
+                });
+
+        // produtor lento: cada lote pedido fecha no maxWait com 3 elementos
+        for (int i = 0; i < 5; i++) {
+            subscription.get().request(1);
+            for (int j = 0; j < 3; j++) {
+                source.next(sent.getAndIncrement());
+            }
+            timer.advanceTimeBy(Duration.ofMillis(100));
+        }
+        Assertions.assertEquals(List.of(3, 3, 3, 3, 3), batchSizes);
+        Assertions.assertEquals(10 + 4 * 3, upstreamRequested.get());
+
+        // o produtor acelera e manda de uma vez tudo o que foi pedido
+        while (sent.get() < upstreamRequested.get()) {
+            source.next(sent.getAndIncrement());
+        }
+        timer.advanceTimeBy(Duration.ofMillis(100));
+        Assertions.assertEquals(0, Scannable.from(subscription.get()).scan(Scannable.Attr.BUFFERED));
+
+        // o lote vencido sem demanda atende o proximo pedido sem pedir mais ao upstream
+        subscription.get().request(1);
+        Assertions.assertEquals(List.of(3, 3, 3, 3, 3, 7), batchSizes);
+        Assertions.assertEquals(22, upstreamRequested.get());
+
+        subscription.get().request(1);
+        Assertions.assertEquals(32, upstreamRequested.get());
+        subscription.get().cancel();
+        timer.dispose();
+    }
+
+    @Test
+    public void cancelDiscardsOpenBatch() {
+        List<Object> discarded = new ArrayList<>();
+
+        StepVerifier
+                .create(Flux.just(1, 2).concatWith(Flux.never())
+                        .transform(new MicroBatcher<>(10, Duration.ofSeconds(10)))
+                        .doOnDiscard(Integer.class, discarded::add))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(20))
+                .thenCancel()
+                .verify();
+
+        Assertions.assertEquals(List.of(1, 2), discarded);
+    }
+
+    @Test
+    public void batchClosedRacingCancelIsReleased() {
+        MicroBatcher<Integer> batcher = new MicroBatcher<>(1, Duration.ofSeconds(10));
+
+        for (int round = 0; round < 2_000; round++) {
+            int value = round;
+            // sem demanda nenhuma: o produtor empurra mesmo assim
+            TestPublisher<Integer> source = TestPublisher.createNoncompliant(TestPublisher.Violation.REQUEST_OVERFLOW);
+            AtomicReference<Subscription> subscription = new AtomicReference<>();
+            BaseSubscriber<Batch<Integer>> subscriber = source.flux()
+                    .transform(batcher)
+                    .subscribeWith(new BaseSubscriber<>() {
+                        @Override
+                        protected void hookOnSubscribe(Subscription s) {
+                            // nada pedido: o lote fechado fica no ready ate o cancel
+                            subscription.set(s);
+                        }
+                    });
+
+            RaceTestUtils.race(() -> source.next(value), subscriber::cancel);
+
+            Assertions.assertEquals(0, Scannable.from(subscription.get()).scan(Scannable.Attr.BUFFERED),
+                    "round " + round);
+        }
+        Assertions.assertEquals(batcher.allocatedBatches(), batcher.pooledBatches());
+    }
+
+    @Test
+    public void writesEachBatchWithOneCall(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("lines");
+        AtomicInteger writes = new AtomicInteger();
+        List<String> lines = IntStream.range(0, 1_000).mapToObj(i -> "line " + i).collect(Collectors.toList());
+
+        try (LineFileSink sink = LineFileSink.create(file)) {
+            StepVerifier
+                    .create(Flux.fromIterable(lines)
+                            .transform(new MicroBatcher<>(128, Duration.ofSeconds(10)))
+                            .as(MicroBatcher.<String>writeTo(batch -> {
+                                writes.incrementAndGet();
+                                sink.write(batch);
+                            }, IoSchedulers.io())))
+                    .expectNext(1_000L)
+                    .verifyComplete();
+        }
+
+        Assertions.assertEquals(8, writes.get());
+        Assertions.assertEquals(lines, Files.readAllLines(file));
+    }
+
+    @Test
+    public void timerRunsOnGivenScheduler() {
+        MicroBatcher<Long> batcher = new MicroBatcher<>(100, Duration.ofMillis(20), v -> 1, Long.MAX_VALUE, 4,
+                Schedulers.single());
+
+        StepVerifier
+                .create(Flux.just(1L).concatWith(Flux.never()).transform(batcher).map(Batch::size))
+                .expectNext(1)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static <T> List<T> copyAndRelease(Batch<T> batch) {
+        List<T> copy = List.copyOf(batch);
+        batch.release();
+        return copy;
+    }
+}
@@ -1,5 +1,7 @@
 package academy.devdojo.reactive.test;
 
+import academy.devdojo.reactive.io.FileLines;
+import academy.devdojo.reactive.scheduler.IoSchedulers;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -165,6 +167,18 @@ public class OperatorsTest {
                  .verifyComplete();
     }
 
+    @Test
+    public void subscribeOnIOStreaming() { //le linha a linha conforme a demanda, sem carregar o arquivo inteiro
+        Flux<String> lines = FileLines.lines(Path.of("text-file"))
+                .log()
+                .subscribeOn(IoSchedulers.io());
+
+        StepVerifier.create(lines)
+                .expectSubscription()
+                .expectNext("Goku", "is", "the", "strongest", "character")
+                .verifyComplete();
+    }
+
     @Test
     public void switchIfEmptyOperator() {
         Flux<Object> flux = Flux.empty()
@@ -0,0 +1,107 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.scheduler.ParallelRails;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+public class ParallelRailsTest {
+
+    private static final Scheduler RAILS = Schedulers.newParallel("rails", 4);
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        RAILS.dispose();
+    }
+
+    @Test
+    public void defaultRailsMatchTheCores() {
+        Assertions.assertEquals(Runtime.getRuntime().availableProcessors(), new ParallelRails().rails());
+    }
+
+    @Test
+    public void unorderedMapRunsOnEveryRail() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        ParallelRails rails = new ParallelRails(4, RAILS, 8);
+
+        Flux<Integer> flux = Flux.range(1, 1000)
+                .transform(rails.unordered(i -> {
+                    threads.add(Thread.currentThread().getName());
+                    return cpuBound(i);
+                }));
+
+        StepVerifier.create(flux.collectList())
+                .assertNext(list -> Assertions.assertEquals(expected(1000), list.stream().sorted().toList()))
+                .verifyComplete();
+
+        log.info("Map ran on {}", threads);
+        Assertions.assertEquals(4, threads.size());
+        Assertions.assertTrue(threads.stream().allMatch(name -> name.startsWith("rails-")));
+    }
+
+    @Test
+    public void orderedMapKeepsUpstreamOrder() {
+        ParallelRails rails = new ParallelRails(4, RAILS, 8);
+
+        // elementos pares mais caros para embaralhar a ordem de termino entre os rails
+        Flux<Integer> flux = Flux.range(1, 1000)
+                .transform(rails.ordered(ParallelRailsTest::uneven));
+
+        StepVerifier.create(flux.collectList())
+                .assertNext(list -> Assertions.assertEquals(IntStream.rangeClosed(1, 1000)
+                        .map(ParallelRailsTest::uneven)
+                        .boxed().collect(Collectors.toList()), list))
+                .verifyComplete();
+    }
+
+    @Test
+    public void errorIsSignalledInOrder() {
+        ParallelRails rails = new ParallelRails(4, RAILS, 8);
+
+        StepVerifier.create(Flux.range(1, 1000)
+                        .transform(rails.<Integer, Integer>ordered(i -> {
+                            if (i == 500) {
+                                throw new IllegalStateException("boom");
+                            }
+                            return i;
+                        })))
+                .expectNextSequence(IntStream.range(1, 500).boxed().toList())
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    private static List<Integer> expected(int count) {
+        return IntStream.rangeClosed(1, count).map(ParallelRailsTest::cpuBound).sorted().boxed().toList();
+    }
+
+    private static int uneven(int i) {
+        return i % 2 == 0 ? cpuBound(cpuBound(i)) : cpuBound(i);
+    }
+
+    private static int cpuBound(int seed) {
+        int x = seed;
+        for (int i = 0; i < 2_000; i++) {
+            x = x * 1_103_515_245 + 12_345;
+        }
+        return x;
+    }
+}
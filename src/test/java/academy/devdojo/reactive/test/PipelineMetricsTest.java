@@ -0,0 +1,130 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.metrics.LatencyHistogram;
+import academy.devdojo.reactive.metrics.PipelineMetrics;
+import academy.devdojo.reactive.metrics.StageSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+@Slf4j
+public class PipelineMetricsTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void flatMapFindByNameShowsWhereLatencyBuildsUp() {
+        PipelineMetrics metrics = new PipelineMetrics();
+
+        Flux<String> flatFlux = Flux.just("a", "b")
+                .map(String::toUpperCase)
+                .transform(metrics.instrument("source"))
+                .flatMap(this::findByName)
+                .transform(metrics.instrument("findByName"));
+
+        StepVerifier.create(flatFlux)
+                .expectNext("nameB1", "nameB2", "nameA1", "nameA2")
+                .verifyComplete();
+
+        metrics.snapshot().forEach(s -> log.info("{}", s));
+        StageSnapshot source = metrics.snapshot("source");
+        StageSnapshot findByName = metrics.snapshot("findByName");
+        Assertions.assertEquals(2, source.onNext());
+        Assertions.assertEquals(4, findByName.onNext());
+        Assertions.assertEquals(1, findByName.completions());
+        Assertions.assertEquals(0, findByName.inFlightDemand());
+        Assertions.assertTrue(findByName.upstreamWait().max() >= Duration.ofMillis(100).toNanos());
+        Assertions.assertTrue(source.upstreamWait().max() < Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    public void tracksBoundedDemandAndCancellation() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        Flux<Integer> flux = Flux.range(1, 100)
+                .transform(metrics.instrument("range"));
+
+        // range entrega de forma sincrona, entao a demanda pendente zera a cada request
+        StepVerifier.create(flux, 3)
+                .expectNext(1, 2, 3)
+                .then(() -> Assertions.assertEquals(0, metrics.snapshot("range").inFlightDemand()))
+                .thenRequest(4)
+                .expectNext(4, 5, 6, 7)
+                .thenRequest(3)
+                .expectNext(8, 9, 10)
+                .thenCancel()
+                .verify();
+
+        StageSnapshot snapshot = metrics.snapshot("range");
+        Assertions.assertEquals(10, snapshot.requested());
+        Assertions.assertEquals(1, snapshot.cancellations());
+        Assertions.assertEquals(0, snapshot.inFlightDemand());
+    }
+
+    @Test
+    public void worksBetweenFuseableOperators() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        Flux<String> flux = Flux.just("a", "b")
+                .map(String::toUpperCase)
+                .transform(metrics.instrument("map"))
+                .log();
+
+        StepVerifier.create(flux)
+                .expectNext("A", "B")
+                .verifyComplete();
+
+        Assertions.assertEquals(2, metrics.snapshot("map").onNext());
+    }
+
+    @Test
+    public void countsErrors() {
+        PipelineMetrics metrics = new PipelineMetrics();
+
+        StepVerifier.create(Flux.error(new IllegalArgumentException()).transform(metrics.instrument("error")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        Assertions.assertEquals(1, metrics.snapshot("error").errors());
+    }
+
+    @Test
+    public void exposesStagesThroughJmx() throws Exception {
+        PipelineMetrics metrics = new PipelineMetrics("academy.devdojo.reactive.test");
+        try {
+            Flux.range(1, 5).transform(metrics.instrument("jmx")).blockLast();
+
+            Object onNext = ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(metrics.objectName("jmx"), "OnNext");
+            Assertions.assertEquals(5L, onNext);
+        } finally {
+            metrics.unregister();
+        }
+    }
+
+    @Test
+    public void histogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(1000, snapshot.count());
+        long p99 = snapshot.percentile(99);
+        Assertions.assertTrue(p99 >= 990_000 && p99 <= 990_000 * 1.125, "p99 " + p99);
+        Assertions.assertTrue(snapshot.max() >= 1_000_000);
+    }
+
+    public Flux<String> findByName(String name) {
+        return name.equals("A") ? Flux.just("nameA1", "nameA2").delayElements(Duration.ofMillis(100)) : Flux.just("nameB1", "nameB2");
+    }
+}
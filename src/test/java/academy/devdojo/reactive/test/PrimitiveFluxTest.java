@@ -0,0 +1,118 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.primitive.IntFlux;
+import academy.devdojo.reactive.primitive.LongFlux;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+
+@Slf4j
+public class PrimitiveFluxTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void intFluxMapFilterBoxed() {
+        Flux<Integer> flux = IntFlux.range(1, 10)
+                .map(i -> i * 2)
+                .filter(i -> i % 3 == 0)
+                .boxed()
+                .log();
+
+        StepVerifier.create(flux)
+                .expectNext(6, 12, 18)
+                .verifyComplete();
+    }
+
+    @Test
+    public void intFluxBoxedHonoursBackpressure() {
+        StepVerifier.create(IntFlux.range(1, 5).boxed(), 0)
+                .expectSubscription()
+                .thenRequest(2)
+                .expectNext(1, 2)
+                .thenRequest(3)
+                .expectNext(3, 4, 5)
+                .verifyComplete();
+    }
+
+    @Test
+    public void intFluxReduce() {
+        StepVerifier.create(IntFlux.range(1, 100).reduce(0, Integer::sum))
+                .expectNext(5050)
+                .verifyComplete();
+    }
+
+    @Test
+    public void intFluxWindow() {
+        StepVerifier.create(IntFlux.just(1, 2, 3, 4, 5).window(2).map(w -> w.length))
+                .expectNext(2, 2, 1)
+                .verifyComplete();
+    }
+
+    @Test
+    public void intFluxIsReSubscribable() {
+        IntFlux flux = IntFlux.range(0, 3).map(i -> i + 1);
+
+        StepVerifier.create(flux.boxed()).expectNext(1, 2, 3).verifyComplete();
+        StepVerifier.create(flux.boxed()).expectNext(1, 2, 3).verifyComplete();
+    }
+
+    @Test
+    public void longFluxFromIntFlux() {
+        Flux<Long> flux = IntFlux.range(Integer.MAX_VALUE - 1, 2)
+                .mapToLong(i -> i + 1L)
+                .filter(l -> l > 0)
+                .boxed();
+
+        StepVerifier.create(flux)
+                .expectNext((long) Integer.MAX_VALUE, Integer.MAX_VALUE + 1L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void longFluxWindowAndCount() {
+        StepVerifier.create(LongFlux.range(0, 10).window(4).map(w -> w[w.length - 1]))
+                .expectNext(3L, 7L, 9L)
+                .verifyComplete();
+
+        StepVerifier.create(LongFlux.range(0, 1_000_000).filter(l -> (l & 1) == 0).count())
+                .expectNext(500_000L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void longFluxIntervalCountsTicksWithoutDemand() {
+        StepVerifier.withVirtualTime(() -> LongFlux.interval(Duration.ofSeconds(1), 4, VirtualTimeScheduler.get()), 0)
+                .expectSubscription()
+                .thenAwait(Duration.ofSeconds(6))
+                .thenRequest(2)
+                .assertNext(w -> Assertions.assertArrayEquals(new long[]{0, 1, 2, 3}, w))
+                .assertNext(w -> Assertions.assertArrayEquals(new long[]{4, 5}, w))
+                .thenRequest(1)
+                .expectNoEvent(Duration.ofMillis(999))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(w -> Assertions.assertArrayEquals(new long[]{6}, w))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void rangeEndingPastMaxValueIsRejected() {
+        StepVerifier.create(LongFlux.range(Long.MAX_VALUE - 1, 2).boxed())
+                .expectNext(Long.MAX_VALUE - 1, Long.MAX_VALUE)
+                .verifyComplete();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LongFlux.range(Long.MAX_VALUE, 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IntFlux.range(Integer.MAX_VALUE, 2));
+    }
+}
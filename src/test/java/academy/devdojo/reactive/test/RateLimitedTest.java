@@ -0,0 +1,137 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.ratelimit.RateLimited;
+import academy.devdojo.reactive.ratelimit.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class RateLimitedTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void limiterGrantsTheBurstThenOnePermitPerInterval() {
+        RateLimiter limiter = new RateLimiter(10, Duration.ofSeconds(1), 3);
+        long now = 0;
+
+        Assertions.assertEquals(3, limiter.tryAcquire(5, now));
+        Assertions.assertEquals(0, limiter.tryAcquire(1, now));
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.nanosUntilAvailable(now));
+        Assertions.assertEquals(1, limiter.tryAcquire(5, now + TimeUnit.MILLISECONDS.toNanos(100)));
+        // parado por 1s, o burst volta inteiro, mas nao mais que ele
+        Assertions.assertEquals(3, limiter.tryAcquire(10, now + TimeUnit.SECONDS.toNanos(2)));
+        Assertions.assertEquals(7, limiter.granted());
+    }
+
+    @Test
+    public void elementsArePacedByTheLimiter() {
+        StepVerifier.withVirtualTime(() -> Flux.range(1, 5)
+                        .transform(virtualTime(new RateLimiter(10, Duration.ofSeconds(1), 2))))
+                .expectSubscription()
+                .expectNext(1, 2)
+                .expectNoEvent(Duration.ofMillis(99))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(3)
+                .thenAwait(Duration.ofMillis(100))
+                .expectNext(4)
+                .thenAwait(Duration.ofMillis(100))
+                .expectNext(5)
+                .verifyComplete();
+    }
+
+    @Test
+    public void upstreamOnlySeesGrantedDemand() {
+        List<Long> requests = new CopyOnWriteArrayList<>();
+
+        StepVerifier.withVirtualTime(() -> Flux.range(1, 100)
+                        .doOnRequest(requests::add)
+                        .transform(virtualTime(new RateLimiter(100, Duration.ofSeconds(1), 10))))
+                .expectSubscription()
+                .expectNextCount(10)
+                .thenAwait(Duration.ofMillis(900))
+                .expectNextCount(90)
+                .verifyComplete();
+
+        log.info("upstream requests {}", requests);
+        Assertions.assertEquals(100, requests.stream().mapToLong(Long::longValue).sum());
+        Assertions.assertTrue(requests.stream().allMatch(n -> n <= 10));
+    }
+
+    @Test
+    public void slowSubscriberIsNotGivenMoreThanItRequested() {
+        StepVerifier.withVirtualTime(() -> Flux.range(1, 10)
+                        .transform(virtualTime(new RateLimiter(1000, Duration.ofSeconds(1), 100))), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofSeconds(1))
+                .thenRequest(3)
+                .expectNext(1, 2, 3)
+                .expectNoEvent(Duration.ofSeconds(1))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(7)
+                .verifyComplete();
+    }
+
+    @Test
+    public void sharedLimiterCapsTheCombinedRate() {
+        StepVerifier.withVirtualTime(() -> {
+                    RateLimiter shared = new RateLimiter(10, Duration.ofSeconds(1));
+                    return Flux.merge(
+                            Flux.range(0, 10).transform(virtualTime(shared)),
+                            Flux.range(10, 10).transform(virtualTime(shared)));
+                })
+                .expectSubscription()
+                .expectNextCount(1)
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNextCount(10)
+                // o range que termina primeiro ainda pode gastar uma permissao no ultimo request
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNextCount(9)
+                .verifyComplete();
+    }
+
+    @Test
+    public void limiterStaysAccurateUnderContention() {
+        RateLimiter limiter = new RateLimiter(50, Duration.ofMillis(100), 5);
+        long start = System.nanoTime();
+
+        Flux.range(0, 8)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .map(i -> {
+                    long granted = 0;
+                    while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500)) {
+                        granted += limiter.tryAcquire(1, System.nanoTime());
+                    }
+                    return granted;
+                })
+                .sequential()
+                .blockLast(Duration.ofSeconds(5));
+
+        // 500ms a 500/s mais o burst
+        log.info("granted {} permits", limiter.granted());
+        Assertions.assertTrue(limiter.granted() <= 255, "granted " + limiter.granted());
+        Assertions.assertTrue(limiter.granted() >= 240, "granted " + limiter.granted());
+    }
+
+    // o relogio do limiter anda com o tempo virtual do withVirtualTime em volta
+    private static <T> RateLimited<T> virtualTime(RateLimiter limiter) {
+        VirtualTimeScheduler timer = VirtualTimeScheduler.get();
+        return new RateLimited<>(limiter, timer, () -> timer.now(TimeUnit.NANOSECONDS));
+    }
+}
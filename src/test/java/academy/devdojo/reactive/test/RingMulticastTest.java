@@ -0,0 +1,193 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.multicast.RingMulticast;
+import academy.devdojo.reactive.multicast.RingMulticast.LaggardPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.blockhound.BlockHound;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+public class RingMulticastTest {
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void ringMulticastAutoConnect() {
+        Flux<Integer> fluxAutoConnect = new RingMulticast<>(Flux.range(1, 5)
+                .log()
+                .delayElements(Duration.ofMillis(100)), 16, 0, LaggardPolicy.DROP)
+                .autoConnect(2);
+
+        StepVerifier
+                .create(fluxAutoConnect)
+                .then(fluxAutoConnect::subscribe)
+                .expectNext(1, 2, 3, 4, 5)
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    public void lateSubscriberGetsReplayWindow() {
+        RingMulticast<Integer> ring = new RingMulticast<>(Flux.range(1, 10), 16, 3, LaggardPolicy.DROP);
+        ring.connect();
+
+        StepVerifier
+                .create(ring)
+                .expectNext(8, 9, 10)
+                .verifyComplete();
+    }
+
+    @Test
+    public void publishLetsStalledSubscriberPaceEveryone() {
+        ConnectableFlux<Integer> publish = Flux.range(1, 1000).publish();
+        Stalled stalled = publish.subscribeWith(new Stalled());
+        List<Integer> fast = new ArrayList<>();
+        publish.subscribe(fast::add);
+
+        publish.connect();
+
+        // publish() so emite o que todos pediram: o fast nao recebe nada
+        Assertions.assertEquals(0, fast.size());
+        stalled.dispose();
+    }
+
+    @Test
+    public void stalledSubscriberDropsWithoutStallingOthers() {
+        RingMulticast<Integer> ring = new RingMulticast<>(Flux.range(1, 1000), 16, 0, LaggardPolicy.DROP);
+        Stalled stalled = ring.subscribeWith(new Stalled());
+        List<Integer> fast = new ArrayList<>();
+        ring.subscribe(fast::add);
+
+        ring.connect();
+        Assertions.assertEquals(1000, fast.size());
+
+        stalled.requestUnbounded();
+        Assertions.assertEquals(IntStream.rangeClosed(985, 1000).boxed().collect(Collectors.toList()), stalled.received);
+        Assertions.assertTrue(stalled.completed);
+        Assertions.assertEquals(984, ring.dropped());
+    }
+
+    @Test
+    public void stalledSubscriberIsDisconnected() {
+        RingMulticast<Integer> ring = new RingMulticast<>(Flux.range(1, 1000), 16, 0, LaggardPolicy.DISCONNECT);
+        Stalled stalled = ring.subscribeWith(new Stalled());
+        List<Integer> fast = new ArrayList<>();
+        ring.subscribe(fast::add);
+
+        ring.connect();
+        stalled.requestUnbounded();
+
+        Assertions.assertEquals(1000, fast.size());
+        Assertions.assertTrue(stalled.received.isEmpty());
+        Assertions.assertTrue(Exceptions.isOverflow(stalled.error), "error " + stalled.error);
+        Assertions.assertEquals(0, ring.subscriberCount());
+    }
+
+    @Test
+    public void overwrittenReplayIsNotCountedAsLag() {
+        TestPublisher<Integer> source = TestPublisher.create();
+        RingMulticast<Integer> ring = new RingMulticast<>(source, 16, 16, LaggardPolicy.DISCONNECT);
+        ring.connect();
+        IntStream.rangeClosed(1, 20).forEach(source::next);
+
+        Stalled late = ring.subscribeWith(new Stalled());
+        // sobrescreve metade do replay antes da primeira leitura
+        IntStream.rangeClosed(21, 28).forEach(source::next);
+        late.requestUnbounded();
+        source.complete();
+
+        Assertions.assertNull(late.error);
+        Assertions.assertEquals(IntStream.rangeClosed(13, 28).boxed().collect(Collectors.toList()), late.received);
+        Assertions.assertTrue(late.completed);
+    }
+
+    @Test
+    public void stalledSubscriberSpillsAndLosesNothing() {
+        RingMulticast<Integer> ring = new RingMulticast<>(Flux.range(1, 1000), 16, 0, LaggardPolicy.SPILL);
+        Stalled stalled = ring.subscribeWith(new Stalled());
+        List<Integer> fast = new ArrayList<>();
+        ring.subscribe(fast::add);
+
+        ring.connect();
+        stalled.requestUnbounded();
+
+        List<Integer> expected = IntStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList());
+        Assertions.assertEquals(expected, fast);
+        Assertions.assertEquals(expected, stalled.received);
+        Assertions.assertTrue(stalled.completed);
+        Assertions.assertEquals(0, ring.dropped());
+    }
+
+    @Test
+    public void boundedDemandIsHonoured() {
+        RingMulticast<Integer> ring = new RingMulticast<>(Flux.range(1, 10), 16, 16, LaggardPolicy.DROP);
+        ring.connect();
+
+        StepVerifier
+                .create(ring, 2)
+                .expectNext(1, 2)
+                .thenRequest(3)
+                .expectNext(3, 4, 5)
+                .thenRequest(10)
+                .expectNext(6, 7, 8, 9, 10)
+                .verifyComplete();
+    }
+
+    @Test
+    public void errorReachesEverySubscriber() {
+        RingMulticast<Integer> ring = new RingMulticast<>(Flux.range(1, 3)
+                .concatWith(Flux.error(new IllegalArgumentException())), 16, 0, LaggardPolicy.DROP);
+        Flux<Integer> flux = ring.autoConnect(2);
+
+        StepVerifier
+                .create(flux)
+                .then(() -> flux.subscribe(i -> { }, e -> { }))
+                .expectNext(1, 2, 3)
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    // nao pede nada ate requestUnbounded, como um consumidor travado
+    private static class Stalled extends BaseSubscriber<Integer> {
+        final List<Integer> received = new ArrayList<>();
+        boolean completed;
+        Throwable error;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(Integer value) {
+            received.add(value);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+    }
+}
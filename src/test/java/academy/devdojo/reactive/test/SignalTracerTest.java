@@ -0,0 +1,173 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.diagnostics.SignalTracer;
+import academy.devdojo.reactive.diagnostics.TraceEvent;
+import academy.devdojo.reactive.diagnostics.TraceSink;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+@Slf4j
+public class SignalTracerTest {
+
+    private final List<TraceEvent> events = new CopyOnWriteArrayList<>();
+    private SignalTracer tracer;
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @AfterEach
+    public void closeTracer() {
+        if (tracer != null) {
+            tracer.close();
+        }
+    }
+
+    @Test
+    public void tracesEverySignalInOrder() {
+        tracer = new SignalTracer(events::add);
+        Flux<Integer> flux = Flux.range(1, 3)
+                .transform(tracer.trace("range"));
+
+        StepVerifier.create(flux)
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+        tracer.drain();
+
+        events.forEach(e -> log.info("{}", e));
+        Assertions.assertEquals(List.of(SignalType.ON_SUBSCRIBE, SignalType.REQUEST, SignalType.ON_NEXT,
+                        SignalType.ON_NEXT, SignalType.ON_NEXT, SignalType.ON_COMPLETE),
+                events.stream().map(TraceEvent::signal).toList());
+        Assertions.assertEquals(Long.MAX_VALUE, events.get(1).payload());
+        Assertions.assertEquals(2, events.get(4).payload());
+    }
+
+    @Test
+    public void worksBetweenFuseableOperators() {
+        tracer = new SignalTracer(events::add);
+        Flux<String> flux = Flux.just("a", "b")
+                .map(String::toUpperCase)
+                .transform(tracer.trace("map"))
+                .log();
+
+        StepVerifier.create(flux)
+                .expectNext("A", "B")
+                .verifyComplete();
+    }
+
+    @Test
+    public void ordersSignalsAcrossThreads() {
+        tracer = new SignalTracer(events::add);
+        Flux<Integer> flux = Flux.range(1, 4)
+                .transform(tracer.trace("before publishOn"))
+                .publishOn(Schedulers.boundedElastic())
+                .transform(tracer.trace("after publishOn"));
+
+        StepVerifier.create(flux)
+                .expectNextCount(4)
+                .verifyComplete();
+        tracer.drain();
+
+        Assertions.assertTrue(events.stream().map(TraceEvent::thread).distinct().count() > 1);
+        for (int i = 1; i < events.size(); i++) {
+            Assertions.assertTrue(events.get(i - 1).nanoTime() <= events.get(i).nanoTime());
+        }
+    }
+
+    @Test
+    public void samplesValuesAndFiltersByLevel() {
+        tracer = new SignalTracer(events::add, Level.FINE, 10, 1024, 10);
+        StepVerifier.create(Flux.range(0, 100).transform(tracer.trace("sampled")))
+                .expectNextCount(100)
+                .verifyComplete();
+        tracer.drain();
+        Assertions.assertEquals(10, events.stream().filter(e -> e.signal() == SignalType.ON_NEXT).count());
+
+        events.clear();
+        SignalTracer infoTracer = new SignalTracer(events::add, Level.INFO, 1, 1024, 10);
+        StepVerifier.create(Mono.error(new IllegalStateException()).transform(infoTracer.trace("mono")))
+                .expectError(IllegalStateException.class)
+                .verify();
+        infoTracer.close();
+
+        Assertions.assertEquals(List.of(SignalType.ON_SUBSCRIBE, SignalType.ON_ERROR),
+                events.stream().map(TraceEvent::signal).toList());
+        Assertions.assertEquals(IllegalStateException.class.getName(), events.get(1).error());
+    }
+
+    @Test
+    public void dropsWhenRingIsFull() {
+        tracer = new SignalTracer(events::add, Level.FINE, 1, 8, 60_000);
+
+        Flux.range(0, 100).transform(tracer.trace("small ring")).blockLast();
+
+        Assertions.assertTrue(tracer.dropped() > 0);
+    }
+
+    @Test
+    public void ringsOfDeadThreadsAreRetired() throws InterruptedException {
+        tracer = new SignalTracer(events::add, Level.FINE, 1, 8, 60_000);
+
+        for (int i = 0; i < 10; i++) {
+            Thread thread = new Thread(() -> Flux.range(0, 100).transform(tracer.trace("short lived")).blockLast());
+            thread.start();
+            thread.join();
+        }
+        Assertions.assertEquals(10, tracer.rings());
+        long dropped = tracer.dropped();
+
+        tracer.drain();
+
+        Assertions.assertEquals(0, tracer.rings());
+        Assertions.assertEquals(80, events.size());
+        Assertions.assertEquals(dropped, tracer.dropped());
+    }
+
+    @Test
+    public void closeReleasesRingsAndIgnoresLaterSignals() {
+        tracer = new SignalTracer(events::add);
+        Flux<Integer> flux = Flux.range(1, 3).transform(tracer.trace("range"));
+
+        flux.blockLast();
+        tracer.close();
+        Assertions.assertEquals(0, tracer.rings());
+        int traced = events.size();
+
+        flux.blockLast();
+        tracer.drain();
+        tracer = null;
+
+        Assertions.assertEquals(traced, events.size());
+    }
+
+    @Test
+    public void fileSinkWritesOneLinePerEvent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("trace.log");
+        tracer = new SignalTracer(TraceSink.file(file));
+
+        Flux.just("a", "b").transform(tracer.trace("just")).blockLast();
+        tracer.close();
+        tracer = null;
+
+        List<String> lines = Files.readAllLines(file);
+        Assertions.assertEquals(5, lines.size());
+        Assertions.assertTrue(lines.get(2).endsWith("just onNext(#0)"), lines.get(2));
+    }
+}
@@ -0,0 +1,225 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.backpressure.SpillSerializer;
+import academy.devdojo.reactive.backpressure.SpillingBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reactivestreams.Subscription;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.util.RaceTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Slf4j
+public class SpillingBufferTest {
+
+    // 12 bytes por Long no disco: 341 por segmento de 4KB
+    private static final int SEGMENT_BYTES = 4096;
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @Test
+    public void overflowIsSpilledAndReplayedInOrder(@TempDir Path dir) {
+        SpillingBuffer<Long> buffer = new SpillingBuffer<>(16, SpillSerializer.longs(), dir, SEGMENT_BYTES);
+        // os segmentos sao criados numa thread do parallel, que o BlockHound vigia
+        Flux<Long> flux = Flux.range(0, 10_000)
+                .map(Long::valueOf)
+                .subscribeOn(Schedulers.parallel())
+                .transform(buffer);
+
+        StepVerifier.create(flux, 0)
+                .expectSubscription()
+                .then(() -> awaitOnDisk(buffer, 10_000 - 16))
+                .expectNoEvent(Duration.ofMillis(10))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextSequence(() -> Stream.iterate(0L, i -> i + 1).limit(10_000).iterator())
+                .verifyComplete();
+
+        Assertions.assertEquals(10_000 - 16, buffer.spilled());
+        Assertions.assertEquals(0, buffer.onDisk());
+        Assertions.assertEquals(0, files(dir));
+    }
+
+    @Test
+    public void segmentsAreDeletedOnceReplayed(@TempDir Path dir) {
+        SpillingBuffer<Long> buffer = new SpillingBuffer<>(16, SpillSerializer.longs(), dir, SEGMENT_BYTES);
+        Flux<Long> flux = Flux.range(0, 10_000).map(Long::valueOf).transform(buffer);
+
+        long[] before = new long[1];
+        StepVerifier.create(flux, 0)
+                .expectSubscription()
+                .then(() -> before[0] = files(dir))
+                .thenRequest(5_000)
+                .expectNextCount(5_000)
+                .then(() -> {
+                    long after = files(dir);
+                    log.info("Segment files: {} before replay, {} after 5000 elements", before[0], after);
+                    Assertions.assertTrue(before[0] >= 29, "segments: " + before[0]);
+                    // 4984 lidos do disco: 14 segmentos inteiros
+                    Assertions.assertTrue(after <= before[0] - 14, "segments: " + after);
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(5_000)
+                .verifyComplete();
+
+        Assertions.assertEquals(0, files(dir));
+    }
+
+    @Test
+    public void cancelDeletesSegments(@TempDir Path dir) {
+        SpillingBuffer<Long> buffer = new SpillingBuffer<>(16, SpillSerializer.longs(), dir, SEGMENT_BYTES);
+        Flux<Long> flux = Flux.range(0, 10_000).map(Long::valueOf).transform(buffer);
+
+        StepVerifier.create(flux, 0)
+                .expectSubscription()
+                .then(() -> Assertions.assertTrue(files(dir) > 0))
+                .thenRequest(10)
+                .expectNext(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L)
+                .thenCancel()
+                .verify();
+
+        Assertions.assertEquals(0, files(dir));
+        Assertions.assertEquals(0, buffer.onDisk());
+    }
+
+    @Test
+    public void valueRacingCancelIsDiscarded(@TempDir Path dir) {
+        SpillingBuffer<Long> buffer = new SpillingBuffer<>(16, SpillSerializer.longs(), dir, SEGMENT_BYTES);
+        AtomicInteger arrived = new AtomicInteger();
+        AtomicInteger discarded = new AtomicInteger();
+
+        for (int round = 0; round < 2_000; round++) {
+            long value = round;
+            TestPublisher<Long> source = TestPublisher.create();
+            BaseSubscriber<Long> subscriber = source.flux()
+                    .doOnNext(v -> arrived.incrementAndGet())
+                    .transform(buffer)
+                    .doOnDiscard(Long.class, v -> discarded.incrementAndGet())
+                    .subscribeWith(new BaseSubscriber<>() {
+                        @Override
+                        protected void hookOnSubscribe(Subscription subscription) {
+                            // nada pedido: o valor fica na memoria ate o cancel
+                        }
+                    });
+
+            RaceTestUtils.race(() -> source.next(value), subscriber::cancel);
+
+            Assertions.assertEquals(arrived.get(), discarded.get(), "round " + round);
+        }
+        Assertions.assertEquals(0, files(dir));
+    }
+
+    @Test
+    public void upstreamErrorComesAfterBufferedElements(@TempDir Path dir) {
+        Flux<Long> flux = Flux.range(0, 1_000)
+                .map(Long::valueOf)
+                .concatWith(Flux.error(new IllegalStateException("upstream")))
+                .transform(new SpillingBuffer<>(16, SpillSerializer.longs(), dir, SEGMENT_BYTES));
+
+        StepVerifier.create(flux, 0)
+                .expectSubscription()
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(1_000)
+                .expectErrorMessage("upstream")
+                .verify();
+
+        Assertions.assertEquals(0, files(dir));
+    }
+
+    @Test
+    public void elementLargerThanSegmentFailsImmediately(@TempDir Path dir) {
+        String large = String.join("", Collections.nCopies(100, "x"));
+        Flux<String> flux = Flux.just("small", large, "never")
+                .transform(new SpillingBuffer<>(1, SpillSerializer.utf8(), dir, 64));
+
+        StepVerifier.create(flux, 0)
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        Assertions.assertEquals(0, files(dir));
+    }
+
+    // so com -Pstress, que passa 256MB; rodado direto, o padrao ainda passa do heap de 32MB da JVM filha
+    @Test
+    @Tag("stress")
+    public void burstLargerThanHeapIsSpilled(@TempDir Path dir) throws Exception {
+        int sizeMb = Integer.getInteger("reactive.spill.burstMb", 64);
+        ForkedJvm.Result result = ForkedJvm.run("32m", Burst.class, dir.toString(), String.valueOf(sizeMb));
+
+        log.info("Forked JVM output: {}", result.output());
+        Assertions.assertEquals(0, result.exitCode(), result.output());
+        Assertions.assertTrue(result.output().contains("received=" + (sizeMb * 1024L) + " inOrder=true"),
+                result.output());
+        Assertions.assertEquals(0, files(dir));
+    }
+
+    // a rajada roda em outra thread; espera o disco em vez de um tempo fixo
+    private static void awaitOnDisk(SpillingBuffer<?> buffer, long expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (buffer.onDisk() != expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        Assertions.assertEquals(expected, buffer.onDisk());
+    }
+
+    private static long files(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    // rajada sincrona de sizeMb MB em elementos de ~1KB sem nenhuma demanda, depois consumo de tudo
+    public static class Burst {
+        public static void main(String[] args) {
+            Path dir = Path.of(args[0]);
+            int elements = Integer.parseInt(args[1]) * 1024;
+            String padding = String.join("", Collections.nCopies(1000, "x"));
+            SpillingBuffer<String> buffer = new SpillingBuffer<>(1024, SpillSerializer.utf8(), dir, 16 * 1024 * 1024);
+
+            AtomicLong received = new AtomicLong();
+            AtomicBoolean inOrder = new AtomicBoolean(true);
+            BaseSubscriber<String> consumer = new BaseSubscriber<>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                    // nada pedido durante a rajada
+                }
+
+                @Override
+                protected void hookOnNext(String value) {
+                    long i = received.getAndIncrement();
+                    if (!value.startsWith(i + ":")) {
+                        inOrder.set(false);
+                    }
+                }
+            };
+            Flux.range(0, elements).map(i -> i + ":" + padding).transform(buffer).subscribe(consumer);
+            long spilled = buffer.spilled();
+            consumer.request(Long.MAX_VALUE);
+
+            System.out.println("received=" + received + " inOrder=" + inOrder + " spilled=" + spilled
+                    + " maxHeapMb=" + (Runtime.getRuntime().maxMemory() >> 20));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package academy.devdojo.reactive.test;
+
+import academy.devdojo.reactive.scheduler.TimingWheelScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.util.RaceTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class TimingWheelSchedulerTest {
+
+    private final TimingWheelScheduler wheel = new TimingWheelScheduler("wheel");
+
+    @BeforeAll
+    public static void setUp() {
+        BlockHound.install();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        wheel.dispose();
+    }
+
+    @Test
+    public void delayElementsRunsOnTheWheel() {
+        long start = System.nanoTime();
+
+        StepVerifier.create(Flux.just("a", "b", "c").delayElements(Duration.ofMillis(50), wheel))
+                .expectNext("a", "b", "c")
+                .verifyComplete();
+
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    public void intervalTicksAtAFixedRate() {
+        StepVerifier.create(Flux.interval(Duration.ofMillis(20), wheel).take(5))
+                .expectNext(0L, 1L, 2L, 3L, 4L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void delaySubscriptionWaitsOnTheWheel() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> mono = Mono.just("a")
+                .doOnSubscribe(s -> subscriptions.incrementAndGet())
+                .delaySubscription(Duration.ofMillis(100), wheel);
+
+        StepVerifier.create(mono)
+                .expectSubscription()
+                .then(() -> Assertions.assertEquals(0, subscriptions.get()))
+                .expectNext("a")
+                .verifyComplete();
+    }
+
+    @Test
+    public void timersAreNeverEarlyAndComeDownFromCoarserWheels() throws Exception {
+        // tick de 10us: 700ms passam pelas rodas 2 e 1 antes de chegar a 0
+        TimingWheelScheduler fine = new TimingWheelScheduler("fine", Duration.ofNanos(10_000),
+                Schedulers.parallel());
+        try {
+            List<Long> delays = List.of(1L, 3L, 40L, 300L, 700L);
+            List<Long> lateness = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(delays.size());
+            for (long delay : delays) {
+                long start = System.nanoTime();
+                fine.schedule(() -> {
+                    lateness.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) - delay);
+                    latch.countDown();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            log.info("lateness in ms {}", lateness);
+            Assertions.assertTrue(lateness.stream().allMatch(late -> late >= 0 && late < 200), lateness.toString());
+            Assertions.assertEquals(0, fine.pendingTimers());
+        } finally {
+            fine.dispose();
+        }
+    }
+
+    @Test
+    public void cancelledTimersNeverRun() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        List<Disposable> timers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            timers.add(wheel.schedule(runs::incrementAndGet, 50 + i % 100, TimeUnit.MILLISECONDS));
+        }
+        Assertions.assertEquals(10_000, wheel.pendingTimers());
+        timers.forEach(Disposable::dispose);
+
+        Thread.sleep(250);
+        Assertions.assertEquals(0, runs.get());
+        Assertions.assertEquals(0, wheel.pendingTimers());
+        Assertions.assertTrue(timers.stream().allMatch(Disposable::isDisposed));
+    }
+
+    @Test
+    public void timersArmedWhileDisposingAreNotLeftPending() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            TimingWheelScheduler racing = new TimingWheelScheduler("racing", Duration.ofMillis(1),
+                    Schedulers.parallel());
+            RaceTestUtils.race(racing::dispose, () -> {
+                try {
+                    racing.schedule(() -> {
+                    }, 1, TimeUnit.SECONDS);
+                } catch (RejectedExecutionException e) {
+                    // perdeu para o dispose
+                }
+            });
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (racing.pendingTimers() != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            // o timer que ganhou do dispose e cancelado pelo ticker; o que perdeu sai da conta no arm
+            Assertions.assertEquals(0, racing.pendingTimers(), "round " + round);
+        }
+    }
+
+    @Test
+    public void workerRunsItsTasksInOrderAndDisposesItsTimers() throws Exception {
+        Scheduler.Worker worker = wheel.createWorker();
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        worker.schedule(() -> {
+            order.add(2);
+            latch.countDown();
+        }, 30, TimeUnit.MILLISECONDS);
+        worker.schedule(() -> {
+            order.add(1);
+            latch.countDown();
+        });
+        worker.schedule(() -> {
+            order.add(3);
+            latch.countDown();
+        }, 60, TimeUnit.MILLISECONDS);
+        AtomicInteger late = new AtomicInteger();
+        worker.schedule(late::incrementAndGet, 200, TimeUnit.MILLISECONDS);
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        worker.dispose();
+        Thread.sleep(250);
+
+        Assertions.assertEquals(List.of(1, 2, 3), order);
+        Assertions.assertEquals(0, late.get());
+        Assertions.assertEquals(0, wheel.pendingTimers());
+    }
+}